@@ -81,8 +81,8 @@ const DashboardPassenger = () => {
       };
       const res = await api.post("/api/trips/search", payload);
       
-      // Handle ApiResponse format from backend
-      const results = res.data?.data || res.data || [];
+      // Handle ApiResponse format from backend (paged: { trips, nextCursor, hasMore })
+      const results = res.data?.data?.trips || [];
       setSearchResults(results);
     } catch (e) {
       setError(e.response?.data?.message || "Failed to search trips");
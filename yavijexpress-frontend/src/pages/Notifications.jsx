@@ -3,7 +3,9 @@ import api from "../api/axiosClient";
 
 const Notifications = () => {
   const [items, setItems] = useState([]);
+  const [nextCursor, setNextCursor] = useState(null);
   const [loading, setLoading] = useState(true);
+  const [loadingMore, setLoadingMore] = useState(false);
   const [error, setError] = useState("");
 
   const loadNotifications = async () => {
@@ -11,8 +13,10 @@ const Notifications = () => {
       setLoading(true);
       setError("");
       const res = await api.get("/api/notifications");
-      const data = res.data?.data || res.data || [];
-      setItems(Array.isArray(data) ? data : []);
+      // Paged: { notifications, nextCursor, hasMore }
+      const page = res.data?.data || {};
+      setItems(Array.isArray(page.notifications) ? page.notifications : []);
+      setNextCursor(page.nextCursor || null);
     } catch (e) {
       setError(e.response?.data?.message || "Failed to load notifications");
     } finally {
@@ -20,6 +24,21 @@ const Notifications = () => {
     }
   };
 
+  const loadMore = async () => {
+    if (!nextCursor) return;
+    try {
+      setLoadingMore(true);
+      const res = await api.get("/api/notifications", { params: { cursor: nextCursor } });
+      const page = res.data?.data || {};
+      setItems(prev => [...prev, ...(page.notifications || [])]);
+      setNextCursor(page.nextCursor || null);
+    } catch (e) {
+      setError(e.response?.data?.message || "Failed to load notifications");
+    } finally {
+      setLoadingMore(false);
+    }
+  };
+
   useEffect(() => {
     loadNotifications();
   }, []);
@@ -216,6 +235,18 @@ const Notifications = () => {
               <NotificationCard key={notification.id} notification={notification} />
             ))}
           </div>
+
+          {nextCursor && (
+            <div className="actions-bar">
+              <button
+                onClick={loadMore}
+                disabled={loadingMore}
+                className="action-btn refresh-btn"
+              >
+                {loadingMore ? "Loading..." : "⬇️ Load More"}
+              </button>
+            </div>
+          )}
         </div>
       )}
     </div>
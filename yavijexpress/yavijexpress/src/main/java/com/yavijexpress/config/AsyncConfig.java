@@ -1,9 +1,79 @@
 package com.yavijexpress.config;
 
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.scheduling.annotation.EnableAsync;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
 
 @Configuration
 @EnableAsync
 public class AsyncConfig {
-}
\ No newline at end of file
+
+    // Drains the notification outbox; the outbox table is the queue, so the pool only needs a short one
+    @Bean(name = "notificationExecutor")
+    public ThreadPoolTaskExecutor notificationExecutor(@Value("${notifications.outbox.workers:4}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("notify-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+
+    // Runs admin broadcasts; each run is a recipient count and one topic push, so a couple of threads keep up
+    @Bean(name = "broadcastExecutor")
+    public ThreadPoolTaskExecutor broadcastExecutor(@Value("${notifications.broadcast.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(50);
+        executor.setThreadNamePrefix("broadcast-");
+        executor.initialize();
+        return executor;
+    }
+
+    // Expires lapsed seat holds off the timing-wheel thread; rejected expiries are picked up by the booking-expiry sweep
+    @Bean(name = "holdExpiryExecutor")
+    public ThreadPoolTaskExecutor holdExpiryExecutor(@Value("${booking.hold.expiry-workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(1000);
+        executor.setThreadNamePrefix("hold-expiry-");
+        executor.initialize();
+        return executor;
+    }
+
+    // SOS fan-out; rejected work stays PENDING in emergency_deliveries and is retried, so the queue can stay bounded
+    @Bean(name = "emergencyExecutor")
+    public ThreadPoolTaskExecutor emergencyExecutor(@Value("${emergency.dispatch.workers:16}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(500);
+        executor.setThreadPriority(Thread.MAX_PRIORITY);
+        executor.setThreadNamePrefix("emergency-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(15);
+        executor.initialize();
+        return executor;
+    }
+
+    // Drains outbound_mails; each thread holds one SMTP connection, so keep it to what the server tolerates
+    @Bean(name = "mailExecutor")
+    public ThreadPoolTaskExecutor mailExecutor(@Value("${mail.outbox.workers:2}") int workers) {
+        ThreadPoolTaskExecutor executor = new ThreadPoolTaskExecutor();
+        executor.setCorePoolSize(workers);
+        executor.setMaxPoolSize(workers);
+        executor.setQueueCapacity(workers);
+        executor.setThreadNamePrefix("mail-");
+        executor.setWaitForTasksToCompleteOnShutdown(true);
+        executor.setAwaitTerminationSeconds(10);
+        executor.initialize();
+        return executor;
+    }
+}
@@ -3,8 +3,11 @@ package com.yavijexpress.controller;
 import com.yavijexpress.dto.AdminDTO;
 import com.yavijexpress.dto.ContactMessageDTO;
 import com.yavijexpress.entity.ContactMessage;
+import com.yavijexpress.jobs.SweepRunner;
 import com.yavijexpress.repository.ContactMessageRepository;
 import com.yavijexpress.service.AdminService;
+import com.yavijexpress.mail.MailOutboxWorker;
+import com.yavijexpress.websocket.WebSocketMetrics;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
@@ -22,13 +25,19 @@ public class AdminController {
 
     private final AdminService adminService;
     private final NotificationService notificationService;
+    private final SweepRunner sweepRunner;
+    private final WebSocketMetrics webSocketMetrics;
+    private final MailOutboxWorker mailOutboxWorker;
     
     @Autowired
     private ContactMessageRepository contactMessageRepository;
 
-    public AdminController(AdminService adminService, NotificationService notificationService) {
+    public AdminController(AdminService adminService, NotificationService notificationService, SweepRunner sweepRunner, WebSocketMetrics webSocketMetrics, MailOutboxWorker mailOutboxWorker) {
         this.adminService = adminService;
         this.notificationService = notificationService;
+        this.sweepRunner = sweepRunner;
+        this.webSocketMetrics = webSocketMetrics;
+        this.mailOutboxWorker = mailOutboxWorker;
     }
 
     @PostMapping("/notifications")
@@ -36,20 +45,21 @@ public class AdminController {
             @RequestBody NotificationDTO.AdminNotificationRequest request) {
         try {
             String target = request.getTargetAudience().toUpperCase();
+            Long broadcastId;
 
             if ("ALL".equals(target)) {
-                notificationService.sendBroadcastNotificationToAll(
+                broadcastId = notificationService.sendBroadcastNotificationToAll(
                         request.getTitle(),
                         request.getMessage()
                 );
             } else if ("DRIVER".equals(target)) {
-                notificationService.sendBroadcastNotification(
+                broadcastId = notificationService.sendBroadcastNotification(
                         User.UserRole.DRIVER,
                         request.getTitle(),
                         request.getMessage()
                 );
             } else if ("PASSENGER".equals(target)) {
-                notificationService.sendBroadcastNotification(
+                broadcastId = notificationService.sendBroadcastNotification(
                         User.UserRole.PASSENGER,
                         request.getTitle(),
                         request.getMessage()
@@ -60,8 +70,9 @@ public class AdminController {
                 );
             }
 
+            // Delivery runs in the background; progress is at /api/admin/notifications/broadcasts/{id}
             return ResponseEntity.ok(
-                    com.yavijexpress.dto.ApiResponse.success(null, "Notification sent successfully")
+                    com.yavijexpress.dto.ApiResponse.success(java.util.Map.of("broadcastId", broadcastId), "Notification sent successfully")
             );
         } catch (Exception e) {
             return ResponseEntity.status(500).body(
@@ -70,6 +81,22 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/notifications/broadcasts")
+    public ResponseEntity<?> getRecentBroadcasts(@RequestParam(defaultValue = "20") int limit) {
+        List<NotificationDTO.BroadcastProgress> broadcasts = notificationService.getRecentBroadcasts(Math.min(limit, 100));
+        return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(broadcasts, "Broadcasts retrieved"));
+    }
+
+    @GetMapping("/notifications/broadcasts/{broadcastId}")
+    public ResponseEntity<?> getBroadcastProgress(@PathVariable Long broadcastId) {
+        try {
+            NotificationDTO.BroadcastProgress progress = notificationService.getBroadcastProgress(broadcastId);
+            return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(progress, "Broadcast progress retrieved"));
+        } catch (com.yavijexpress.exception.ResourceNotFoundException e) {
+            return ResponseEntity.status(404).body(com.yavijexpress.dto.ApiResponse.error(e.getMessage()));
+        }
+    }
+
     @GetMapping("/dashboard/stats")
     public ResponseEntity<?> getDashboardStats() {
         try {
@@ -82,6 +109,21 @@ public class AdminController {
         }
     }
 
+    @GetMapping("/jobs/stats")
+    public ResponseEntity<?> getJobStats() {
+        return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(sweepRunner.getStats(), "Job stats retrieved"));
+    }
+
+    @GetMapping("/websocket/stats")
+    public ResponseEntity<?> getWebSocketStats() {
+        return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(webSocketMetrics.snapshot(), "WebSocket stats retrieved"));
+    }
+
+    @GetMapping("/mail/stats")
+    public ResponseEntity<?> getMailStats() {
+        return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(mailOutboxWorker.stats(), "Mail stats retrieved"));
+    }
+
     @GetMapping("/contacts/stats")
     public ResponseEntity<?> getContactStats() {
         try {
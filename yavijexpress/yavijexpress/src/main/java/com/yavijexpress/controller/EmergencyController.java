@@ -4,8 +4,12 @@ import com.yavijexpress.dto.EmergencyDTO;
 import com.yavijexpress.service.EmergencyService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
+import java.time.LocalDateTime;
+import java.util.List;
 
 @RestController
 @RequestMapping("/api/emergency")
@@ -30,6 +34,34 @@ public class EmergencyController {
         return ResponseEntity.ok("Location updated");
     }
 
+    @GetMapping("/location/{tripId}/latest")
+    public ResponseEntity<EmergencyDTO.LiveLocationResponse> getLatestLocation(@PathVariable Long tripId) {
+        return ResponseEntity.ok(emergencyService.getLatestLocation(tripId));
+    }
+
+    // Replay of the stored path; tolerance (metres) downsamples it for drawing
+    @GetMapping("/trips/{tripId}/trajectory")
+    public ResponseEntity<EmergencyDTO.TrajectoryResponse> getTrajectory(
+            @PathVariable Long tripId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to,
+            @RequestParam(required = false) Double tolerance) {
+        return ResponseEntity.ok(emergencyService.getTrajectory(tripId, from, to, tolerance));
+    }
+
+    // Initial state of the ops board; follow /topic/admin/emergencies for changes
+    @GetMapping("/active")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<EmergencyDTO.OpsBoard> getActiveEmergencies() {
+        return ResponseEntity.ok(emergencyService.getActiveEmergencies());
+    }
+
+    @GetMapping("/alerts/{alertId}/deliveries")
+    @PreAuthorize("hasRole('ADMIN')")
+    public ResponseEntity<List<EmergencyDTO.DeliveryStatus>> getDeliveries(@PathVariable Long alertId) {
+        return ResponseEntity.ok(emergencyService.getDeliveries(alertId));
+    }
+
     @GetMapping("/contacts/{userId}")
     public ResponseEntity<?> getEmergencyContacts(@PathVariable Long userId) {
         return ResponseEntity.ok(emergencyService.getEmergencyContacts(userId));
@@ -3,7 +3,7 @@ package com.yavijexpress.controller;
 import com.yavijexpress.dto.ApiResponse;
 import com.yavijexpress.dto.NotificationDTO;
 import com.yavijexpress.entity.Notification;
-import com.yavijexpress.exception.UnauthorizedException;
+import com.yavijexpress.service.NotificationInboxService;
 import com.yavijexpress.service.NotificationService;
 import com.yavijexpress.utils.SecurityUtils;
 import lombok.RequiredArgsConstructor;
@@ -13,7 +13,6 @@ import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.web.bind.annotation.*;
 
 import java.util.List;
-import java.util.stream.Collectors;
 
 @RestController
 @RequestMapping("/api/notifications")
@@ -22,40 +21,27 @@ public class NotificationController {
     @Autowired
     private  NotificationService notificationService;
 
+    @Autowired
+    private  NotificationInboxService notificationInboxService;
+
     @Autowired
     private  com.yavijexpress.repository.NotificationRepository notificationRepository;
 
     @GetMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<List<NotificationDTO.NotificationResponse>>> getUserNotifications() {
-        Long userId = SecurityUtils.getCurrentUserId();
-
-        List<NotificationDTO.NotificationResponse> notifications = notificationRepository
-                .findByUserIdOrderByCreatedAtDesc(userId)
-                .stream()
-                .map(notification -> {
-                    NotificationDTO.NotificationResponse response = new NotificationDTO.NotificationResponse();
-                    response.setId(notification.getId());
-                    response.setTitle(notification.getTitle());
-                    response.setMessage(notification.getMessage());
-                    response.setType(notification.getType().toString());
-                    response.setIsRead(notification.getRead());
-                    response.setRelatedEntityType(notification.getRelatedEntityType());
-                    response.setRelatedEntityId(notification.getRelatedEntityId());
-                    response.setActions(notification.getActions());
-                    response.setCreatedAt(notification.getCreatedAt());
-                    return response;
-                })
-                .collect(Collectors.toList());
-
-        return ResponseEntity.ok(ApiResponse.success(notifications, "Notifications retrieved"));
+    public ResponseEntity<ApiResponse<NotificationDTO.NotificationPage>> getUserNotifications(
+            @RequestParam(required = false) String cursor,
+            @RequestParam(required = false) Integer limit) {
+        NotificationDTO.NotificationPage page =
+                notificationInboxService.getInbox(SecurityUtils.getCurrentUser(), cursor, limit);
+
+        return ResponseEntity.ok(ApiResponse.success(page, "Notifications retrieved"));
     }
 
     @GetMapping("/unread/count")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<Long>> getUnreadCount() {
-        Long userId = SecurityUtils.getCurrentUserId();
-        Long count = notificationRepository.countByUserIdAndIsReadFalse(userId);
+        Long count = notificationInboxService.getUnreadCount(SecurityUtils.getCurrentUser());
 
         return ResponseEntity.ok(ApiResponse.success(count, "Unread count retrieved"));
     }
@@ -63,61 +49,33 @@ public class NotificationController {
     @PostMapping("/{notificationId}/read")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<?>> markAsRead(@PathVariable Long notificationId) {
-        var notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new com.yavijexpress.exception.ResourceNotFoundException("Notification not found"));
-
-        // Check ownership
-        if (!notification.getUser().getId().equals(SecurityUtils.getCurrentUserId())) {
-            throw new UnauthorizedException("Access denied");
-        }
-
-        notification.setIsRead(true);
-        notificationRepository.save(notification);
+        notificationInboxService.markAsRead(SecurityUtils.getCurrentUser(), notificationId);
 
         return ResponseEntity.ok(ApiResponse.success(null, "Notification marked as read"));
     }
 
     @PostMapping("/read-all")
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<?>> markAllAsRead() {
-        Long userId = SecurityUtils.getCurrentUserId();
-
-        List<Notification> notifications =
-                notificationRepository.findByUserIdAndIsReadFalse(userId);
+    public ResponseEntity<ApiResponse<Integer>> markAllAsRead() {
+        int updated = notificationInboxService.markAllAsRead(SecurityUtils.getCurrentUser());
 
-        notifications.forEach(notification -> notification.setIsRead(true));
-        notificationRepository.saveAll(notifications);
-
-        return ResponseEntity.ok(ApiResponse.success(null, "All notifications marked as read"));
+        return ResponseEntity.ok(ApiResponse.success(updated, "All notifications marked as read"));
     }
 
     @DeleteMapping("/{notificationId}")
     @PreAuthorize("isAuthenticated()")
     public ResponseEntity<ApiResponse<?>> deleteNotification(@PathVariable Long notificationId) {
-        var notification = notificationRepository.findById(notificationId)
-                .orElseThrow(() -> new com.yavijexpress.exception.ResourceNotFoundException("Notification not found"));
-
-        // Check ownership
-        if (!notification.getUser().getId().equals(SecurityUtils.getCurrentUserId())) {
-            throw new com.yavijexpress.exception.UnauthorizedException("Access denied");
-        }
-
-        notificationRepository.delete(notification);
+        notificationInboxService.delete(SecurityUtils.getCurrentUser(), notificationId);
 
         return ResponseEntity.ok(ApiResponse.success(null, "Notification deleted"));
     }
 
     @DeleteMapping
     @PreAuthorize("isAuthenticated()")
-    public ResponseEntity<ApiResponse<?>> deleteAllNotifications() {
-        Long userId = SecurityUtils.getCurrentUserId();
-
-        List<com.yavijexpress.entity.Notification> notifications =
-                notificationRepository.findByUserIdOrderByCreatedAtDesc(userId);
-
-        notificationRepository.deleteAll(notifications);
+    public ResponseEntity<ApiResponse<Integer>> deleteAllNotifications() {
+        int deleted = notificationInboxService.deleteAll(SecurityUtils.getCurrentUser());
 
-        return ResponseEntity.ok(ApiResponse.success(null, "All notifications deleted"));
+        return ResponseEntity.ok(ApiResponse.success(deleted, "All notifications deleted"));
     }
 
     @GetMapping("/test-actions")
@@ -62,6 +62,11 @@ public class TripController {
             trip.setTotalSeats(request.getTotalSeats());
             trip.setAvailableSeats(request.getTotalSeats());
             trip.setDistanceKm(request.getDistanceKm());
+            trip.setRoutePolyline(request.getRoutePolyline());
+            trip.setOriginLatitude(request.getOriginLatitude());
+            trip.setOriginLongitude(request.getOriginLongitude());
+            trip.setDestinationLatitude(request.getDestinationLatitude());
+            trip.setDestinationLongitude(request.getDestinationLongitude());
             trip.setIsFlexible(request.getIsFlexible());
             trip.setNotes(request.getNotes());
             trip.setStatus(com.yavijexpress.entity.Trip.TripStatus.SCHEDULED);
@@ -71,6 +76,7 @@ public class TripController {
             
             // Save to database
             com.yavijexpress.entity.Trip savedTrip = tripRepository.save(trip);
+            tripService.refreshSearchIndex(savedTrip.getId());
             
             return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(savedTrip, "Trip created successfully"));
         } catch (Exception e) {
@@ -102,8 +108,12 @@ public class TripController {
     public ResponseEntity<?> searchTrips(
             @Valid @RequestBody TripDTO.TripSearchRequest request) {
         try {
-            List<TripDTO.TripResponse> trips = tripService.searchTrips(request);
-            return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(trips, "Trips found"));
+            TripDTO.TripSearchPage page = tripService.searchTrips(request);
+            return ResponseEntity.ok(com.yavijexpress.dto.ApiResponse.success(page, "Trips found"));
+        } catch (com.yavijexpress.exception.BadRequestException e) {
+            return ResponseEntity.badRequest().body(
+                com.yavijexpress.dto.ApiResponse.error(e.getMessage(), org.springframework.http.HttpStatus.BAD_REQUEST)
+            );
         } catch (Exception e) {
             return ResponseEntity.status(500).body(
                 com.yavijexpress.dto.ApiResponse.error("Failed to search trips: " + e.getMessage())
@@ -152,6 +162,7 @@ public class TripController {
             }
             
             tripRepository2.delete(trip);
+            tripService.refreshSearchIndex(tripId);
             
             return ResponseEntity.ok(
                 com.yavijexpress.dto.ApiResponse.success(null, "Trip deleted successfully")
@@ -181,6 +192,7 @@ public class TripController {
             trip.setStatus(com.yavijexpress.entity.Trip.TripStatus.SCHEDULED);
             trip.setIsActive(true);
             tripRepository2.save(trip);
+            tripService.refreshSearchIndex(tripId);
             
             return ResponseEntity.ok(
                 com.yavijexpress.dto.ApiResponse.success(null, "Trip restarted successfully")
@@ -4,6 +4,7 @@ import jakarta.validation.constraints.*;
 import lombok.Data;
 
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class EmergencyDTO {
 
@@ -101,6 +102,9 @@ public class EmergencyDTO {
         @NotNull private Long tripId;
         @NotNull private Double latitude;
         @NotNull private Double longitude;
+        @PositiveOrZero private Float accuracy; // meters
+        @PositiveOrZero private Float speed; // km/h
+        @DecimalMin("0") @DecimalMax("360") private Float bearing; // degrees
 
         public Long getTripId() {
             return tripId;
@@ -125,5 +129,449 @@ public class EmergencyDTO {
         public void setLongitude(Double longitude) {
             this.longitude = longitude;
         }
+
+        public Float getAccuracy() {
+            return accuracy;
+        }
+
+        public void setAccuracy(Float accuracy) {
+            this.accuracy = accuracy;
+        }
+
+        public Float getSpeed() {
+            return speed;
+        }
+
+        public void setSpeed(Float speed) {
+            this.speed = speed;
+        }
+
+        public Float getBearing() {
+            return bearing;
+        }
+
+        public void setBearing(Float bearing) {
+            this.bearing = bearing;
+        }
+    }
+
+    @Data
+    public static class LiveLocationResponse {
+        private Long tripId;
+        private Long userId;
+        private Double latitude;
+        private Double longitude;
+        private Float accuracy;
+        private Float speed;
+        private Float bearing;
+        private LocalDateTime updatedAt;
+
+        public Long getTripId() {
+            return tripId;
+        }
+
+        public void setTripId(Long tripId) {
+            this.tripId = tripId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public Float getAccuracy() {
+            return accuracy;
+        }
+
+        public void setAccuracy(Float accuracy) {
+            this.accuracy = accuracy;
+        }
+
+        public Float getSpeed() {
+            return speed;
+        }
+
+        public void setSpeed(Float speed) {
+            this.speed = speed;
+        }
+
+        public Float getBearing() {
+            return bearing;
+        }
+
+        public void setBearing(Float bearing) {
+            this.bearing = bearing;
+        }
+
+        public LocalDateTime getUpdatedAt() {
+            return updatedAt;
+        }
+
+        public void setUpdatedAt(LocalDateTime updatedAt) {
+            this.updatedAt = updatedAt;
+        }
+    }
+
+    @Data
+    public static class TrajectoryResponse {
+        private Long tripId;
+        private Integer totalPoints; // stored points before filtering and downsampling
+        private LocalDateTime startedAt;
+        private LocalDateTime endedAt;
+        private String polyline; // the returned points as a Google encoded polyline
+        private List<TrajectoryPoint> points;
+
+        public Long getTripId() {
+            return tripId;
+        }
+
+        public void setTripId(Long tripId) {
+            this.tripId = tripId;
+        }
+
+        public Integer getTotalPoints() {
+            return totalPoints;
+        }
+
+        public void setTotalPoints(Integer totalPoints) {
+            this.totalPoints = totalPoints;
+        }
+
+        public LocalDateTime getStartedAt() {
+            return startedAt;
+        }
+
+        public void setStartedAt(LocalDateTime startedAt) {
+            this.startedAt = startedAt;
+        }
+
+        public LocalDateTime getEndedAt() {
+            return endedAt;
+        }
+
+        public void setEndedAt(LocalDateTime endedAt) {
+            this.endedAt = endedAt;
+        }
+
+        public String getPolyline() {
+            return polyline;
+        }
+
+        public void setPolyline(String polyline) {
+            this.polyline = polyline;
+        }
+
+        public List<TrajectoryPoint> getPoints() {
+            return points;
+        }
+
+        public void setPoints(List<TrajectoryPoint> points) {
+            this.points = points;
+        }
+    }
+
+    @Data
+    public static class TrajectoryPoint {
+        private Double latitude;
+        private Double longitude;
+        private Float speed;
+        private LocalDateTime recordedAt;
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public Float getSpeed() {
+            return speed;
+        }
+
+        public void setSpeed(Float speed) {
+            this.speed = speed;
+        }
+
+        public LocalDateTime getRecordedAt() {
+            return recordedAt;
+        }
+
+        public void setRecordedAt(LocalDateTime recordedAt) {
+            this.recordedAt = recordedAt;
+        }
+    }
+
+    @Data
+    public static class DeliveryStatus {
+        private Long id;
+        private String channel;
+        private String recipient;
+        private String status;
+        private Integer attempts;
+        private String lastError;
+        private LocalDateTime createdAt;
+        private LocalDateTime completedAt;
+
+        public Long getId() {
+            return id;
+        }
+
+        public void setId(Long id) {
+            this.id = id;
+        }
+
+        public String getChannel() {
+            return channel;
+        }
+
+        public void setChannel(String channel) {
+            this.channel = channel;
+        }
+
+        public String getRecipient() {
+            return recipient;
+        }
+
+        public void setRecipient(String recipient) {
+            this.recipient = recipient;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public Integer getAttempts() {
+            return attempts;
+        }
+
+        public void setAttempts(Integer attempts) {
+            this.attempts = attempts;
+        }
+
+        public String getLastError() {
+            return lastError;
+        }
+
+        public void setLastError(String lastError) {
+            this.lastError = lastError;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public LocalDateTime getCompletedAt() {
+            return completedAt;
+        }
+
+        public void setCompletedAt(LocalDateTime completedAt) {
+            this.completedAt = completedAt;
+        }
+    }
+
+    @Data
+    public static class ActiveEmergency {
+        private Long alertId;
+        private Long tripId;
+        private Long userId;
+        private String alertType;
+        private String status;
+        private String message;
+        private String fromLocation;
+        private String toLocation;
+        private String driverName;
+        private String vehicleNumber;
+        private Double latitude; // where the alert was raised
+        private Double longitude;
+        private LocalDateTime createdAt;
+        private Double lastLatitude; // latest streamed position of the trip, if any
+        private Double lastLongitude;
+        private Float lastSpeed;
+        private LocalDateTime lastLocationAt;
+
+        public Long getAlertId() {
+            return alertId;
+        }
+
+        public void setAlertId(Long alertId) {
+            this.alertId = alertId;
+        }
+
+        public Long getTripId() {
+            return tripId;
+        }
+
+        public void setTripId(Long tripId) {
+            this.tripId = tripId;
+        }
+
+        public Long getUserId() {
+            return userId;
+        }
+
+        public void setUserId(Long userId) {
+            this.userId = userId;
+        }
+
+        public String getAlertType() {
+            return alertType;
+        }
+
+        public void setAlertType(String alertType) {
+            this.alertType = alertType;
+        }
+
+        public String getStatus() {
+            return status;
+        }
+
+        public void setStatus(String status) {
+            this.status = status;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public void setMessage(String message) {
+            this.message = message;
+        }
+
+        public String getFromLocation() {
+            return fromLocation;
+        }
+
+        public void setFromLocation(String fromLocation) {
+            this.fromLocation = fromLocation;
+        }
+
+        public String getToLocation() {
+            return toLocation;
+        }
+
+        public void setToLocation(String toLocation) {
+            this.toLocation = toLocation;
+        }
+
+        public String getDriverName() {
+            return driverName;
+        }
+
+        public void setDriverName(String driverName) {
+            this.driverName = driverName;
+        }
+
+        public String getVehicleNumber() {
+            return vehicleNumber;
+        }
+
+        public void setVehicleNumber(String vehicleNumber) {
+            this.vehicleNumber = vehicleNumber;
+        }
+
+        public Double getLatitude() {
+            return latitude;
+        }
+
+        public void setLatitude(Double latitude) {
+            this.latitude = latitude;
+        }
+
+        public Double getLongitude() {
+            return longitude;
+        }
+
+        public void setLongitude(Double longitude) {
+            this.longitude = longitude;
+        }
+
+        public LocalDateTime getCreatedAt() {
+            return createdAt;
+        }
+
+        public void setCreatedAt(LocalDateTime createdAt) {
+            this.createdAt = createdAt;
+        }
+
+        public Double getLastLatitude() {
+            return lastLatitude;
+        }
+
+        public void setLastLatitude(Double lastLatitude) {
+            this.lastLatitude = lastLatitude;
+        }
+
+        public Double getLastLongitude() {
+            return lastLongitude;
+        }
+
+        public void setLastLongitude(Double lastLongitude) {
+            this.lastLongitude = lastLongitude;
+        }
+
+        public Float getLastSpeed() {
+            return lastSpeed;
+        }
+
+        public void setLastSpeed(Float lastSpeed) {
+            this.lastSpeed = lastSpeed;
+        }
+
+        public LocalDateTime getLastLocationAt() {
+            return lastLocationAt;
+        }
+
+        public void setLastLocationAt(LocalDateTime lastLocationAt) {
+            this.lastLocationAt = lastLocationAt;
+        }
+    }
+
+    @Data
+    public static class OpsBoard {
+        private List<ActiveEmergency> alerts; // follow /topic/admin/emergencies from before loading this
+
+        public List<ActiveEmergency> getAlerts() {
+            return alerts;
+        }
+
+        public void setAlerts(List<ActiveEmergency> alerts) {
+            this.alerts = alerts;
+        }
     }
-}
\ No newline at end of file
+}
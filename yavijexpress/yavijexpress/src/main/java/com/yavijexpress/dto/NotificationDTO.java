@@ -3,6 +3,7 @@ package com.yavijexpress.dto;
 import jakarta.validation.constraints.NotNull;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class NotificationDTO {
 
@@ -128,4 +129,85 @@ public class NotificationDTO {
 
 
     }
-}
\ No newline at end of file
+
+    @Data
+    public static class NotificationPage {
+        private List<NotificationResponse> notifications;
+        private String nextCursor;
+        private Boolean hasMore;
+
+        public NotificationPage(List<NotificationResponse> notifications, String nextCursor) {
+            this.notifications = notifications;
+            this.nextCursor = nextCursor;
+            this.hasMore = nextCursor != null;
+        }
+
+        public List<NotificationResponse> getNotifications() {
+            return notifications;
+        }
+
+        public void setNotifications(List<NotificationResponse> notifications) {
+            this.notifications = notifications;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
+
+        public Boolean getHasMore() {
+            return hasMore;
+        }
+
+        public void setHasMore(Boolean hasMore) {
+            this.hasMore = hasMore;
+        }
+    }
+
+    @Data
+    public static class BroadcastProgress {
+        private Long id;
+        private String title;
+        private String targetAudience;
+        private String status;
+        private Long totalRecipients;
+        private Long processedRecipients;
+        private LocalDateTime createdAt;
+        private LocalDateTime startedAt;
+        private LocalDateTime finishedAt;
+        private String lastError;
+
+        public Long getId() { return id; }
+        public void setId(Long id) { this.id = id; }
+
+        public String getTitle() { return title; }
+        public void setTitle(String title) { this.title = title; }
+
+        public String getTargetAudience() { return targetAudience; }
+        public void setTargetAudience(String targetAudience) { this.targetAudience = targetAudience; }
+
+        public String getStatus() { return status; }
+        public void setStatus(String status) { this.status = status; }
+
+        public Long getTotalRecipients() { return totalRecipients; }
+        public void setTotalRecipients(Long totalRecipients) { this.totalRecipients = totalRecipients; }
+
+        public Long getProcessedRecipients() { return processedRecipients; }
+        public void setProcessedRecipients(Long processedRecipients) { this.processedRecipients = processedRecipients; }
+
+        public LocalDateTime getCreatedAt() { return createdAt; }
+        public void setCreatedAt(LocalDateTime createdAt) { this.createdAt = createdAt; }
+
+        public LocalDateTime getStartedAt() { return startedAt; }
+        public void setStartedAt(LocalDateTime startedAt) { this.startedAt = startedAt; }
+
+        public LocalDateTime getFinishedAt() { return finishedAt; }
+        public void setFinishedAt(LocalDateTime finishedAt) { this.finishedAt = finishedAt; }
+
+        public String getLastError() { return lastError; }
+        public void setLastError(String lastError) { this.lastError = lastError; }
+    }
+}
@@ -3,6 +3,7 @@ package com.yavijexpress.dto;
 import jakarta.validation.constraints.*;
 import lombok.Data;
 import java.time.LocalDateTime;
+import java.util.List;
 
 public class TripDTO {
 
@@ -16,6 +17,10 @@ public class TripDTO {
         @NotNull @Min(1) private Integer totalSeats;
         private String routePolyline;
         private Double distanceKm;
+        @DecimalMin("-90.0") @DecimalMax("90.0") private Double originLatitude;
+        @DecimalMin("-180.0") @DecimalMax("180.0") private Double originLongitude;
+        @DecimalMin("-90.0") @DecimalMax("90.0") private Double destinationLatitude;
+        @DecimalMin("-180.0") @DecimalMax("180.0") private Double destinationLongitude;
         private Boolean isFlexible = false;
         private String notes;
         @NotNull private Long vehicleId;
@@ -84,6 +89,38 @@ public class TripDTO {
             this.distanceKm = distanceKm;
         }
 
+        public Double getOriginLatitude() {
+            return originLatitude;
+        }
+
+        public void setOriginLatitude(Double originLatitude) {
+            this.originLatitude = originLatitude;
+        }
+
+        public Double getOriginLongitude() {
+            return originLongitude;
+        }
+
+        public void setOriginLongitude(Double originLongitude) {
+            this.originLongitude = originLongitude;
+        }
+
+        public Double getDestinationLatitude() {
+            return destinationLatitude;
+        }
+
+        public void setDestinationLatitude(Double destinationLatitude) {
+            this.destinationLatitude = destinationLatitude;
+        }
+
+        public Double getDestinationLongitude() {
+            return destinationLongitude;
+        }
+
+        public void setDestinationLongitude(Double destinationLongitude) {
+            this.destinationLongitude = destinationLongitude;
+        }
+
         public Boolean getIsFlexible() {
             return isFlexible;
         }
@@ -121,6 +158,10 @@ public class TripDTO {
         private Integer availableSeats;
         private String status;
         private Double distanceKm;
+        private Double originLatitude;
+        private Double originLongitude;
+        private Double destinationLatitude;
+        private Double destinationLongitude;
         private String driverName;
         private Long driverId;
         private String vehicleModel;
@@ -210,6 +251,38 @@ public class TripDTO {
             this.distanceKm = distanceKm;
         }
 
+        public Double getOriginLatitude() {
+            return originLatitude;
+        }
+
+        public void setOriginLatitude(Double originLatitude) {
+            this.originLatitude = originLatitude;
+        }
+
+        public Double getOriginLongitude() {
+            return originLongitude;
+        }
+
+        public void setOriginLongitude(Double originLongitude) {
+            this.originLongitude = originLongitude;
+        }
+
+        public Double getDestinationLatitude() {
+            return destinationLatitude;
+        }
+
+        public void setDestinationLatitude(Double destinationLatitude) {
+            this.destinationLatitude = destinationLatitude;
+        }
+
+        public Double getDestinationLongitude() {
+            return destinationLongitude;
+        }
+
+        public void setDestinationLongitude(Double destinationLongitude) {
+            this.destinationLongitude = destinationLongitude;
+        }
+
         public String getDriverName() {
             return driverName;
         }
@@ -282,6 +355,14 @@ public class TripDTO {
         private LocalDateTime departureDate;
         private Integer requiredSeats = 1;
         private Double maxPrice;
+        // Passenger pickup/drop points, matched against any point along a driver's route
+        @DecimalMin("-90.0") @DecimalMax("90.0") private Double originLatitude;
+        @DecimalMin("-180.0") @DecimalMax("180.0") private Double originLongitude;
+        @DecimalMin("-90.0") @DecimalMax("90.0") private Double destinationLatitude;
+        @DecimalMin("-180.0") @DecimalMax("180.0") private Double destinationLongitude;
+        @Positive private Double radiusKm;
+        private String cursor; // nextCursor from the previous page
+        private Integer pageSize;
 
         public String getFromLocation() {
             return fromLocation;
@@ -323,7 +404,98 @@ public class TripDTO {
             this.maxPrice = maxPrice;
         }
 
+        public Double getOriginLatitude() {
+            return originLatitude;
+        }
 
+        public void setOriginLatitude(Double originLatitude) {
+            this.originLatitude = originLatitude;
+        }
+
+        public Double getOriginLongitude() {
+            return originLongitude;
+        }
+
+        public void setOriginLongitude(Double originLongitude) {
+            this.originLongitude = originLongitude;
+        }
+
+        public Double getDestinationLatitude() {
+            return destinationLatitude;
+        }
+
+        public void setDestinationLatitude(Double destinationLatitude) {
+            this.destinationLatitude = destinationLatitude;
+        }
+
+        public Double getDestinationLongitude() {
+            return destinationLongitude;
+        }
+
+        public void setDestinationLongitude(Double destinationLongitude) {
+            this.destinationLongitude = destinationLongitude;
+        }
+
+        public Double getRadiusKm() {
+            return radiusKm;
+        }
+
+        public void setRadiusKm(Double radiusKm) {
+            this.radiusKm = radiusKm;
+        }
+
+        public String getCursor() {
+            return cursor;
+        }
+
+        public void setCursor(String cursor) {
+            this.cursor = cursor;
+        }
+
+        public Integer getPageSize() {
+            return pageSize;
+        }
+
+        public void setPageSize(Integer pageSize) {
+            this.pageSize = pageSize;
+        }
+    }
+
+    @Data
+    public static class TripSearchPage {
+        private List<TripResponse> trips;
+        private String nextCursor;
+        private Boolean hasMore;
+
+        public TripSearchPage(List<TripResponse> trips, String nextCursor) {
+            this.trips = trips;
+            this.nextCursor = nextCursor;
+            this.hasMore = nextCursor != null;
+        }
+
+        public List<TripResponse> getTrips() {
+            return trips;
+        }
+
+        public void setTrips(List<TripResponse> trips) {
+            this.trips = trips;
+        }
+
+        public String getNextCursor() {
+            return nextCursor;
+        }
+
+        public void setNextCursor(String nextCursor) {
+            this.nextCursor = nextCursor;
+        }
+
+        public Boolean getHasMore() {
+            return hasMore;
+        }
+
+        public void setHasMore(Boolean hasMore) {
+            this.hasMore = hasMore;
+        }
     }
 
     @Data
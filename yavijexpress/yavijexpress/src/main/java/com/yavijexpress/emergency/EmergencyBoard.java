@@ -0,0 +1,294 @@
+package com.yavijexpress.emergency;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yavijexpress.dto.EmergencyDTO;
+import com.yavijexpress.entity.EmergencyAlert;
+import com.yavijexpress.entity.Trip;
+import com.yavijexpress.repository.EmergencyAlertRepository;
+import com.yavijexpress.tracking.LocationPoint;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.util.MimeTypeUtils;
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * The admin ops board: every ACTIVE alert, held in memory and kept current on SOS, driver panic and
+ * resolve. Admins subscribe to /topic/admin/emergencies, then load the board ({@link #snapshot()}),
+ * and apply each delta as it arrives; every change is serialized once and fanned out by the broker,
+ * so the cost does not grow with the number of admins watching:
+ * <pre>
+ * {"type": "OPENED", "alert": {...}}
+ * {"type": "CLOSED", "alertId"}
+ * {"type": "LOCATION", "tripId", "lat", "lng", "spd", "ts"}
+ * </pre>
+ * Deltas carry no sequence number, because with several instances there is no single order to
+ * number them in. They are idempotent instead: OPENED adds an alert unless it is already shown or
+ * was closed, CLOSED is final (a resolved alert never reopens), and a LOCATION older than the shown
+ * ts is dropped. Applied that way, deltas received before or after the snapshot give the same board.
+ * Location deltas follow the trip's throttled stream (see {@link com.yavijexpress.tracking.LocationStreamer}).
+ *
+ * Alerts raised or resolved through another instance are picked up by a reconcile against the table
+ * every emergency.board.reconcile-ms. With websocket.broker.mode=relay the instance that made the
+ * change has already published it to the shared broker, so the reconcile only updates this
+ * instance's snapshot; with the in-memory broker each instance publishes what its reconcile finds.
+ */
+@Component
+public class EmergencyBoard {
+
+    private static final Logger log = LoggerFactory.getLogger(EmergencyBoard.class);
+    private static final String TOPIC = "/topic/admin/emergencies";
+
+    private final EmergencyAlertRepository emergencyAlertRepository;
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    // Guarded by this; changes are published under the same lock, so this instance's deltas stay in order
+    private final Map<Long, BoardAlert> alerts = new LinkedHashMap<>();
+    // Closed alert id -> when, so a reconcile that read the table before the close does not reopen it
+    private final Map<Long, Long> recentlyClosed = new HashMap<>();
+    // Read without the lock on every streamed position
+    private volatile Set<Long> watchedTrips = Set.of();
+
+    @Value("${websocket.broker.mode:simple}")
+    private String brokerMode;
+
+    public EmergencyBoard(EmergencyAlertRepository emergencyAlertRepository, SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
+        this.emergencyAlertRepository = emergencyAlertRepository;
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // Call inside the transaction that saved the alert, while its trip can still be loaded
+    public void openAfterCommit(EmergencyAlert alert) {
+        Trip trip = alert.getTrip();
+        BoardAlert entry = new BoardAlert(alert.getId(), trip.getId(), alert.getUserId(), alert.getAlertType().name(),
+                alert.getMessage(), trip.getFromLocation(), trip.getToLocation(), trip.getDriver().getName(),
+                trip.getVehicle().getVehicleNumber(), alert.getLatitude(), alert.getLongitude(), alert.getCreatedAt());
+        afterCommit(() -> open(entry, true));
+    }
+
+    public void closeAfterCommit(Long alertId) {
+        afterCommit(() -> close(alertId, true));
+    }
+
+    public synchronized EmergencyDTO.OpsBoard snapshot() {
+        List<EmergencyDTO.ActiveEmergency> active = new ArrayList<>(alerts.size());
+        alerts.values().forEach(alert -> active.add(alert.toResponse()));
+        EmergencyDTO.OpsBoard board = new EmergencyDTO.OpsBoard();
+        board.setAlerts(active);
+        return board;
+    }
+
+    // A trip position was just streamed; forwarded only while the trip has an active alert
+    public void tripMoved(LocationPoint point) {
+        if (watchedTrips.contains(point.getTripId())) {
+            moved(point);
+        }
+    }
+
+    private synchronized void moved(LocationPoint point) {
+        for (BoardAlert alert : alerts.values()) {
+            if (alert.tripId.equals(point.getTripId())) {
+                alert.moved(point);
+            }
+        }
+        Map<String, Object> delta = delta("LOCATION");
+        delta.put("tripId", point.getTripId());
+        delta.put("lat", Math.round(point.getLatitude() * 1e5) / 1e5);
+        delta.put("lng", Math.round(point.getLongitude() * 1e5) / 1e5);
+        if (point.getSpeed() != null) {
+            delta.put("spd", Math.round(point.getSpeed()));
+        }
+        delta.put("ts", point.getRecordedAt());
+        publish(delta);
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${emergency.board.reconcile-ms:30000}", initialDelayString = "${emergency.board.reconcile-ms:30000}")
+    public void reconcile() {
+        long startedAt = System.currentTimeMillis();
+        List<EmergencyAlertRepository.BoardRow> rows;
+        try {
+            rows = emergencyAlertRepository.findBoardRows(EmergencyAlert.AlertStatus.ACTIVE);
+        } catch (RuntimeException e) {
+            log.warn("Failed to reconcile the emergency board", e);
+            return;
+        }
+        // The owning instance already published these changes to the shared broker
+        boolean publish = !"relay".equalsIgnoreCase(brokerMode);
+        Set<Long> activeIds = new HashSet<>();
+        for (EmergencyAlertRepository.BoardRow row : rows) {
+            activeIds.add(row.getId());
+            if (!known(row.getId(), startedAt)) {
+                open(new BoardAlert(row.getId(), row.getTripId(), row.getUserId(), row.getAlertType().name(),
+                        row.getMessage(), row.getFromLocation(), row.getToLocation(), row.getDriverName(),
+                        row.getVehicleNumber(), row.getLatitude(), row.getLongitude(), row.getCreatedAt()), publish);
+            }
+        }
+        // Anything opened here after the query started is newer than what the query saw
+        for (Long alertId : staleIds(activeIds, startedAt)) {
+            close(alertId, publish);
+        }
+    }
+
+    private synchronized boolean known(Long alertId, long loadedAfter) {
+        Long closedAt = recentlyClosed.get(alertId);
+        return alerts.containsKey(alertId) || (closedAt != null && closedAt >= loadedAfter);
+    }
+
+    private synchronized List<Long> staleIds(Set<Long> activeIds, long loadedBefore) {
+        recentlyClosed.values().removeIf(closedAt -> closedAt < loadedBefore);
+        List<Long> stale = new ArrayList<>();
+        alerts.values().forEach(alert -> {
+            if (!activeIds.contains(alert.alertId) && alert.addedAt < loadedBefore) {
+                stale.add(alert.alertId);
+            }
+        });
+        return stale;
+    }
+
+    private synchronized void open(BoardAlert alert, boolean publish) {
+        if (alerts.putIfAbsent(alert.alertId, alert) != null) {
+            return;
+        }
+        refreshWatchedTrips();
+        if (!publish) {
+            return;
+        }
+        Map<String, Object> delta = delta("OPENED");
+        delta.put("alert", alert.toResponse());
+        publish(delta);
+    }
+
+    private synchronized void close(Long alertId, boolean publish) {
+        recentlyClosed.put(alertId, System.currentTimeMillis());
+        if (alerts.remove(alertId) == null) {
+            return;
+        }
+        refreshWatchedTrips();
+        if (!publish) {
+            return;
+        }
+        Map<String, Object> delta = delta("CLOSED");
+        delta.put("alertId", alertId);
+        publish(delta);
+    }
+
+    private void refreshWatchedTrips() {
+        Set<Long> trips = new HashSet<>();
+        alerts.values().forEach(alert -> trips.add(alert.tripId));
+        watchedTrips = Set.copyOf(trips);
+    }
+
+    private static Map<String, Object> delta(String type) {
+        Map<String, Object> delta = new LinkedHashMap<>();
+        delta.put("type", type);
+        return delta;
+    }
+
+    private void publish(Map<String, Object> delta) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        try {
+            messagingTemplate.send(TOPIC, MessageBuilder.createMessage(objectMapper.writeValueAsBytes(delta), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            // The board state is already updated; a reloaded snapshot shows it
+            log.debug("Failed to publish emergency board delta {}", delta.get("type"), e);
+        }
+    }
+
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class BoardAlert {
+        private final Long alertId;
+        private final Long tripId;
+        private final Long userId;
+        private final String alertType;
+        private final String message;
+        private final String fromLocation;
+        private final String toLocation;
+        private final String driverName;
+        private final String vehicleNumber;
+        private final Double latitude;
+        private final Double longitude;
+        private final LocalDateTime createdAt;
+        private final long addedAt = System.currentTimeMillis();
+        private LocationPoint lastLocation;
+
+        private BoardAlert(Long alertId, Long tripId, Long userId, String alertType, String message, String fromLocation,
+                           String toLocation, String driverName, String vehicleNumber, Double latitude, Double longitude,
+                           LocalDateTime createdAt) {
+            this.alertId = alertId;
+            this.tripId = tripId;
+            this.userId = userId;
+            this.alertType = alertType;
+            this.message = message;
+            this.fromLocation = fromLocation;
+            this.toLocation = toLocation;
+            this.driverName = driverName;
+            this.vehicleNumber = vehicleNumber;
+            this.latitude = latitude;
+            this.longitude = longitude;
+            this.createdAt = createdAt;
+        }
+
+        private void moved(LocationPoint point) {
+            lastLocation = point;
+        }
+
+        private EmergencyDTO.ActiveEmergency toResponse() {
+            EmergencyDTO.ActiveEmergency response = new EmergencyDTO.ActiveEmergency();
+            response.setAlertId(alertId);
+            response.setTripId(tripId);
+            response.setUserId(userId);
+            response.setAlertType(alertType);
+            response.setStatus(EmergencyAlert.AlertStatus.ACTIVE.name());
+            response.setMessage(message);
+            response.setFromLocation(fromLocation);
+            response.setToLocation(toLocation);
+            response.setDriverName(driverName);
+            response.setVehicleNumber(vehicleNumber);
+            response.setLatitude(latitude);
+            response.setLongitude(longitude);
+            response.setCreatedAt(createdAt);
+            if (lastLocation != null) {
+                response.setLastLatitude(lastLocation.getLatitude());
+                response.setLastLongitude(lastLocation.getLongitude());
+                response.setLastSpeed(lastLocation.getSpeed());
+                response.setLastLocationAt(LocalDateTime.ofInstant(Instant.ofEpochMilli(lastLocation.getRecordedAt()), ZoneId.systemDefault()));
+            }
+            return response;
+        }
+    }
+}
@@ -0,0 +1,249 @@
+package com.yavijexpress.emergency;
+
+import com.yavijexpress.entity.EmergencyDelivery;
+import com.yavijexpress.repository.EmergencyDeliveryRepository;
+import com.yavijexpress.sms.SmsGateway;
+import com.yavijexpress.utils.EmailServiceImpl;
+import com.yavijexpress.utils.SMSServiceImpl;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.net.SocketTimeoutException;
+import java.net.http.HttpTimeoutException;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Sends the SMS and emails of an emergency alert. Each one is stored in emergency_deliveries in the
+ * same transaction as the alert and handed to the emergency pool once it commits, so every channel
+ * goes out in parallel and the SOS request never waits on a provider. SMS deliveries with the same
+ * text are claimed together and sent as one multi-recipient provider request.
+ *
+ * The task that claims a delivery also sends it and records the outcome, so a delivery is never
+ * settled by anyone but its claimant and time spent queued for a pool thread does not count against
+ * it. The send itself is bounded: an SMS batch gets emergency.dispatch.sms-timeout-ms for all of its
+ * provider requests and retries, an email gets the SMTP timeouts (spring.mail.properties.mail.smtp.*).
+ * Outcomes are recorded per delivery, so one bad number does not fail the rest of its batch. One
+ * that fails is retried by the poll up to emergency.dispatch.max-attempts; one that timed out, or
+ * otherwise may have reached the provider, is left as TIMED_OUT and not sent again.
+ */
+@Component
+public class EmergencyDispatcher {
+
+    private static final Logger log = LoggerFactory.getLogger(EmergencyDispatcher.class);
+    private static final int RETRY_BATCH_SIZE = 100;
+
+    private final EmergencyDeliveryRepository deliveryRepository;
+    private final SMSServiceImpl smsService;
+    private final EmailServiceImpl emailService;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${emergency.dispatch.sms-timeout-ms:5000}")
+    private long smsTimeoutMs;
+
+    @Value("${emergency.dispatch.max-attempts:3}")
+    private int maxAttempts;
+
+    @Value("${emergency.dispatch.retry-after-seconds:30}")
+    private long retryAfterSeconds;
+
+    public EmergencyDispatcher(EmergencyDeliveryRepository deliveryRepository, SMSServiceImpl smsService, EmailServiceImpl emailService, @Qualifier("emergencyExecutor") ThreadPoolTaskExecutor executor, PlatformTransactionManager transactionManager) {
+        this.deliveryRepository = deliveryRepository;
+        this.smsService = smsService;
+        this.emailService = emailService;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Must run inside the transaction that stores the alert
+    public EmergencyDelivery sms(Long alertId, String to, String message) {
+        return deliveryRepository.save(delivery(alertId, EmergencyDelivery.Channel.SMS, to, null, message));
+    }
+
+    public EmergencyDelivery email(Long alertId, String to, String subject, String message) {
+        return deliveryRepository.save(delivery(alertId, EmergencyDelivery.Channel.EMAIL, to, subject, message));
+    }
+
+    public void dispatchAfterCommit(List<EmergencyDelivery> deliveries) {
+        if (deliveries.isEmpty()) {
+            return;
+        }
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    submitAll(deliveries);
+                }
+            });
+        } else {
+            submitAll(deliveries);
+        }
+    }
+
+    // Picks up failed attempts, deliveries whose instance died, and anything the pool rejected
+    @Scheduled(fixedDelayString = "${emergency.dispatch.retry-interval-ms:15000}")
+    public void retryPending() {
+        LocalDateTime before = LocalDateTime.now().minusSeconds(retryAfterSeconds);
+        List<EmergencyDelivery> due = new ArrayList<>();
+        for (EmergencyDelivery delivery : deliveryRepository.findRetryable(before, PageRequest.of(0, RETRY_BATCH_SIZE))) {
+            if (delivery.getAttempts() >= maxAttempts) {
+                settle(delivery, EmergencyDelivery.Status.FAILED, delivery.getLastError());
+            } else {
+                due.add(delivery);
+            }
+        }
+        submitAll(due);
+    }
+
+    private void submitAll(List<EmergencyDelivery> deliveries) {
+        Map<String, List<EmergencyDelivery>> smsByText = new LinkedHashMap<>();
+        for (EmergencyDelivery delivery : deliveries) {
+            if (delivery.getChannel() == EmergencyDelivery.Channel.SMS) {
+                smsByText.computeIfAbsent(delivery.getBody(), body -> new ArrayList<>()).add(delivery);
+            } else {
+                submit(List.of(delivery));
+            }
+        }
+        smsByText.values().forEach(this::submit);
+    }
+
+    private void submit(List<EmergencyDelivery> batch) {
+        try {
+            executor.execute(() -> dispatch(batch));
+        } catch (TaskRejectedException e) {
+            // Still PENDING in the table; the retry poll submits it again
+            log.warn("Emergency pool saturated; {} deliveries deferred", batch.size());
+        }
+    }
+
+    // Runs on the pool; only the deliveries this task managed to claim are sent and settled
+    private void dispatch(List<EmergencyDelivery> batch) {
+        List<EmergencyDelivery> claimed;
+        try {
+            claimed = claim(batch);
+        } catch (RuntimeException e) {
+            log.error("Failed to claim {} emergency deliveries", batch.size(), e);
+            return;
+        }
+        if (claimed.isEmpty()) {
+            return;
+        }
+        if (claimed.get(0).getChannel() == EmergencyDelivery.Channel.SMS) {
+            sendSms(claimed);
+        } else {
+            claimed.forEach(this::sendEmail);
+        }
+    }
+
+    private void sendSms(List<EmergencyDelivery> batch) {
+        Map<String, SmsGateway.Outcome> outcomes;
+        try {
+            outcomes = smsService.sendSMS(batch.stream().map(EmergencyDelivery::getRecipient).toList(), batch.get(0).getBody(), smsTimeoutMs);
+        } catch (RuntimeException e) {
+            batch.forEach(delivery -> failed(delivery, rootMessage(e)));
+            return;
+        }
+        for (EmergencyDelivery delivery : batch) {
+            switch (outcomes.getOrDefault(delivery.getRecipient(), SmsGateway.Outcome.FAILED)) {
+                case SENT -> settle(delivery, EmergencyDelivery.Status.SENT, null);
+                case UNKNOWN -> timedOut(delivery);
+                case FAILED -> failed(delivery, "Provider did not accept the message");
+            }
+        }
+    }
+
+    private void sendEmail(EmergencyDelivery delivery) {
+        try {
+            emailService.deliverEmergencyEmail(delivery.getRecipient(), delivery.getSubject(), delivery.getBody());
+            settle(delivery, EmergencyDelivery.Status.SENT, null);
+        } catch (Exception e) {
+            if (timedOut(e)) {
+                timedOut(delivery);
+            } else {
+                failed(delivery, rootMessage(e));
+            }
+        }
+    }
+
+    private void timedOut(EmergencyDelivery delivery) {
+        log.error("Emergency {} to {} timed out (alert {})", delivery.getChannel(), delivery.getRecipient(), delivery.getAlertId());
+        settle(delivery, EmergencyDelivery.Status.TIMED_OUT, "Timed out");
+    }
+
+    // The delivery's attempts still hold the value from before this task's claim
+    private void failed(EmergencyDelivery delivery, String reason) {
+        int attempt = delivery.getAttempts() + 1;
+        log.error("Emergency {} to {} failed on attempt {} (alert {}): {}",
+                delivery.getChannel(), delivery.getRecipient(), attempt, delivery.getAlertId(), reason);
+        if (attempt >= maxAttempts) {
+            settle(delivery, EmergencyDelivery.Status.FAILED, reason);
+        } else {
+            try {
+                transactionTemplate.executeWithoutResult(status -> deliveryRepository.recordFailure(delivery.getId(), reason));
+            } catch (RuntimeException e) {
+                log.error("Failed to record failure for emergency delivery {}", delivery.getId(), e);
+            }
+        }
+    }
+
+    private List<EmergencyDelivery> claim(List<EmergencyDelivery> batch) {
+        LocalDateTime now = LocalDateTime.now();
+        return transactionTemplate.execute(status -> batch.stream()
+                .filter(delivery -> deliveryRepository.claim(delivery.getId(), delivery.getAttempts(), now) > 0)
+                .toList());
+    }
+
+    private void settle(EmergencyDelivery delivery, EmergencyDelivery.Status outcome, String error) {
+        try {
+            transactionTemplate.executeWithoutResult(status ->
+                    deliveryRepository.settle(delivery.getId(), outcome, error, LocalDateTime.now()));
+        } catch (RuntimeException e) {
+            log.error("Failed to record outcome {} for emergency delivery {}", outcome, delivery.getId(), e);
+        }
+    }
+
+    private static EmergencyDelivery delivery(Long alertId, EmergencyDelivery.Channel channel, String recipient, String subject, String body) {
+        EmergencyDelivery delivery = new EmergencyDelivery();
+        delivery.setAlertId(alertId);
+        delivery.setChannel(channel);
+        delivery.setRecipient(recipient);
+        delivery.setSubject(subject);
+        delivery.setBody(body);
+        return delivery;
+    }
+
+    // A read timeout leaves it unknown whether the provider took the message
+    private static boolean timedOut(Throwable error) {
+        for (Throwable cause = error; cause != null; cause = cause.getCause() != cause ? cause.getCause() : null) {
+            if (cause instanceof SocketTimeoutException || cause instanceof HttpTimeoutException) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static String rootMessage(Throwable error) {
+        Throwable root = error;
+        while (root.getCause() != null && root.getCause() != root) {
+            root = root.getCause();
+        }
+        String message = root.getMessage() != null ? root.getMessage() : root.getClass().getSimpleName();
+        return message.length() > 500 ? message.substring(0, 500) : message;
+    }
+}
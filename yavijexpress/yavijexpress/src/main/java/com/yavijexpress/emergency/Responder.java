@@ -0,0 +1,33 @@
+package com.yavijexpress.emergency;
+
+// An admin as the emergency and complaint fan-out needs them: who to notify and how to reach them
+public final class Responder {
+
+    private final Long id;
+    private final String name;
+    private final String email;
+    private final String mobile;
+
+    public Responder(Long id, String name, String email, String mobile) {
+        this.id = id;
+        this.name = name;
+        this.email = email;
+        this.mobile = mobile;
+    }
+
+    public Long getId() {
+        return id;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public String getMobile() {
+        return mobile;
+    }
+}
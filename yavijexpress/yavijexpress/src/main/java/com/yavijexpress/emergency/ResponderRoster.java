@@ -0,0 +1,101 @@
+package com.yavijexpress.emergency;
+
+import com.yavijexpress.entity.User;
+import com.yavijexpress.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * In-memory list of the active admins, so SOS, panic and complaint fan-out never touch the users
+ * table. Loaded at startup, reloaded after any commit that changes an admin (or makes someone one,
+ * see {@link ResponderRosterListener}), and refreshed every emergency.roster.refresh-ms to pick up
+ * changes made through other instances.
+ */
+@Component
+public class ResponderRoster {
+
+    private static final Logger log = LoggerFactory.getLogger(ResponderRoster.class);
+
+    private final UserRepository userRepository;
+    private volatile Snapshot snapshot;
+
+    public ResponderRoster(UserRepository userRepository) {
+        this.userRepository = userRepository;
+    }
+
+    public List<Responder> admins() {
+        Snapshot current = snapshot;
+        return current != null ? current.admins : reload().admins;
+    }
+
+    // Whether a change to this user can change the roster
+    public boolean affectedBy(User user) {
+        if (user.getRole() == User.UserRole.ADMIN) {
+            return true;
+        }
+        Snapshot current = snapshot;
+        return current == null || current.ids.contains(user.getId());
+    }
+
+    // Once per transaction, however many admin rows it touched
+    public void reloadAfterCommit() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            if (TransactionSynchronizationManager.hasResource(this)) {
+                return;
+            }
+            TransactionSynchronizationManager.bindResource(this, Boolean.TRUE);
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    refresh();
+                }
+
+                @Override
+                public void afterCompletion(int status) {
+                    TransactionSynchronizationManager.unbindResourceIfPossible(ResponderRoster.this);
+                }
+            });
+        } else {
+            refresh();
+        }
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${emergency.roster.refresh-ms:300000}", initialDelayString = "${emergency.roster.refresh-ms:300000}")
+    public void refresh() {
+        try {
+            reload();
+        } catch (RuntimeException e) {
+            // Keep serving the previous list
+            log.warn("Failed to reload the responder roster", e);
+        }
+    }
+
+    private synchronized Snapshot reload() {
+        List<Responder> admins = userRepository.findActiveByRole(User.UserRole.ADMIN).stream()
+                .map(row -> new Responder(row.getId(), row.getName(), row.getEmail(), row.getMobile()))
+                .toList();
+        Snapshot loaded = new Snapshot(admins);
+        snapshot = loaded;
+        return loaded;
+    }
+
+    private static final class Snapshot {
+        private final List<Responder> admins;
+        private final Set<Long> ids;
+
+        private Snapshot(List<Responder> admins) {
+            this.admins = admins;
+            this.ids = admins.stream().map(Responder::getId).collect(Collectors.toUnmodifiableSet());
+        }
+    }
+}
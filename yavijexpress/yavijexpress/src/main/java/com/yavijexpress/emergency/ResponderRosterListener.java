@@ -0,0 +1,27 @@
+package com.yavijexpress.emergency;
+
+import com.yavijexpress.entity.User;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.stereotype.Component;
+
+// Reloads the roster when an admin is added, changed or removed, or someone stops being one
+@Component
+public class ResponderRosterListener {
+
+    private final ResponderRoster roster;
+
+    public ResponderRosterListener(ResponderRoster roster) {
+        this.roster = roster;
+    }
+
+    @PostPersist
+    @PostUpdate
+    @PostRemove
+    public void onChange(User user) {
+        if (roster.affectedBy(user)) {
+            roster.reloadAfterCommit();
+        }
+    }
+}
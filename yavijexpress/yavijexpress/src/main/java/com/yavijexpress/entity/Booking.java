@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "bookings")
+@Table(name = "bookings", indexes = {
+        @Index(name = "idx_bookings_status_hold", columnList = "status, hold_expires_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -51,6 +53,9 @@ public class Booking {
     private LocalDateTime bookedAt;
     private LocalDateTime cancelledAt;
 
+    // Seats of a PENDING booking are held until this time, then released automatically
+    private LocalDateTime holdExpiresAt;
+
     @PrePersist
     protected void onCreate() {
         bookedAt = LocalDateTime.now();
@@ -140,6 +145,14 @@ public class Booking {
         this.bookedAt = bookedAt;
     }
 
+    public LocalDateTime getHoldExpiresAt() {
+        return holdExpiresAt;
+    }
+
+    public void setHoldExpiresAt(LocalDateTime holdExpiresAt) {
+        this.holdExpiresAt = holdExpiresAt;
+    }
+
     public LocalDateTime getCancelledAt() {
         return cancelledAt;
     }
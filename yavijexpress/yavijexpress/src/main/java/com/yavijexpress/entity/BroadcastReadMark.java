@@ -0,0 +1,65 @@
+package com.yavijexpress.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import java.time.LocalDateTime;
+
+// Per-user watermarks over broadcast ids: everything up to readUpTo is read, up to clearedUpTo is deleted
+@Entity
+@Table(name = "broadcast_read_marks")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastReadMark {
+
+    @Id
+    private Long userId;
+
+    @Column(nullable = false)
+    private Long readUpTo = 0L;
+
+    @Column(nullable = false)
+    private Long clearedUpTo = 0L;
+
+    private LocalDateTime updatedAt;
+
+    @PrePersist
+    @PreUpdate
+    protected void onUpdate() {
+        updatedAt = LocalDateTime.now();
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getReadUpTo() {
+        return readUpTo;
+    }
+
+    public void setReadUpTo(Long readUpTo) {
+        this.readUpTo = readUpTo;
+    }
+
+    public Long getClearedUpTo() {
+        return clearedUpTo;
+    }
+
+    public void setClearedUpTo(Long clearedUpTo) {
+        this.clearedUpTo = clearedUpTo;
+    }
+
+    public LocalDateTime getUpdatedAt() {
+        return updatedAt;
+    }
+
+    public void setUpdatedAt(LocalDateTime updatedAt) {
+        this.updatedAt = updatedAt;
+    }
+}
@@ -0,0 +1,73 @@
+package com.yavijexpress.entity;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// A single broadcast read or deleted above the user's watermarks; only written when a user acts on one
+@Entity
+@Table(name = "broadcast_receipts", uniqueConstraints = {
+        @UniqueConstraint(name = "uk_broadcast_receipts_user_broadcast", columnNames = {"user_id", "broadcast_id"})
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BroadcastReceipt {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "user_id", nullable = false)
+    private Long userId;
+
+    @Column(name = "broadcast_id", nullable = false)
+    private Long broadcastId;
+
+    @Column(nullable = false)
+    private Boolean isRead = false;
+
+    @Column(nullable = false)
+    private Boolean dismissed = false;
+
+    public Long getId() {
+        return id;
+    }
+
+    public void setId(Long id) {
+        this.id = id;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public void setUserId(Long userId) {
+        this.userId = userId;
+    }
+
+    public Long getBroadcastId() {
+        return broadcastId;
+    }
+
+    public void setBroadcastId(Long broadcastId) {
+        this.broadcastId = broadcastId;
+    }
+
+    public Boolean getIsRead() {
+        return isRead;
+    }
+
+    public void setIsRead(Boolean isRead) {
+        this.isRead = isRead;
+    }
+
+    public Boolean getDismissed() {
+        return dismissed;
+    }
+
+    public void setDismissed(Boolean dismissed) {
+        this.dismissed = dismissed;
+    }
+}
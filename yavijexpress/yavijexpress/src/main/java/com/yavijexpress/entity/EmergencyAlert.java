@@ -7,7 +7,9 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "emergency_alerts")
+@Table(name = "emergency_alerts", indexes = {
+        @Index(name = "idx_emergency_alerts_status", columnList = "status")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -6,8 +6,11 @@ import lombok.Data;
 import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
+// Recent points per trip, written in batches by LiveLocationBuffer
 @Entity
-@Table(name = "live_locations")
+@Table(name = "live_locations", indexes = {
+        @Index(name = "idx_live_locations_trip_updated", columnList = "trip_id, updated_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -1,5 +1,6 @@
 package com.yavijexpress.entity;
 
+import com.yavijexpress.notification.NotificationCounterListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -7,7 +8,12 @@ import lombok.NoArgsConstructor;
 import java.time.LocalDateTime;
 
 @Entity
-@Table(name = "notifications")
+@EntityListeners(NotificationCounterListener.class)
+@Table(name = "notifications", indexes = {
+        // Also added to existing tables by db/migration V2
+        @Index(name = "idx_notifications_user_created", columnList = "user_id, created_at, id"),
+        @Index(name = "idx_notifications_retention", columnList = "type, is_read, created_at")
+})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
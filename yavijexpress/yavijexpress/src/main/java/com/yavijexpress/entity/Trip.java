@@ -4,12 +4,19 @@ import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
 import lombok.NoArgsConstructor;
+import org.hibernate.annotations.DynamicUpdate;
 import java.time.LocalDateTime;
 import java.util.HashSet;
 import java.util.Set;
 
 @Entity
-@Table(name = "trips")
+@Table(name = "trips", indexes = {
+        @Index(name = "idx_trips_status_departure", columnList = "status, is_active, departure_time, id"),
+        @Index(name = "idx_trips_status_arrival", columnList = "status, expected_arrival_time"),
+        @Index(name = "idx_trips_status_departure_sweep", columnList = "status, departure_time")
+})
+// Only changed columns are written, so saving a trip never overwrites seat counters updated concurrently
+@DynamicUpdate
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -47,6 +54,12 @@ public class Trip {
     private String routePolyline;
     private Double distanceKm;
 
+    // Optional coordinates for nearby matching; free-text locations stay the source of truth for display
+    private Double originLatitude;
+    private Double originLongitude;
+    private Double destinationLatitude;
+    private Double destinationLongitude;
+
     @Column(nullable = false)
     private Boolean isFlexible = false;
 
@@ -180,6 +193,38 @@ public class Trip {
         this.distanceKm = distanceKm;
     }
 
+    public Double getOriginLatitude() {
+        return originLatitude;
+    }
+
+    public void setOriginLatitude(Double originLatitude) {
+        this.originLatitude = originLatitude;
+    }
+
+    public Double getOriginLongitude() {
+        return originLongitude;
+    }
+
+    public void setOriginLongitude(Double originLongitude) {
+        this.originLongitude = originLongitude;
+    }
+
+    public Double getDestinationLatitude() {
+        return destinationLatitude;
+    }
+
+    public void setDestinationLatitude(Double destinationLatitude) {
+        this.destinationLatitude = destinationLatitude;
+    }
+
+    public Double getDestinationLongitude() {
+        return destinationLongitude;
+    }
+
+    public void setDestinationLongitude(Double destinationLongitude) {
+        this.destinationLongitude = destinationLongitude;
+    }
+
     public Boolean getIsFlexible() {
         return isFlexible;
     }
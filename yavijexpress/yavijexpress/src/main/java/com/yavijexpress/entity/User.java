@@ -1,5 +1,6 @@
 package com.yavijexpress.entity;
 
+import com.yavijexpress.emergency.ResponderRosterListener;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -9,6 +10,7 @@ import java.util.HashSet;
 import java.util.Set;
 
 @Entity
+@EntityListeners(ResponderRosterListener.class)
 @Table(name = "users")
 @Data
 @NoArgsConstructor
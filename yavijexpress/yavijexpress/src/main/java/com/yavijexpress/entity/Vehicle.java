@@ -1,5 +1,6 @@
 package com.yavijexpress.entity;
 
+import com.yavijexpress.utils.AppConstants;
 import jakarta.persistence.*;
 import lombok.AllArgsConstructor;
 import lombok.Data;
@@ -8,7 +9,9 @@ import java.time.LocalDateTime;
 import java.util.Set;
 
 @Entity
-@Table(name = "vehicles")
+@Table(name = "vehicles", indexes = {
+        @Index(name = "idx_vehicles_insurance_reminder_due", columnList = "insurance_reminder_due_at")
+})
 @NoArgsConstructor
 @AllArgsConstructor
 public class Vehicle {
@@ -34,6 +37,13 @@ public class Vehicle {
 
     private LocalDateTime insuranceExpiry;
 
+    // The insuranceExpiry the owner was last reminded about, so each expiry is only reminded once
+    private LocalDateTime insuranceReminderFor;
+
+    // When the pending reminder for insuranceExpiry falls due; null once it is sent or the vehicle is retired,
+    // so the reminder sweep only ever reads vehicles that still owe one
+    private LocalDateTime insuranceReminderDueAt;
+
     @Enumerated(EnumType.STRING)
     private VehicleType vehicleType;
 
@@ -54,11 +64,18 @@ public class Vehicle {
     protected void onCreate() {
         createdAt = LocalDateTime.now();
         updatedAt = LocalDateTime.now();
+        scheduleInsuranceReminder();
     }
 
     @PreUpdate
     protected void onUpdate() {
         updatedAt = LocalDateTime.now();
+        scheduleInsuranceReminder();
+    }
+
+    private void scheduleInsuranceReminder() {
+        boolean pending = Boolean.TRUE.equals(isActive) && insuranceExpiry != null && !insuranceExpiry.equals(insuranceReminderFor);
+        insuranceReminderDueAt = pending ? insuranceExpiry.minusDays(AppConstants.INSURANCE_REMINDER_DAYS) : null;
     }
 
     public enum VehicleType {
@@ -168,4 +185,20 @@ public class Vehicle {
     public void setUpdatedAt(LocalDateTime updatedAt) {
         this.updatedAt = updatedAt;
     }
+
+    public LocalDateTime getInsuranceReminderFor() {
+        return insuranceReminderFor;
+    }
+
+    public void setInsuranceReminderFor(LocalDateTime insuranceReminderFor) {
+        this.insuranceReminderFor = insuranceReminderFor;
+    }
+
+    public LocalDateTime getInsuranceReminderDueAt() {
+        return insuranceReminderDueAt;
+    }
+
+    public void setInsuranceReminderDueAt(LocalDateTime insuranceReminderDueAt) {
+        this.insuranceReminderDueAt = insuranceReminderDueAt;
+    }
 }
\ No newline at end of file
@@ -0,0 +1,84 @@
+package com.yavijexpress.jobs;
+
+import com.yavijexpress.repository.JobLeaseRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.lang.management.ManagementFactory;
+import java.net.InetAddress;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Runs a job on at most one app instance at a time. Instances race for a row in job_leases with a
+ * conditional UPDATE; the winner runs the job under a deadline, and the lease outlives the deadline by
+ * a grace period so a crashed owner is taken over once the lease lapses.
+ */
+@Component
+public class JobLeaseRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(JobLeaseRunner.class);
+    private static final Duration LEASE_GRACE = Duration.ofSeconds(30);
+    private static final LocalDateTime EPOCH = LocalDateTime.of(2000, 1, 1, 0, 0);
+
+    private final JobLeaseRepository jobLeaseRepository;
+    private final SweepRunner sweepRunner;
+    private final TransactionTemplate transactionTemplate;
+    private final String owner = instanceId();
+
+    public JobLeaseRunner(JobLeaseRepository jobLeaseRepository, SweepRunner sweepRunner, PlatformTransactionManager transactionManager) {
+        this.jobLeaseRepository = jobLeaseRepository;
+        this.sweepRunner = sweepRunner;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Returns false when another instance holds the lease or the job is not due yet
+    public boolean runLeased(String job, Duration interval, Duration maxRuntime, Runnable work) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        if (!acquire(job, startedAt, startedAt.plus(maxRuntime).plus(LEASE_GRACE))) {
+            log.debug("Skipping job {}: lease held elsewhere", job);
+            return false;
+        }
+
+        try {
+            sweepRunner.withDeadline(startedAt.plus(maxRuntime), work);
+        } catch (RuntimeException e) {
+            log.error("Job {} failed", job, e);
+        } finally {
+            // Hand the lease back slightly before the next tick so scheduler jitter doesn't skip a run
+            LocalDateTime nextRunAt = startedAt.plus(interval.multipliedBy(9).dividedBy(10));
+            LocalDateTime now = LocalDateTime.now();
+            transactionTemplate.executeWithoutResult(status ->
+                    jobLeaseRepository.release(job, owner, now, nextRunAt.isAfter(now) ? nextRunAt : now));
+        }
+        return true;
+    }
+
+    public String getOwner() {
+        return owner;
+    }
+
+    private boolean acquire(String job, LocalDateTime now, LocalDateTime until) {
+        Integer acquired = transactionTemplate.execute(status -> {
+            jobLeaseRepository.createIfMissing(job, EPOCH);
+            return jobLeaseRepository.tryAcquire(job, owner, now, until);
+        });
+        return acquired != null && acquired > 0;
+    }
+
+    private static String instanceId() {
+        String host;
+        try {
+            host = InetAddress.getLocalHost().getHostName();
+        } catch (Exception e) {
+            host = "unknown";
+        }
+        String pid = ManagementFactory.getRuntimeMXBean().getName().split("@")[0];
+        return host + ":" + pid + ":" + UUID.randomUUID().toString().substring(0, 8);
+    }
+}
@@ -0,0 +1,84 @@
+package com.yavijexpress.jobs;
+
+import com.yavijexpress.notification.NotificationRetention;
+import com.yavijexpress.service.BookingService;
+import com.yavijexpress.service.PaymentService;
+import com.yavijexpress.service.TripService;
+import com.yavijexpress.service.VehicleService;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.time.Duration;
+
+/**
+ * Cluster-wide lifecycle jobs. Every instance ticks on the configured cadence, but {@link JobLeaseRunner}
+ * lets only one of them run each job per interval, and each run is cut off after jobs.max-runtime-ms.
+ */
+@Component
+@ConditionalOnProperty(name = "jobs.enabled", havingValue = "true", matchIfMissing = true)
+public class LifecycleJobs {
+
+    private final JobLeaseRunner jobLeaseRunner;
+    private final TripService tripService;
+    private final BookingService bookingService;
+    private final PaymentService paymentService;
+    private final VehicleService vehicleService;
+    private final NotificationRetention notificationRetention;
+
+    @Value("${jobs.max-runtime-ms:50000}")
+    private long maxRuntimeMs;
+
+    @Value("${jobs.trip-status.interval-ms:60000}")
+    private long tripStatusIntervalMs;
+
+    @Value("${jobs.booking-expiry.interval-ms:60000}")
+    private long bookingExpiryIntervalMs;
+
+    @Value("${jobs.payment-reconciliation.interval-ms:300000}")
+    private long paymentReconciliationIntervalMs;
+
+    @Value("${jobs.insurance-expiry.interval-ms:86400000}")
+    private long insuranceExpiryIntervalMs;
+
+    @Value("${jobs.notification-retention.interval-ms:3600000}")
+    private long notificationRetentionIntervalMs;
+
+    public LifecycleJobs(JobLeaseRunner jobLeaseRunner, TripService tripService, BookingService bookingService, PaymentService paymentService, VehicleService vehicleService, NotificationRetention notificationRetention) {
+        this.jobLeaseRunner = jobLeaseRunner;
+        this.tripService = tripService;
+        this.bookingService = bookingService;
+        this.paymentService = paymentService;
+        this.vehicleService = vehicleService;
+        this.notificationRetention = notificationRetention;
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.trip-status.interval-ms:60000}", initialDelayString = "${jobs.initial-delay-ms:30000}")
+    public void progressTripStatuses() {
+        run("trip-status", tripStatusIntervalMs, tripService::checkAndUpdateTripStatuses);
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.booking-expiry.interval-ms:60000}", initialDelayString = "${jobs.initial-delay-ms:30000}")
+    public void expireBookingHolds() {
+        run("booking-expiry", bookingExpiryIntervalMs, bookingService::autoCancelPendingBookings);
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.payment-reconciliation.interval-ms:300000}", initialDelayString = "${jobs.initial-delay-ms:30000}")
+    public void reconcilePayments() {
+        run("payment-reconciliation", paymentReconciliationIntervalMs, paymentService::reconcilePayments);
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.insurance-expiry.interval-ms:86400000}", initialDelayString = "${jobs.initial-delay-ms:30000}")
+    public void remindInsuranceExpiry() {
+        run("insurance-expiry", insuranceExpiryIntervalMs, vehicleService::checkVehicleInsuranceExpiry);
+    }
+
+    @Scheduled(fixedDelayString = "${jobs.notification-retention.interval-ms:3600000}", initialDelayString = "${jobs.initial-delay-ms:30000}")
+    public void archiveNotifications() {
+        run("notification-retention", notificationRetentionIntervalMs, notificationRetention::archiveExpired);
+    }
+
+    private void run(String job, long intervalMs, Runnable work) {
+        jobLeaseRunner.runLeased(job, Duration.ofMillis(intervalMs), Duration.ofMillis(maxRuntimeMs), work);
+    }
+}
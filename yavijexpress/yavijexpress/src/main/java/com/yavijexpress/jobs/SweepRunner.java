@@ -0,0 +1,93 @@
+package com.yavijexpress.jobs;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Runs background sweeps in bounded chunks. A sweep selects at most {@code chunkSize} candidate rows
+ * through an indexed predicate and updates them in bulk; each chunk commits in its own transaction and
+ * the run stops at the first short chunk, so its cost follows the rows that change rather than the
+ * table size. Callers must not already be inside a transaction. A run started under
+ * {@link #withDeadline} also stops once the deadline passes; the rest is picked up by the next run.
+ */
+@Component
+public class SweepRunner {
+
+    private static final Logger log = LoggerFactory.getLogger(SweepRunner.class);
+
+    private static final ThreadLocal<LocalDateTime> DEADLINE = new ThreadLocal<>();
+
+    private final TransactionTemplate transactionTemplate;
+    private final Map<String, SweepStats> stats = new ConcurrentHashMap<>();
+
+    public SweepRunner(PlatformTransactionManager transactionManager) {
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @FunctionalInterface
+    public interface Chunk {
+        // Processes up to limit candidate rows and returns how many it picked up
+        int process(int limit);
+    }
+
+    public long run(String job, int chunkSize, int maxChunks, Chunk chunk) {
+        LocalDateTime startedAt = LocalDateTime.now();
+        long start = System.currentTimeMillis();
+        int chunks = 0;
+        long rows = 0;
+        String error = null;
+        boolean truncated = false;
+        LocalDateTime deadline = DEADLINE.get();
+
+        try {
+            while (true) {
+                if (chunks >= maxChunks || (deadline != null && LocalDateTime.now().isAfter(deadline))) {
+                    truncated = true;
+                    break;
+                }
+                Integer processed = transactionTemplate.execute(status -> chunk.process(chunkSize));
+                chunks++;
+                rows += processed != null ? processed : 0;
+                if (processed == null || processed < chunkSize) {
+                    break;
+                }
+            }
+        } catch (RuntimeException e) {
+            error = e.getMessage();
+            log.error("Sweep {} failed after {} chunks", job, chunks, e);
+        }
+
+        long duration = System.currentTimeMillis() - start;
+        stats.computeIfAbsent(job, SweepStats::new).record(startedAt, duration, chunks, rows, truncated, error);
+        if (rows > 0) {
+            log.debug("Sweep {} processed {} rows in {} chunks ({} ms)", job, rows, chunks, duration);
+        }
+        return rows;
+    }
+
+    // Sweeps run by work on this thread stop starting new chunks after the deadline
+    public void withDeadline(LocalDateTime deadline, Runnable work) {
+        LocalDateTime previous = DEADLINE.get();
+        DEADLINE.set(deadline);
+        try {
+            work.run();
+        } finally {
+            if (previous != null) {
+                DEADLINE.set(previous);
+            } else {
+                DEADLINE.remove();
+            }
+        }
+    }
+
+    public Collection<SweepStats> getStats() {
+        return stats.values();
+    }
+}
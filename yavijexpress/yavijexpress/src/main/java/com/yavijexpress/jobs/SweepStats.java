@@ -0,0 +1,71 @@
+package com.yavijexpress.jobs;
+
+import java.time.LocalDateTime;
+
+/**
+ * Metrics for one background sweep: the last run plus running totals. Updated only by {@link SweepRunner}.
+ */
+public class SweepStats {
+
+    private final String job;
+    private LocalDateTime lastStartedAt;
+    private long lastDurationMs;
+    private int lastChunks;
+    private long lastRows;
+    private boolean lastTruncated;
+    private String lastError;
+    private long totalRuns;
+    private long totalRows;
+
+    public SweepStats(String job) {
+        this.job = job;
+    }
+
+    synchronized void record(LocalDateTime startedAt, long durationMs, int chunks, long rows, boolean truncated, String error) {
+        this.lastStartedAt = startedAt;
+        this.lastDurationMs = durationMs;
+        this.lastChunks = chunks;
+        this.lastRows = rows;
+        this.lastTruncated = truncated;
+        this.lastError = error;
+        this.totalRuns++;
+        this.totalRows += rows;
+    }
+
+    public String getJob() {
+        return job;
+    }
+
+    public synchronized LocalDateTime getLastStartedAt() {
+        return lastStartedAt;
+    }
+
+    public synchronized long getLastDurationMs() {
+        return lastDurationMs;
+    }
+
+    public synchronized int getLastChunks() {
+        return lastChunks;
+    }
+
+    public synchronized long getLastRows() {
+        return lastRows;
+    }
+
+    // True when the last run hit its deadline or chunk cap with rows still left
+    public synchronized boolean isLastTruncated() {
+        return lastTruncated;
+    }
+
+    public synchronized String getLastError() {
+        return lastError;
+    }
+
+    public synchronized long getTotalRuns() {
+        return totalRuns;
+    }
+
+    public synchronized long getTotalRows() {
+        return totalRows;
+    }
+}
@@ -0,0 +1,39 @@
+package com.yavijexpress.mail;
+
+import com.yavijexpress.entity.OutboundMail;
+import com.yavijexpress.repository.OutboundMailRepository;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+// Queues an email in outbound_mails; inside a transaction it is only sent if that transaction commits
+@Component
+public class MailOutbox {
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final MailOutboxWorker worker;
+
+    public MailOutbox(OutboundMailRepository outboundMailRepository, MailOutboxWorker worker) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.worker = worker;
+    }
+
+    public void enqueue(String to, String subject, String htmlBody) {
+        OutboundMail mail = new OutboundMail();
+        mail.setRecipient(to);
+        mail.setSubject(subject);
+        mail.setBody(htmlBody);
+        outboundMailRepository.save(mail);
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    worker.wakeUp();
+                }
+            });
+        } else {
+            worker.wakeUp();
+        }
+    }
+}
@@ -0,0 +1,288 @@
+package com.yavijexpress.mail;
+
+import com.yavijexpress.entity.OutboundMail;
+import com.yavijexpress.repository.OutboundMailRepository;
+import jakarta.mail.MessagingException;
+import jakarta.mail.SendFailedException;
+import jakarta.mail.Transport;
+import jakarta.mail.internet.MimeMessage;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.mail.javamail.JavaMailSenderImpl;
+import org.springframework.mail.javamail.MimeMessageHelper;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Drains outbound_mails on the bounded mail pool, the same way the notification outbox is drained:
+ * woken after commit, polled for retries and orphans, rows claimed in batches by conditional UPDATE.
+ *
+ * A drainer keeps one SMTP connection open while it finds work and sends every message over it,
+ * reconnecting after mail.outbox.messages-per-connection messages or a connection error, instead of
+ * the connect/authenticate/quit per message that JavaMailSender.send does. Sends are paced by
+ * {@link MailPacer}. Failed mails are retried with exponential backoff until mail.outbox.max-attempts,
+ * after which they stay FAILED.
+ *
+ * A sent mail's row is deleted as soon as the server accepts it, so a drainer that dies mid-batch
+ * leaves only unsent rows behind. While a batch is worked through, its claim is refreshed every
+ * CLAIM_REFRESH_SECONDS, so the stale-claim release only hands back batches whose drainer is gone;
+ * a drainer that finds its claim released anyway stops, as the rows are someone else's by then.
+ */
+@Component
+public class MailOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(MailOutboxWorker.class);
+    private static final long STALE_CLAIM_MINUTES = 5;
+    private static final long CLAIM_REFRESH_SECONDS = 60;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final OutboundMailRepository outboundMailRepository;
+    private final JavaMailSender mailSender;
+    private final MailPacer pacer;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger activeDrainers = new AtomicInteger();
+    private final AtomicLong sent = new AtomicLong();
+    private final AtomicLong failedAttempts = new AtomicLong();
+    private final AtomicLong gaveUp = new AtomicLong();
+    private final AtomicLong deferred = new AtomicLong();
+    private final AtomicLong connectionsOpened = new AtomicLong();
+    private volatile String lastError;
+
+    @Value("${mail.outbox.batch-size:50}")
+    private int batchSize;
+
+    @Value("${mail.outbox.max-attempts:6}")
+    private int maxAttempts;
+
+    @Value("${mail.outbox.messages-per-connection:50}")
+    private int messagesPerConnection;
+
+    @Value("${spring.mail.username}")
+    private String fromEmail;
+
+    public MailOutboxWorker(OutboundMailRepository outboundMailRepository, JavaMailSender mailSender, MailPacer pacer, @Qualifier("mailExecutor") ThreadPoolTaskExecutor executor, PlatformTransactionManager transactionManager) {
+        this.outboundMailRepository = outboundMailRepository;
+        this.mailSender = mailSender;
+        this.pacer = pacer;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Starts another drainer unless every pool thread is already draining
+    public void wakeUp() {
+        int active;
+        do {
+            active = activeDrainers.get();
+            if (active >= executor.getMaxPoolSize()) {
+                return;
+            }
+        } while (!activeDrainers.compareAndSet(active, active + 1));
+
+        try {
+            executor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            activeDrainers.decrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${mail.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboundMailRepository.releaseStaleClaims(LocalDateTime.now().minusMinutes(STALE_CLAIM_MINUTES)));
+        pacer.prune();
+        wakeUp();
+    }
+
+    public MailStats stats() {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return new MailStats(
+                outboundMailRepository.countByStatus(OutboundMail.Status.PENDING),
+                outboundMailRepository.countByStatus(OutboundMail.Status.FAILED),
+                sent.get(),
+                failedAttempts.get(),
+                gaveUp.get(),
+                deferred.get(),
+                connectionsOpened.get(),
+                pool.getActiveCount(),
+                pool.getQueue().size(),
+                lastError
+        );
+    }
+
+    private void drain() {
+        try (SmtpConnection connection = new SmtpConnection()) {
+            while (processBatch(connection) >= batchSize) {
+                // keep going (and keep the connection) while full batches come back
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (RuntimeException e) {
+            log.error("Mail outbox drain failed", e);
+        } finally {
+            activeDrainers.decrementAndGet();
+        }
+    }
+
+    private int processBatch(SmtpConnection connection) throws InterruptedException {
+        String token = UUID.randomUUID().toString();
+        List<OutboundMail> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboundMailRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty() || outboundMailRepository.claim(ids, token, now) == 0) {
+                return List.of();
+            }
+            List<OutboundMail> rows = new ArrayList<>();
+            for (OutboundMail row : outboundMailRepository.findAllById(ids)) {
+                if (token.equals(row.getClaimToken())) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        // Rows not reached before an interrupt or a crash stay PROCESSING until the stale-claim release
+        long refreshedAt = System.nanoTime();
+        for (OutboundMail row : claimed) {
+            if (System.nanoTime() - refreshedAt >= TimeUnit.SECONDS.toNanos(CLAIM_REFRESH_SECONDS)) {
+                Integer held = transactionTemplate.execute(status -> outboundMailRepository.refreshClaim(token, LocalDateTime.now()));
+                if (held == null || held == 0) {
+                    log.warn("Mail outbox claim {} was released mid-batch; leaving the rest to its new owner", token);
+                    return 0;
+                }
+                refreshedAt = System.nanoTime();
+            }
+            long waitMs = pacer.recipientWaitMs(row.getRecipient());
+            if (waitMs > 0) {
+                deferred.incrementAndGet();
+                transactionTemplate.executeWithoutResult(status ->
+                        outboundMailRepository.defer(row.getId(), LocalDateTime.now().plusNanos(waitMs * 1_000_000)));
+                continue;
+            }
+            pacer.acquire();
+            try {
+                connection.send(message(row));
+            } catch (Exception e) {
+                scheduleRetry(row, e);
+                continue;
+            }
+            pacer.sent(row.getRecipient());
+            sent.incrementAndGet();
+            try {
+                transactionTemplate.executeWithoutResult(status -> outboundMailRepository.deleteClaimed(row.getId(), token));
+            } catch (RuntimeException e) {
+                // Sent but still in the table, so the stale-claim release will send it again
+                log.error("Failed to remove sent mail {} from the outbox", row.getId(), e);
+            }
+        }
+        return claimed.size();
+    }
+
+    private MimeMessage message(OutboundMail row) throws Exception {
+        MimeMessage message = mailSender.createMimeMessage();
+        MimeMessageHelper helper = new MimeMessageHelper(message, true, "UTF-8");
+        helper.setFrom(fromEmail, "YaVij Express");
+        helper.setTo(row.getRecipient());
+        helper.setSubject(row.getSubject());
+        helper.setText(row.getBody(), true);
+        return message;
+    }
+
+    private void scheduleRetry(OutboundMail row, Exception error) {
+        int attempts = row.getAttempts() + 1;
+        failedAttempts.incrementAndGet();
+        lastError = error.getClass().getSimpleName() + ": " + truncate(error.getMessage());
+        row.setAttempts(attempts);
+        row.setClaimToken(null);
+        row.setLastError(lastError);
+        // An address the server refused will not start working on a retry
+        if (attempts >= maxAttempts || addressRefused(error)) {
+            gaveUp.incrementAndGet();
+            row.setStatus(OutboundMail.Status.FAILED);
+            log.warn("Giving up on mail {} to {} after {} attempts: {}", row.getId(), row.getRecipient(), attempts, lastError);
+        } else {
+            long backoffSeconds = Math.min(MAX_BACKOFF_SECONDS, 15L << Math.min(attempts, 20));
+            row.setStatus(OutboundMail.Status.PENDING);
+            row.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+        }
+        transactionTemplate.executeWithoutResult(status -> outboundMailRepository.save(row));
+    }
+
+    private static boolean addressRefused(Exception error) {
+        if (!(error instanceof SendFailedException refused)) {
+            return false;
+        }
+        return refused.getInvalidAddresses() != null && refused.getInvalidAddresses().length > 0;
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.length() > 400 ? message.substring(0, 400) : message;
+    }
+
+    // One drainer's SMTP connection; opened on first use, closed when the drain ends
+    private final class SmtpConnection implements AutoCloseable {
+        private Transport transport;
+        private int sentOnConnection;
+
+        void send(MimeMessage message) throws MessagingException {
+            if (!(mailSender instanceof JavaMailSenderImpl sender)) {
+                mailSender.send(message);
+                return;
+            }
+            if (transport == null || sentOnConnection >= messagesPerConnection || !transport.isConnected()) {
+                close();
+                transport = sender.getSession().getTransport(sender.getProtocol() != null ? sender.getProtocol() : "smtp");
+                transport.connect(sender.getHost(), sender.getPort(), sender.getUsername(), sender.getPassword());
+                connectionsOpened.incrementAndGet();
+            }
+            message.saveChanges();
+            try {
+                transport.sendMessage(message, message.getAllRecipients());
+                sentOnConnection++;
+            } catch (MessagingException e) {
+                // A refused recipient leaves the connection usable; anything else may not have
+                if (!addressRefused(e)) {
+                    close();
+                }
+                throw e;
+            }
+        }
+
+        @Override
+        public void close() {
+            if (transport != null) {
+                try {
+                    transport.close();
+                } catch (MessagingException e) {
+                    log.debug("Error closing SMTP connection", e);
+                }
+            }
+            transport = null;
+            sentOnConnection = 0;
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package com.yavijexpress.mail;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Spreads outgoing mail over time. All workers share one schedule of send slots
+ * mail.rate.per-second apart, so a burst of sign-ups drains at a steady rate the SMTP server
+ * accepts instead of being throttled by it. Each recipient is also limited to one email per
+ * mail.rate.per-recipient-interval-ms; a mail that comes due sooner is deferred, not dropped.
+ */
+@Component
+public class MailPacer {
+
+    private final long slotNanos;
+    private final long recipientIntervalMs;
+    private final Map<String, Long> lastSentAt = new ConcurrentHashMap<>();
+    private long nextSlotNanos = System.nanoTime();
+
+    public MailPacer(@Value("${mail.rate.per-second:5}") double perSecond,
+                     @Value("${mail.rate.per-recipient-interval-ms:3000}") long recipientIntervalMs) {
+        this.slotNanos = perSecond > 0 ? (long) (TimeUnit.SECONDS.toNanos(1) / perSecond) : 0;
+        this.recipientIntervalMs = recipientIntervalMs;
+    }
+
+    // Millis until this recipient may get another email; 0 when it may now
+    public long recipientWaitMs(String recipient) {
+        Long last = lastSentAt.get(key(recipient));
+        return last == null ? 0 : Math.max(0, last + recipientIntervalMs - System.currentTimeMillis());
+    }
+
+    public void sent(String recipient) {
+        lastSentAt.put(key(recipient), System.currentTimeMillis());
+    }
+
+    // Blocks until the next free send slot
+    public void acquire() throws InterruptedException {
+        long waitNanos = reserve();
+        if (waitNanos > 0) {
+            TimeUnit.NANOSECONDS.sleep(waitNanos);
+        }
+    }
+
+    public void prune() {
+        long before = System.currentTimeMillis() - recipientIntervalMs;
+        lastSentAt.values().removeIf(at -> at < before);
+    }
+
+    private synchronized long reserve() {
+        long now = System.nanoTime();
+        long slot = Math.max(now, nextSlotNanos);
+        nextSlotNanos = slot + slotNanos;
+        return slot - now;
+    }
+
+    private static String key(String recipient) {
+        return recipient.trim().toLowerCase(Locale.ROOT);
+    }
+}
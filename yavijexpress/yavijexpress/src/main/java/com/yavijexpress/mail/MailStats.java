@@ -0,0 +1,77 @@
+package com.yavijexpress.mail;
+
+/**
+ * Point-in-time view of the outbound mail queue for the admin dashboard. Counters are for this
+ * instance since startup; backlog and failed are table-wide.
+ */
+public class MailStats {
+
+    private final long backlog;
+    private final long failed;
+    private final long sent;
+    private final long failedAttempts;
+    private final long gaveUp;
+    private final long deferred;
+    private final long connectionsOpened;
+    private final int activeWorkers;
+    private final int queuedDrains;
+    private final String lastError;
+
+    public MailStats(long backlog, long failed, long sent, long failedAttempts, long gaveUp, long deferred,
+                     long connectionsOpened, int activeWorkers, int queuedDrains, String lastError) {
+        this.backlog = backlog;
+        this.failed = failed;
+        this.sent = sent;
+        this.failedAttempts = failedAttempts;
+        this.gaveUp = gaveUp;
+        this.deferred = deferred;
+        this.connectionsOpened = connectionsOpened;
+        this.activeWorkers = activeWorkers;
+        this.queuedDrains = queuedDrains;
+        this.lastError = lastError;
+    }
+
+    public long getBacklog() {
+        return backlog;
+    }
+
+    public long getFailed() {
+        return failed;
+    }
+
+    public long getSent() {
+        return sent;
+    }
+
+    public long getFailedAttempts() {
+        return failedAttempts;
+    }
+
+    public long getGaveUp() {
+        return gaveUp;
+    }
+
+    public long getDeferred() {
+        return deferred;
+    }
+
+    public long getConnectionsOpened() {
+        return connectionsOpened;
+    }
+
+    public double getMessagesPerConnection() {
+        return connectionsOpened == 0 ? 0 : (double) sent / connectionsOpened;
+    }
+
+    public int getActiveWorkers() {
+        return activeWorkers;
+    }
+
+    public int getQueuedDrains() {
+        return queuedDrains;
+    }
+
+    public String getLastError() {
+        return lastError;
+    }
+}
@@ -0,0 +1,109 @@
+package com.yavijexpress.notification;
+
+import com.yavijexpress.entity.BroadcastJob;
+import com.yavijexpress.entity.Notification;
+import com.yavijexpress.repository.BroadcastJobRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+
+/**
+ * Pushes an admin broadcast to every matching user. The broadcast itself is stored once in
+ * broadcast_jobs and merged into inboxes at read time, so nothing is written per recipient here, and
+ * the live push is a single frame on the broadcast topic (see {@link NotificationPusher#broadcast}) that
+ * the broker fans out to every subscribed session. A run that dies before it finishes is retried by
+ * whichever instance notices the stale heartbeat first.
+ */
+@Component
+public class BroadcastEngine {
+
+    private static final Logger log = LoggerFactory.getLogger(BroadcastEngine.class);
+    private static final long STALE_AFTER_SECONDS = 120;
+
+    private final BroadcastJobRepository broadcastJobRepository;
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationPusher notificationPusher;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+
+    public BroadcastEngine(BroadcastJobRepository broadcastJobRepository, JdbcTemplate jdbcTemplate, NotificationPusher notificationPusher, @Qualifier("broadcastExecutor") ThreadPoolTaskExecutor executor, PlatformTransactionManager transactionManager) {
+        this.broadcastJobRepository = broadcastJobRepository;
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationPusher = notificationPusher;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Hands the job to the broadcast pool; the caller's transaction is not held for the run
+    public void start(Long jobId) {
+        try {
+            executor.execute(() -> run(jobId));
+        } catch (TaskRejectedException e) {
+            // Pool is saturated; the resume poll picks the job up while it is still QUEUED
+            log.warn("Broadcast {} deferred: executor saturated", jobId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.broadcast.resume-interval-ms:60000}")
+    public void resumeStalled() {
+        LocalDateTime staleBefore = LocalDateTime.now().minusSeconds(STALE_AFTER_SECONDS);
+        for (Long jobId : broadcastJobRepository.findResumableIds(staleBefore)) {
+            start(jobId);
+        }
+    }
+
+    private void run(Long jobId) {
+        LocalDateTime now = LocalDateTime.now();
+        Integer claimed = transactionTemplate.execute(status ->
+                broadcastJobRepository.claim(jobId, now, now.minusSeconds(STALE_AFTER_SECONDS)));
+        if (claimed == null || claimed == 0) {
+            return;
+        }
+
+        BroadcastJob job = broadcastJobRepository.findById(jobId).orElse(null);
+        if (job == null) {
+            return;
+        }
+        String role = job.getRoleFilter() != null ? job.getRoleFilter().name() : null;
+        try {
+            Long total = job.getTotalRecipients();
+            if (total == null) {
+                total = role != null
+                        ? jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users WHERE role = ?", Long.class, role)
+                        : jdbcTemplate.queryForObject("SELECT COUNT(*) FROM users", Long.class);
+                Long recipients = total;
+                transactionTemplate.executeWithoutResult(status ->
+                        jdbcTemplate.update("UPDATE broadcast_jobs SET total_recipients = ? WHERE id = ?", recipients, jobId));
+            }
+
+            // Inbox entries for broadcasts carry the negated job id. The broadcast is already in every inbox,
+            // so a missed push only delays the badge
+            notificationPusher.broadcast(role, notificationPusher.frame(-job.getId(), job.getTitle(), job.getMessage(),
+                    Notification.NotificationType.INFO.toString(), "ADMIN_BROADCAST", null, null));
+            finish(jobId, BroadcastJob.Status.COMPLETED, total, null);
+        } catch (RuntimeException e) {
+            log.error("Broadcast {} failed", jobId, e);
+            String error = e.getMessage() != null && e.getMessage().length() > 500 ? e.getMessage().substring(0, 500) : e.getMessage();
+            finish(jobId, BroadcastJob.Status.FAILED, null, error);
+        }
+    }
+
+    // processed is null when the push did not go out
+    private void finish(Long jobId, BroadcastJob.Status status, Long processed, String error) {
+        transactionTemplate.executeWithoutResult(tx -> jdbcTemplate.update(
+                "UPDATE broadcast_jobs SET status = ?, finished_at = ?, last_error = ?, " +
+                "processed_recipients = COALESCE(?, processed_recipients) WHERE id = ?",
+                status.name(), Timestamp.valueOf(LocalDateTime.now()), error, processed, jobId));
+    }
+}
@@ -0,0 +1,23 @@
+package com.yavijexpress.notification;
+
+import com.yavijexpress.entity.Notification;
+import jakarta.persistence.PostPersist;
+import org.springframework.stereotype.Component;
+
+// Counts every unread notification row on insert, wherever it was saved from
+@Component
+public class NotificationCounterListener {
+
+    private final UnreadCounter unreadCounter;
+
+    public NotificationCounterListener(UnreadCounter unreadCounter) {
+        this.unreadCounter = unreadCounter;
+    }
+
+    @PostPersist
+    public void onInsert(Notification notification) {
+        if (!Boolean.TRUE.equals(notification.getRead()) && notification.getUser() != null) {
+            unreadCounter.rowsChanged(notification.getUser().getId(), 1);
+        }
+    }
+}
@@ -0,0 +1,344 @@
+package com.yavijexpress.notification;
+
+import com.yavijexpress.entity.*;
+import com.yavijexpress.repository.*;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.Map;
+
+/**
+ * Turns an outbox intent into stored notifications and WebSocket pushes. Runs on the outbox worker
+ * inside its own transaction; entities are re-loaded by id, and an intent whose entity is gone is
+ * dropped. Pushes are sent only after the notifications commit, so a retried intent never pushes twice.
+ */
+@Component
+public class NotificationDispatcher {
+
+    private final UserRepository userRepository;
+    private final NotificationRepository notificationRepository;
+    private final TripRepository tripRepository;
+    private final BookingRepository bookingRepository;
+    private final PaymentRepository paymentRepository;
+    private final VehicleRepository vehicleRepository;
+    private final ComplaintRepository complaintRepository;
+    private final NotificationPusher notificationPusher;
+    private final BroadcastEngine broadcastEngine;
+
+    public NotificationDispatcher(UserRepository userRepository, NotificationRepository notificationRepository, TripRepository tripRepository, BookingRepository bookingRepository, PaymentRepository paymentRepository, VehicleRepository vehicleRepository, ComplaintRepository complaintRepository, NotificationPusher notificationPusher, BroadcastEngine broadcastEngine) {
+        this.userRepository = userRepository;
+        this.notificationRepository = notificationRepository;
+        this.tripRepository = tripRepository;
+        this.bookingRepository = bookingRepository;
+        this.paymentRepository = paymentRepository;
+        this.vehicleRepository = vehicleRepository;
+        this.complaintRepository = complaintRepository;
+        this.notificationPusher = notificationPusher;
+        this.broadcastEngine = broadcastEngine;
+    }
+
+    public void dispatch(NotificationOutbox.Kind kind, Map<String, Object> payload) {
+        switch (kind) {
+            case TRIP_UPDATED -> tripRepository.findById(id(payload, "tripId")).ifPresent(this::tripUpdated);
+            case TRIP_CANCELLED -> tripRepository.findById(id(payload, "tripId"))
+                    .ifPresent(trip -> tripCancelled(trip, text(payload, "reason")));
+            case TRIP_STARTED -> tripRepository.findById(id(payload, "tripId")).ifPresent(this::tripStarted);
+            case TRIP_COMPLETED -> tripRepository.findById(id(payload, "tripId")).ifPresent(this::tripCompleted);
+            case BOOKING_REQUEST -> bookingRepository.findById(id(payload, "bookingId")).ifPresent(this::bookingRequest);
+            case BOOKING_CONFIRMED -> bookingRepository.findById(id(payload, "bookingId")).ifPresent(this::bookingConfirmed);
+            case BOOKING_DENIED -> bookingRepository.findById(id(payload, "bookingId")).ifPresent(this::bookingDenied);
+            case BOOKING_CANCELLED -> bookingRepository.findById(id(payload, "bookingId"))
+                    .ifPresent(booking -> bookingCancelled(booking, text(payload, "reason")));
+            case PAYMENT_SUCCESS -> paymentRepository.findById(id(payload, "paymentId")).ifPresent(this::paymentSuccess);
+            case INSURANCE_EXPIRY -> vehicleRepository.findById(id(payload, "vehicleId")).ifPresent(this::insuranceExpiry);
+            case COMPLAINT_SUBMITTED -> complaintRepository.findById(id(payload, "complaintId")).ifPresent(this::complaintSubmitted);
+            case COMPLAINT_STATUS_UPDATE -> complaintRepository.findById(id(payload, "complaintId")).ifPresent(this::complaintStatusUpdate);
+            case EMERGENCY -> userRepository.findById(id(payload, "userId")).ifPresent(user -> save(createNotification(
+                    user, text(payload, "title"), text(payload, "message"),
+                    Notification.NotificationType.EMERGENCY_ALERT, "EMERGENCY", id(payload, "alertId"))));
+            case ADMIN -> userRepository.findById(id(payload, "userId")).ifPresent(user -> save(createNotification(
+                    user, text(payload, "title"), text(payload, "message"),
+                    Notification.NotificationType.WARNING, text(payload, "entityType"), id(payload, "entityId"))));
+            case BROADCAST -> broadcastEngine.start(id(payload, "broadcastId"));
+        }
+    }
+
+    private void tripUpdated(Trip trip) {
+        // Notify all passengers who booked this trip
+        trip.getBookings().forEach(booking -> {
+            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+                save(createNotification(
+                        booking.getPassenger(),
+                        "Trip Updated",
+                        String.format("Your trip from %s to %s has been updated",
+                                trip.getFromLocation(), trip.getToLocation()),
+                        Notification.NotificationType.INFO,
+                        "TRIP",
+                        trip.getId()
+                ));
+            }
+        });
+    }
+
+    private void tripCancelled(Trip trip, String reason) {
+        trip.getBookings().forEach(booking -> {
+            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+                save(createNotification(
+                        booking.getPassenger(),
+                        "Trip Cancelled",
+                        String.format("Your trip from %s to %s has been cancelled. Reason: %s",
+                                trip.getFromLocation(), trip.getToLocation(), reason),
+                        Notification.NotificationType.ERROR,
+                        "TRIP",
+                        trip.getId()
+                ));
+            }
+        });
+    }
+
+    private void tripStarted(Trip trip) {
+        trip.getBookings().forEach(booking -> {
+            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+                save(createNotification(
+                        booking.getPassenger(),
+                        "Trip Started",
+                        "Your ride has started. The driver is on the way.",
+                        Notification.NotificationType.INFO,
+                        "TRIP",
+                        trip.getId()
+                ));
+            }
+        });
+    }
+
+    private void tripCompleted(Trip trip) {
+        // Notify driver
+        save(createNotification(
+                trip.getDriver(),
+                "Trip Completed",
+                String.format("Your trip from %s to %s has been completed successfully",
+                        trip.getFromLocation(), trip.getToLocation()),
+                Notification.NotificationType.SUCCESS,
+                "TRIP",
+                trip.getId()
+        ));
+
+        // Notify passengers
+        trip.getBookings().forEach(booking -> {
+            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
+                save(createNotification(
+                        booking.getPassenger(),
+                        "Trip Completed",
+                        "Your ride has been completed. Please rate your experience.",
+                        Notification.NotificationType.SUCCESS,
+                        "TRIP",
+                        trip.getId()
+                ));
+            }
+        });
+    }
+
+    private void bookingRequest(Booking booking) {
+        String message = String.format(
+            "New Booking Request - Status: Pending Approval\n" +
+            "Passenger: %s\n" +
+            "Trip: %s to %s\n" +
+            "Departure: %s\n" +
+            "Seats: %d\n" +
+            "Amount: ₹%.2f",
+            booking.getPassenger().getName(),
+            booking.getTrip().getFromLocation(),
+            booking.getTrip().getToLocation(),
+            booking.getTrip().getDepartureTime(),
+            booking.getSeatsBooked(),
+            booking.getTotalAmount()
+        );
+
+        Notification notification = createNotification(
+                booking.getTrip().getDriver(),
+                "New Booking Request",
+                message,
+                Notification.NotificationType.INFO,
+                "BOOKING",
+                booking.getId()
+        );
+
+        String actions = String.format(
+            "[{\"label\":\"Accept\",\"action\":\"confirm\",\"url\":\"/api/bookings/%d/confirm\",\"style\":\"success\"}," +
+            "{\"label\":\"Deny\",\"action\":\"deny\",\"url\":\"/api/bookings/%d/deny\",\"style\":\"danger\"}]",
+            booking.getId(), booking.getId()
+        );
+        notification.setActions(actions);
+
+        Notification saved = notificationRepository.save(notification);
+        sendRealTimeNotification(booking.getTrip().getDriver().getId(), saved);
+    }
+
+    private void bookingConfirmed(Booking booking) {
+        Trip trip = booking.getTrip();
+        User driver = trip.getDriver();
+
+        String message = String.format(
+            "Your trip is booked successfully!\n\n" +
+            "Driver Details:\n" +
+            "Name: %s\n" +
+            "Phone: %s\n" +
+            "Vehicle: %s (%s)\n\n" +
+            "Trip Details:\n" +
+            "From: %s\n" +
+            "To: %s\n" +
+            "Departure: %s\n\n" +
+            "Pickup OTP: %s\n" +
+            "Please give this OTP to the driver during pickup.",
+            driver.getName(),
+            driver.getMobile(),
+            trip.getVehicle().getModel(),
+            trip.getVehicle().getVehicleNumber(),
+            trip.getFromLocation(),
+            trip.getToLocation(),
+            trip.getDepartureTime(),
+            booking.getPickupOtp()
+        );
+
+        Notification saved = notificationRepository.save(createNotification(
+                booking.getPassenger(),
+                "Trip Booked Successfully",
+                message,
+                Notification.NotificationType.SUCCESS,
+                "BOOKING",
+                booking.getId()
+        ));
+        sendRealTimeNotification(booking.getPassenger().getId(), saved);
+    }
+
+    private void bookingDenied(Booking booking) {
+        Notification saved = notificationRepository.save(createNotification(
+                booking.getPassenger(),
+                "Trip Request Denied",
+                "Your trip request was denied by the driver.",
+                Notification.NotificationType.WARNING,
+                "BOOKING",
+                booking.getId()
+        ));
+        sendRealTimeNotification(booking.getPassenger().getId(), saved);
+    }
+
+    private void bookingCancelled(Booking booking, String reason) {
+        // Notify passenger
+        save(createNotification(
+                booking.getPassenger(),
+                "Booking Cancelled",
+                String.format("Your booking has been cancelled. Reason: %s", reason),
+                Notification.NotificationType.WARNING,
+                "BOOKING",
+                booking.getId()
+        ));
+
+        // Notify driver
+        save(createNotification(
+                booking.getTrip().getDriver(),
+                "Booking Cancelled",
+                String.format("A booking has been cancelled by %s. Reason: %s",
+                        booking.getPassenger().getName(), reason),
+                Notification.NotificationType.WARNING,
+                "BOOKING",
+                booking.getId()
+        ));
+    }
+
+    private void paymentSuccess(Payment payment) {
+        save(createNotification(
+                payment.getBooking().getPassenger(),
+                "Payment Successful",
+                String.format("Payment of ₹%.2f for booking #%d was successful",
+                        payment.getAmount(), payment.getBooking().getId()),
+                Notification.NotificationType.SUCCESS,
+                "PAYMENT",
+                payment.getId()
+        ));
+    }
+
+    private void insuranceExpiry(Vehicle vehicle) {
+        save(createNotification(
+                vehicle.getUser(),
+                "Vehicle Insurance Expiring",
+                String.format("Insurance for your vehicle %s expires on %s. Please renew it to keep offering trips.",
+                        vehicle.getVehicleNumber(), vehicle.getInsuranceExpiry().toLocalDate()),
+                Notification.NotificationType.WARNING,
+                "VEHICLE",
+                vehicle.getId()
+        ));
+    }
+
+    private void complaintSubmitted(Complaint complaint) {
+        save(createNotification(
+                complaint.getReportedBy(),
+                "Complaint Submitted",
+                String.format("Your complaint '%s' has been submitted successfully. We'll review it soon.",
+                        complaint.getTitle()),
+                Notification.NotificationType.INFO,
+                "COMPLAINT",
+                complaint.getId()
+        ));
+    }
+
+    private void complaintStatusUpdate(Complaint complaint) {
+        save(createNotification(
+                complaint.getReportedBy(),
+                "Complaint Status Updated",
+                String.format("Your complaint '%s' status has been updated to: %s",
+                        complaint.getTitle(), complaint.getStatus()),
+                Notification.NotificationType.INFO,
+                "COMPLAINT",
+                complaint.getId()
+        ));
+    }
+
+    private Notification save(Notification notification) {
+        return notificationRepository.save(notification);
+    }
+
+    private Notification createNotification(User user, String title, String message,
+                                            Notification.NotificationType type,
+                                            String entityType, Long entityId) {
+        Notification notification = new Notification();
+        notification.setUser(user);
+        notification.setTitle(title);
+        notification.setMessage(message);
+        notification.setType(type);
+        notification.setRelatedEntityType(entityType);
+        notification.setRelatedEntityId(entityId);
+        notification.setIsRead(false);
+
+        return notification;
+    }
+
+    private void sendRealTimeNotification(Long userId, Notification notification) {
+        NotificationFrame frame = notificationPusher.frame(
+                notification.getId(),
+                notification.getTitle(),
+                notification.getMessage(),
+                notification.getType().toString(),
+                notification.getRelatedEntityType(),
+                notification.getRelatedEntityId(),
+                notification.getActions()
+        );
+
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                notificationPusher.send(userId, frame);
+            }
+        });
+    }
+
+    private static Long id(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value instanceof Number number ? number.longValue() : null;
+    }
+
+    private static String text(Map<String, Object> payload, String key) {
+        Object value = payload.get(key);
+        return value != null ? value.toString() : null;
+    }
+}
@@ -0,0 +1,42 @@
+package com.yavijexpress.notification;
+
+import java.io.ByteArrayOutputStream;
+import java.util.List;
+
+/**
+ * A notification push serialized once to JSON bytes. The same frame is handed to every recipient, and
+ * a burst of frames for one user is joined into a JSON array without serializing again.
+ */
+final class NotificationFrame {
+
+    private final byte[] json;
+
+    NotificationFrame(byte[] json) {
+        this.json = json;
+    }
+
+    byte[] bytes() {
+        return json;
+    }
+
+    int size() {
+        return json.length;
+    }
+
+    static byte[] batch(List<NotificationFrame> frames) {
+        int size = frames.size() + 1;
+        for (NotificationFrame frame : frames) {
+            size += frame.size();
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(size);
+        out.write('[');
+        for (int i = 0; i < frames.size(); i++) {
+            if (i > 0) {
+                out.write(',');
+            }
+            out.writeBytes(frames.get(i).json);
+        }
+        out.write(']');
+        return out.toByteArray();
+    }
+}
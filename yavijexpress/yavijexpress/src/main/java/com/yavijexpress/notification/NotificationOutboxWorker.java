@@ -0,0 +1,161 @@
+package com.yavijexpress.notification;
+
+import com.fasterxml.jackson.core.type.TypeReference;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yavijexpress.entity.NotificationOutbox;
+import com.yavijexpress.repository.NotificationOutboxRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Drains the notification outbox on a bounded pool. Writers wake it after their transaction commits;
+ * a fixed-delay poll picks up anything else (retries that came due, intents written by other instances,
+ * rows orphaned by a crash). Rows are claimed in batches with a conditional UPDATE, each intent is
+ * dispatched in its own transaction, delivered rows are deleted and failed ones are retried with
+ * exponential backoff until notifications.outbox.max-attempts, after which they stay FAILED.
+ */
+@Component
+public class NotificationOutboxWorker {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationOutboxWorker.class);
+    private static final TypeReference<Map<String, Object>> PAYLOAD_TYPE = new TypeReference<>() {};
+    private static final long STALE_CLAIM_MINUTES = 5;
+    private static final long MAX_BACKOFF_SECONDS = 3600;
+
+    private final NotificationOutboxRepository outboxRepository;
+    private final NotificationDispatcher dispatcher;
+    private final ObjectMapper objectMapper;
+    private final ThreadPoolTaskExecutor executor;
+    private final TransactionTemplate transactionTemplate;
+    private final AtomicInteger activeDrainers = new AtomicInteger();
+
+    @Value("${notifications.outbox.batch-size:100}")
+    private int batchSize;
+
+    @Value("${notifications.outbox.max-attempts:8}")
+    private int maxAttempts;
+
+    public NotificationOutboxWorker(NotificationOutboxRepository outboxRepository, NotificationDispatcher dispatcher, ObjectMapper objectMapper, @Qualifier("notificationExecutor") ThreadPoolTaskExecutor executor, PlatformTransactionManager transactionManager) {
+        this.outboxRepository = outboxRepository;
+        this.dispatcher = dispatcher;
+        this.objectMapper = objectMapper;
+        this.executor = executor;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.transactionTemplate.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    // Starts another drainer unless every pool thread is already draining
+    public void wakeUp() {
+        int active;
+        do {
+            active = activeDrainers.get();
+            if (active >= executor.getMaxPoolSize()) {
+                return;
+            }
+        } while (!activeDrainers.compareAndSet(active, active + 1));
+
+        try {
+            executor.execute(this::drain);
+        } catch (TaskRejectedException e) {
+            activeDrainers.decrementAndGet();
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.outbox.poll-interval-ms:5000}")
+    public void poll() {
+        transactionTemplate.executeWithoutResult(status ->
+                outboxRepository.releaseStaleClaims(LocalDateTime.now().minusMinutes(STALE_CLAIM_MINUTES)));
+        wakeUp();
+    }
+
+    public long backlog() {
+        return outboxRepository.countByStatus(NotificationOutbox.Status.PENDING);
+    }
+
+    private void drain() {
+        try {
+            while (processBatch() >= batchSize) {
+                // keep going while full batches come back
+            }
+        } catch (RuntimeException e) {
+            log.error("Notification outbox drain failed", e);
+        } finally {
+            activeDrainers.decrementAndGet();
+        }
+    }
+
+    private int processBatch() {
+        String token = UUID.randomUUID().toString();
+        List<NotificationOutbox> claimed = transactionTemplate.execute(status -> {
+            LocalDateTime now = LocalDateTime.now();
+            List<Long> ids = outboxRepository.findDueIds(now, PageRequest.of(0, batchSize));
+            if (ids.isEmpty() || outboxRepository.claim(ids, token, now) == 0) {
+                return List.of();
+            }
+            List<NotificationOutbox> rows = new ArrayList<>();
+            for (NotificationOutbox row : outboxRepository.findAllById(ids)) {
+                if (token.equals(row.getClaimToken())) {
+                    rows.add(row);
+                }
+            }
+            return rows;
+        });
+        if (claimed == null || claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<Long> delivered = new ArrayList<>();
+        for (NotificationOutbox row : claimed) {
+            try {
+                Map<String, Object> payload = objectMapper.readValue(row.getPayload(), PAYLOAD_TYPE);
+                transactionTemplate.executeWithoutResult(status -> dispatcher.dispatch(row.getKind(), payload));
+                delivered.add(row.getId());
+            } catch (Exception e) {
+                scheduleRetry(row, e);
+            }
+        }
+        if (!delivered.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> outboxRepository.deleteAllByIdInBatch(delivered));
+        }
+        return claimed.size();
+    }
+
+    private void scheduleRetry(NotificationOutbox row, Exception error) {
+        int attempts = row.getAttempts() + 1;
+        row.setAttempts(attempts);
+        row.setClaimToken(null);
+        row.setLastError(error.getClass().getSimpleName() + ": " + truncate(error.getMessage()));
+        if (attempts >= maxAttempts) {
+            row.setStatus(NotificationOutbox.Status.FAILED);
+            log.warn("Giving up on notification outbox row {} ({}) after {} attempts", row.getId(), row.getKind(), attempts, error);
+        } else {
+            long backoffSeconds = Math.min(MAX_BACKOFF_SECONDS, 5L << Math.min(attempts, 20));
+            row.setStatus(NotificationOutbox.Status.PENDING);
+            row.setNextAttemptAt(LocalDateTime.now().plusSeconds(backoffSeconds));
+        }
+        transactionTemplate.executeWithoutResult(status -> outboxRepository.save(row));
+    }
+
+    private static String truncate(String message) {
+        if (message == null) {
+            return "";
+        }
+        return message.length() > 400 ? message.substring(0, 400) : message;
+    }
+}
@@ -0,0 +1,229 @@
+package com.yavijexpress.notification;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yavijexpress.utils.HashedWheelTimer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Real-time pushes to /user/queue/notifications and /user/queue/notifications/unread, coalesced per user.
+ * The first push to a user goes out at once and opens a window of notifications.push.coalesce-window-ms;
+ * frames arriving inside the window are sent together as one JSON array when it closes, and only the
+ * latest unread count is kept. A window that closes with nothing pending ends the burst. Frames are
+ * built inside the map's compute, which orders them per user, and queued on the window; the broker
+ * send happens after compute returns, so no map bin stays locked during a send.
+ *
+ * Admin broadcasts are not coalesced per user: one frame goes to /topic/broadcasts (or
+ * /topic/broadcasts/{ROLE} for a role-filtered broadcast) and the broker fans it out.
+ *
+ * Frames carry the message cut to notifications.push.preview-length characters and an epoch-millis
+ * timestamp; the full text is in the inbox.
+ */
+@Component
+public class NotificationPusher {
+
+    private static final Logger log = LoggerFactory.getLogger(NotificationPusher.class);
+    private static final String NOTIFICATIONS = "/queue/notifications";
+    private static final String UNREAD = "/queue/notifications/unread";
+    public static final String BROADCASTS = "/topic/broadcasts";
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final Map<Long, Window> windows = new ConcurrentHashMap<>();
+    private final HashedWheelTimer<Long> timer = new HashedWheelTimer<>("notification-push-timer", 50, TimeUnit.MILLISECONDS, 64);
+
+    @Value("${notifications.push.coalesce-window-ms:250}")
+    private long windowMs;
+
+    @Value("${notifications.push.max-batch:50}")
+    private int maxBatch;
+
+    @Value("${notifications.push.preview-length:160}")
+    private int previewLength;
+
+    public NotificationPusher(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+    }
+
+    // Null fields are left out of the frame
+    NotificationFrame frame(Long id, String title, String message, String type, String entityType, Long entityId, String actions) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        putIfPresent(data, "id", id);
+        putIfPresent(data, "title", title);
+        putIfPresent(data, "message", preview(message));
+        putIfPresent(data, "type", type);
+        putIfPresent(data, "entityType", entityType);
+        putIfPresent(data, "entityId", entityId);
+        putIfPresent(data, "actions", actions);
+        data.put("timestamp", System.currentTimeMillis());
+        try {
+            return new NotificationFrame(objectMapper.writeValueAsBytes(data));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Failed to serialize notification frame", e);
+        }
+    }
+
+    void send(Long userId, NotificationFrame frame) {
+        drain(userId, windows.compute(userId, (id, window) -> {
+            if (window == null) {
+                Window opened = open(id);
+                opened.queue(NOTIFICATIONS, frame.bytes());
+                return opened;
+            }
+            window.frames.add(frame);
+            if (window.frames.size() >= maxBatch) {
+                window.queue(NOTIFICATIONS, NotificationFrame.batch(window.frames));
+                window.frames.clear();
+            }
+            return window;
+        }));
+    }
+
+    void sendUnread(Long userId, long count) {
+        drain(userId, windows.compute(userId, (id, window) -> {
+            if (window == null) {
+                Window opened = open(id);
+                opened.queue(UNREAD, unreadFrame(count));
+                return opened;
+            }
+            window.unread = count;
+            return window;
+        }));
+    }
+
+    // One frame for every matching session; roleFilter null means everyone
+    void broadcast(String roleFilter, NotificationFrame frame) {
+        deliver(roleFilter != null ? BROADCASTS + "/" + roleFilter : BROADCASTS, frame.bytes());
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop();
+    }
+
+    // Runs on the timer thread
+    private void flush(Long userId) {
+        drain(userId, windows.compute(userId, (id, window) -> {
+            if (window == null) {
+                return null;
+            }
+            // Kept while an earlier caller is still sending from it, so a new window cannot overtake it
+            if (window.isEmpty() && window.outbox.isEmpty()) {
+                return null;
+            }
+            if (window.frames.size() == 1) {
+                window.queue(NOTIFICATIONS, window.frames.get(0).bytes());
+            } else if (!window.frames.isEmpty()) {
+                window.queue(NOTIFICATIONS, NotificationFrame.batch(window.frames));
+            }
+            if (window.unread != null) {
+                window.queue(UNREAD, unreadFrame(window.unread));
+            }
+            window.frames.clear();
+            window.unread = null;
+            schedule(id);
+            return window;
+        }));
+    }
+
+    private Window open(Long userId) {
+        schedule(userId);
+        return new Window();
+    }
+
+    private void schedule(Long userId) {
+        timer.schedule(userId, windowMs, TimeUnit.MILLISECONDS, () -> flush(userId));
+    }
+
+    // Sends what compute queued, outside the map lock; the window's monitor keeps the user's frames in order
+    private void drain(Long userId, Window window) {
+        if (window == null) {
+            return;
+        }
+        synchronized (window.outbox) {
+            Push push;
+            while ((push = window.outbox.poll()) != null) {
+                deliver(messagingTemplate.getUserDestinationPrefix() + userId + push.destination, push.payload);
+            }
+        }
+    }
+
+    // Sent as a ready-made message; going through convertAndSend would run the bytes through a converter again
+    private void deliver(String destination, byte[] payload) {
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        try {
+            messagingTemplate.send(destination, MessageBuilder.createMessage(payload, accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            // A missed push only delays the badge; the inbox is the source of truth
+            log.debug("Push to {} failed", destination, e);
+        }
+    }
+
+    // Cut to previewLength characters including the ellipsis, never splitting a surrogate pair
+    private String preview(String message) {
+        int limit = Math.max(previewLength, 2);
+        if (message == null || message.length() <= limit) {
+            return message;
+        }
+        int end = limit - 1;
+        if (Character.isHighSurrogate(message.charAt(end - 1))) {
+            end--;
+        }
+        return message.substring(0, end) + "…";
+    }
+
+    private static byte[] unreadFrame(long count) {
+        return ("{\"unreadCount\":" + count + "}").getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static void putIfPresent(Map<String, Object> data, String key, Object value) {
+        if (value != null) {
+            data.put(key, value);
+        }
+    }
+
+    private static final class Window {
+        private final List<NotificationFrame> frames = new ArrayList<>();
+        private final Queue<Push> outbox = new ConcurrentLinkedQueue<>();
+        private Long unread;
+
+        boolean isEmpty() {
+            return frames.isEmpty() && unread == null;
+        }
+
+        void queue(String destination, byte[] payload) {
+            outbox.add(new Push(destination, payload));
+        }
+    }
+
+    private static final class Push {
+        private final String destination;
+        private final byte[] payload;
+
+        Push(String destination, byte[] payload) {
+            this.destination = destination;
+            this.payload = payload;
+        }
+    }
+}
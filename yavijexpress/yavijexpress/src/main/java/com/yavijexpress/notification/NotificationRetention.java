@@ -0,0 +1,91 @@
+package com.yavijexpress.notification;
+
+import com.yavijexpress.entity.Notification;
+import com.yavijexpress.jobs.SweepRunner;
+import com.yavijexpress.repository.NotificationArchiveRepository;
+import com.yavijexpress.repository.NotificationRepository;
+import com.yavijexpress.utils.AppConstants;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Component;
+import java.time.LocalDateTime;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Keeps the notifications table small. Read rows older than their type's TTL
+ * (notifications.retention.ttl-days.&lt;TYPE&gt;, falling back to notifications.retention.default-ttl-days)
+ * are copied into notification_archive with their message and actions compressed, then deleted from the
+ * hot table, one chunk per transaction. Unread rows are never moved. Archived rows are purged after
+ * notifications.retention.archive-days.
+ *
+ * Each run also recounts the unread counters of the next notifications.unread-counter.reconcile-batch
+ * users from their rows, wrapping around after the last one, so a counter that drifted (a change made
+ * outside {@link UnreadCounter}, such as a manual fix or a bulk update) is repaired within a bounded
+ * number of runs.
+ */
+@Component
+public class NotificationRetention {
+
+    private final NotificationRepository notificationRepository;
+    private final NotificationArchiveRepository archiveRepository;
+    private final SweepRunner sweepRunner;
+    private final UnreadCounter unreadCounter;
+    private final Map<Notification.NotificationType, Integer> ttlDays = new EnumMap<>(Notification.NotificationType.class);
+
+    @Value("${notifications.retention.archive-days:365}")
+    private int archiveDays;
+
+    @Value("${notifications.unread-counter.reconcile-batch:500}")
+    private int reconcileBatch;
+
+    // Last user recounted; per instance, so whichever instance holds the lease carries on from its own position
+    private volatile long reconcileAfter;
+
+    public NotificationRetention(NotificationRepository notificationRepository, NotificationArchiveRepository archiveRepository, SweepRunner sweepRunner, UnreadCounter unreadCounter, Environment environment) {
+        this.notificationRepository = notificationRepository;
+        this.archiveRepository = archiveRepository;
+        this.sweepRunner = sweepRunner;
+        this.unreadCounter = unreadCounter;
+
+        int defaultDays = environment.getProperty("notifications.retention.default-ttl-days", Integer.class, 30);
+        for (Notification.NotificationType type : Notification.NotificationType.values()) {
+            ttlDays.put(type, environment.getProperty("notifications.retention.ttl-days." + type.name(), Integer.class, defaultDays));
+        }
+    }
+
+    public void archiveExpired() {
+        LocalDateTime now = LocalDateTime.now();
+        for (Map.Entry<Notification.NotificationType, Integer> entry : ttlDays.entrySet()) {
+            Notification.NotificationType type = entry.getKey();
+            LocalDateTime cutoff = now.minusDays(entry.getValue());
+            sweepRunner.run("notification-archive-" + type.name().toLowerCase(), AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS, limit -> {
+                List<Long> ids = notificationRepository.findArchivableIds(type, cutoff, PageRequest.of(0, limit));
+                if (!ids.isEmpty()) {
+                    archiveRepository.archive(ids, now);
+                    notificationRepository.deleteByIds(ids);
+                }
+                return ids.size();
+            });
+        }
+
+        LocalDateTime archiveCutoff = now.minusDays(archiveDays);
+        sweepRunner.run("notification-archive-purge", AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS, limit -> {
+            List<Long> ids = archiveRepository.findExpiredIds(archiveCutoff, PageRequest.of(0, limit));
+            if (!ids.isEmpty()) {
+                archiveRepository.deleteByIds(ids);
+            }
+            return ids.size();
+        });
+
+        if (reconcileBatch > 0) {
+            sweepRunner.run("notification-counter-reconcile", reconcileBatch, 1, limit -> {
+                List<Long> userIds = unreadCounter.recount(reconcileAfter, limit);
+                reconcileAfter = userIds.size() < limit ? 0 : userIds.get(userIds.size() - 1);
+                return userIds.size();
+            });
+        }
+    }
+}
@@ -0,0 +1,156 @@
+package com.yavijexpress.notification;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.EmptyResultDataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Per-user unread badge. The unread row count lives in notification_counters and is adjusted in the
+ * same transaction as the change that caused it; the total shown to the user (rows plus unread
+ * broadcasts) is cached here and patched after commit, then pushed to the user. Entries expire after
+ * a short TTL so instances that did not see a change converge on the stored counter.
+ *
+ * Counter updates go through JdbcTemplate rather than a repository because they are also issued from
+ * a JPA entity listener, where touching the persistence context is not allowed.
+ */
+@Component
+public class UnreadCounter {
+
+    private static final String SEED =
+            "INSERT INTO notification_counters (user_id, unread) " +
+            "SELECT ?, COUNT(*) FROM notifications WHERE user_id = ? AND is_read = false " +
+            "ON DUPLICATE KEY UPDATE user_id = user_id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final NotificationPusher notificationPusher;
+    private final Map<Long, Entry> cache = new ConcurrentHashMap<>();
+
+    @Value("${notifications.unread-cache.ttl-seconds:60}")
+    private long ttlSeconds;
+
+    public UnreadCounter(JdbcTemplate jdbcTemplate, NotificationPusher notificationPusher) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.notificationPusher = notificationPusher;
+    }
+
+    // Cached total; on a miss the stored row counter (seeded once from a COUNT) is added to the broadcast part
+    public long get(Long userId, LongSupplier unreadBroadcasts) {
+        long now = System.currentTimeMillis();
+        Entry entry = cache.get(userId);
+        if (entry != null && entry.expiresAt > now) {
+            return entry.count.get();
+        }
+
+        Long rows;
+        try {
+            rows = jdbcTemplate.queryForObject("SELECT unread FROM notification_counters WHERE user_id = ?", Long.class, userId);
+        } catch (EmptyResultDataAccessException e) {
+            jdbcTemplate.update(SEED, userId, userId);
+            rows = jdbcTemplate.queryForObject("SELECT unread FROM notification_counters WHERE user_id = ?", Long.class, userId);
+        }
+        long total = (rows != null ? rows : 0L) + unreadBroadcasts.getAsLong();
+        cache.put(userId, new Entry(total, now + ttlSeconds * 1000));
+        return total;
+    }
+
+    // Unread notification rows were added (positive) or read/deleted (negative)
+    public void rowsChanged(Long userId, long delta) {
+        if (delta == 0) {
+            return;
+        }
+        // A user without a counter row is seeded from a COUNT on first read, which sees this change too
+        jdbcTemplate.update("UPDATE notification_counters SET unread = GREATEST(unread + ?, 0) WHERE user_id = ?", delta, userId);
+        afterCommit(() -> adjust(userId, delta));
+    }
+
+    // Broadcasts are not counted in the table; only the cached total moves
+    public void broadcastsChanged(Long userId, long delta) {
+        if (delta != 0) {
+            afterCommit(() -> adjust(userId, delta));
+        }
+    }
+
+    // Everything read or deleted
+    public void cleared(Long userId) {
+        jdbcTemplate.update("UPDATE notification_counters SET unread = 0 WHERE user_id = ?", userId);
+        afterCommit(() -> {
+            Entry entry = cache.get(userId);
+            if (entry != null) {
+                entry.count.set(0);
+                notificationPusher.sendUnread(userId, 0);
+            }
+        });
+    }
+
+    public void forget(Long userId) {
+        jdbcTemplate.update("DELETE FROM notification_counters WHERE user_id = ?", userId);
+        afterCommit(() -> cache.remove(userId));
+    }
+
+    // Recounts the stored counters of up to limit users after afterUserId from their unread rows, in one statement so
+    // the count and the write see the same rows; returns the users recounted, in id order
+    public List<Long> recount(long afterUserId, int limit) {
+        List<Long> userIds = jdbcTemplate.queryForList(
+                "SELECT user_id FROM notification_counters WHERE user_id > ? ORDER BY user_id LIMIT ?", Long.class, afterUserId, limit);
+        if (!userIds.isEmpty()) {
+            jdbcTemplate.update("UPDATE notification_counters c SET unread = " +
+                    "(SELECT COUNT(*) FROM notifications n WHERE n.user_id = c.user_id AND n.is_read = false) " +
+                    "WHERE c.user_id > ? AND c.user_id <= ?", afterUserId, userIds.get(userIds.size() - 1));
+            afterCommit(() -> userIds.forEach(cache::remove));
+        }
+        return userIds;
+    }
+
+    // A new broadcast changes the total for a whole audience; totals are rebuilt on next read
+    public void evictAll() {
+        afterCommit(cache::clear);
+    }
+
+    @Scheduled(fixedDelayString = "${notifications.unread-cache.purge-interval-ms:300000}")
+    public void purgeExpired() {
+        long now = System.currentTimeMillis();
+        cache.values().removeIf(entry -> entry.expiresAt <= now);
+    }
+
+    private void adjust(Long userId, long delta) {
+        Entry entry = cache.get(userId);
+        if (entry == null) {
+            // Not cached means nobody has asked for this badge lately; the next read loads it
+            return;
+        }
+        long count = entry.count.updateAndGet(current -> Math.max(current + delta, 0));
+        notificationPusher.sendUnread(userId, count);
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    private static final class Entry {
+        private final AtomicLong count;
+        private final long expiresAt;
+
+        Entry(long count, long expiresAt) {
+            this.count = new AtomicLong(count);
+            this.expiresAt = expiresAt;
+        }
+    }
+}
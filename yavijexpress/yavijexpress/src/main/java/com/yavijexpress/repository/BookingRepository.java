@@ -2,12 +2,15 @@ package com.yavijexpress.repository;
 
 import com.yavijexpress.entity.Booking;
 import com.yavijexpress.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -29,8 +32,46 @@ public interface BookingRepository extends JpaRepository<Booking, Long> {
     Long countCompletedBookingsByPassenger(@Param("passengerId") Long passengerId);
     
     Long countByStatus(Booking.BookingStatus status);
+
+    // Status changes are conditional so a lapsing hold and a driver/passenger action never both release seats
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'CONFIRMED', b.pickupOtp = :otp, b.holdExpiresAt = null " +
+           "WHERE b.id = :bookingId AND b.status = 'PENDING'")
+    int confirmPending(@Param("bookingId") Long bookingId, @Param("otp") String otp);
+
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'CANCELLED', b.cancelledAt = :now, b.holdExpiresAt = null " +
+           "WHERE b.id = :bookingId AND b.status IN :statuses")
+    int cancelIfStatusIn(@Param("bookingId") Long bookingId,
+                         @Param("statuses") Collection<Booking.BookingStatus> statuses,
+                         @Param("now") LocalDateTime now);
+
+    // Rows created before holds existed have no hold_expires_at and fall back to bookedAt + TTL
+    @Modifying
+    @Query("UPDATE Booking b SET b.status = 'CANCELLED', b.cancelledAt = :now, b.holdExpiresAt = null " +
+           "WHERE b.id = :bookingId AND b.status = 'PENDING' " +
+           "AND (b.holdExpiresAt <= :now OR (b.holdExpiresAt IS NULL AND b.bookedAt <= :legacyCutoff))")
+    int expireHold(@Param("bookingId") Long bookingId,
+                   @Param("now") LocalDateTime now,
+                   @Param("legacyCutoff") LocalDateTime legacyCutoff);
+
+    @Query("SELECT b.id AS id, b.holdExpiresAt AS holdExpiresAt, b.bookedAt AS bookedAt FROM Booking b " +
+           "WHERE b.status = 'PENDING' AND b.id > :afterId ORDER BY b.id ASC")
+    List<SeatHold> findPendingHoldsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    @Query("SELECT b.id FROM Booking b WHERE b.status = 'PENDING' " +
+           "AND (b.holdExpiresAt <= :now OR (b.holdExpiresAt IS NULL AND b.bookedAt <= :legacyCutoff))")
+    List<Long> findLapsedHoldIds(@Param("now") LocalDateTime now,
+                                 @Param("legacyCutoff") LocalDateTime legacyCutoff,
+                                 Pageable pageable);
     
     @Modifying
     @Transactional
     void deleteByPassenger(User passenger);
+
+    interface SeatHold {
+        Long getId();
+        LocalDateTime getHoldExpiresAt();
+        LocalDateTime getBookedAt();
+    }
 }
\ No newline at end of file
@@ -0,0 +1,36 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.BroadcastJob;
+import com.yavijexpress.entity.User;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface BroadcastJobRepository extends JpaRepository<BroadcastJob, Long> {
+
+    List<BroadcastJob> findAllByOrderByIdDesc(Pageable pageable);
+
+    // A queued job, or a running one whose worker stopped heart-beating, goes to whoever updates it first
+    @Modifying
+    @Query("UPDATE BroadcastJob b SET b.status = 'RUNNING', b.heartbeatAt = :now, " +
+           "b.startedAt = COALESCE(b.startedAt, :now) " +
+           "WHERE b.id = :id AND (b.status = 'QUEUED' OR (b.status = 'RUNNING' AND b.heartbeatAt < :staleBefore))")
+    int claim(@Param("id") Long id, @Param("now") LocalDateTime now, @Param("staleBefore") LocalDateTime staleBefore);
+
+    @Query("SELECT b.id FROM BroadcastJob b WHERE b.status = 'QUEUED' " +
+           "OR (b.status = 'RUNNING' AND b.heartbeatAt < :staleBefore)")
+    List<Long> findResumableIds(@Param("staleBefore") LocalDateTime staleBefore);
+
+    // Announcements a user can see: addressed to everyone or their role, sent after they joined and above their clear mark
+    @Query("SELECT b FROM BroadcastJob b WHERE (b.roleFilter IS NULL OR b.roleFilter = :role) " +
+           "AND b.createdAt >= :since AND b.id > :afterId ORDER BY b.id DESC")
+    List<BroadcastJob> findVisibleTo(@Param("role") User.UserRole role,
+                                     @Param("since") LocalDateTime since,
+                                     @Param("afterId") Long afterId);
+}
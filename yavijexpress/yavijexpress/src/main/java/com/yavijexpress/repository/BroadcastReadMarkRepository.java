@@ -0,0 +1,13 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.BroadcastReadMark;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface BroadcastReadMarkRepository extends JpaRepository<BroadcastReadMark, Long> {
+
+    @Modifying
+    void deleteByUserId(Long userId);
+}
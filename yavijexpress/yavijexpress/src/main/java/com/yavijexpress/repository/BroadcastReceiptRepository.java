@@ -0,0 +1,30 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.BroadcastReceipt;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.util.List;
+import java.util.Optional;
+
+@Repository
+public interface BroadcastReceiptRepository extends JpaRepository<BroadcastReceipt, Long> {
+
+    Optional<BroadcastReceipt> findByUserIdAndBroadcastId(Long userId, Long broadcastId);
+
+    List<BroadcastReceipt> findByUserIdAndBroadcastIdGreaterThan(Long userId, Long broadcastId);
+
+    // Receipts at or below a watermark are redundant once the watermark moves past them
+    @Modifying
+    @Query("DELETE FROM BroadcastReceipt r WHERE r.userId = :userId AND r.broadcastId <= :readUpTo AND r.dismissed = false")
+    int deleteCoveredByRead(@Param("userId") Long userId, @Param("readUpTo") Long readUpTo);
+
+    @Modifying
+    @Query("DELETE FROM BroadcastReceipt r WHERE r.userId = :userId AND r.broadcastId <= :clearedUpTo")
+    int deleteCoveredByCleared(@Param("userId") Long userId, @Param("clearedUpTo") Long clearedUpTo);
+
+    @Modifying
+    void deleteByUserId(Long userId);
+}
@@ -3,8 +3,10 @@ package com.yavijexpress.repository;
 import com.yavijexpress.entity.EmergencyAlert;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Repository
@@ -13,6 +15,28 @@ public interface EmergencyAlertRepository extends JpaRepository<EmergencyAlert,
     List<EmergencyAlert> findByUserId(Long userId);
     List<EmergencyAlert> findByStatus(EmergencyAlert.AlertStatus status);
     List<EmergencyAlert> findByTripIdAndStatus(Long tripId, EmergencyAlert.AlertStatus status);
+
+    @Query("SELECT a.id AS id, t.id AS tripId, a.userId AS userId, a.alertType AS alertType, a.message AS message, " +
+            "a.latitude AS latitude, a.longitude AS longitude, a.createdAt AS createdAt, " +
+            "t.fromLocation AS fromLocation, t.toLocation AS toLocation, d.name AS driverName, v.vehicleNumber AS vehicleNumber " +
+            "FROM EmergencyAlert a JOIN a.trip t JOIN t.driver d JOIN t.vehicle v WHERE a.status = :status ORDER BY a.id")
+    List<BoardRow> findBoardRows(EmergencyAlert.AlertStatus status);
+
+    // What the ops board shows for an alert, without loading the trip graph
+    interface BoardRow {
+        Long getId();
+        Long getTripId();
+        Long getUserId();
+        EmergencyAlert.AlertType getAlertType();
+        String getMessage();
+        Double getLatitude();
+        Double getLongitude();
+        LocalDateTime getCreatedAt();
+        String getFromLocation();
+        String getToLocation();
+        String getDriverName();
+        String getVehicleNumber();
+    }
     
     @Modifying
     @Transactional
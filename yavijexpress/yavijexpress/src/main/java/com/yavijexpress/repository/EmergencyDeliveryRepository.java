@@ -0,0 +1,43 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.EmergencyDelivery;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Repository
+public interface EmergencyDeliveryRepository extends JpaRepository<EmergencyDelivery, Long> {
+
+    List<EmergencyDelivery> findByAlertIdOrderByIdAsc(Long alertId);
+
+    // Takes the next attempt; fails if another thread or instance already did, or the delivery is settled
+    @Modifying
+    @Query("UPDATE EmergencyDelivery d SET d.attempts = d.attempts + 1, d.lastAttemptAt = :now " +
+           "WHERE d.id = :id AND d.status = 'PENDING' AND d.attempts = :attempts")
+    int claim(@Param("id") Long id, @Param("attempts") int attempts, @Param("now") LocalDateTime now);
+
+    // First outcome wins; a send that finishes after its timeout was recorded changes nothing
+    @Modifying
+    @Query("UPDATE EmergencyDelivery d SET d.status = :status, d.lastError = :error, d.completedAt = :now " +
+           "WHERE d.id = :id AND d.status = 'PENDING'")
+    int settle(@Param("id") Long id, @Param("status") EmergencyDelivery.Status status,
+               @Param("error") String error, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("UPDATE EmergencyDelivery d SET d.lastError = :error WHERE d.id = :id AND d.status = 'PENDING'")
+    int recordFailure(@Param("id") Long id, @Param("error") String error);
+
+    @Modifying
+    @Query(value = "DELETE d FROM emergency_deliveries d JOIN emergency_alerts a ON a.id = d.alert_id " +
+                   "WHERE a.user_id = :userId", nativeQuery = true)
+    int deleteByAlertUserId(@Param("userId") Long userId);
+
+    @Query("SELECT d FROM EmergencyDelivery d WHERE d.status = 'PENDING' " +
+           "AND (d.lastAttemptAt IS NULL OR d.lastAttemptAt < :before) ORDER BY d.id ASC")
+    List<EmergencyDelivery> findRetryable(@Param("before") LocalDateTime before, Pageable pageable);
+}
@@ -0,0 +1,35 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.JobLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+
+@Repository
+public interface JobLeaseRepository extends JpaRepository<JobLease, String> {
+
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO job_leases (job_name, leased_until) VALUES (:jobName, :epoch)", nativeQuery = true)
+    int createIfMissing(@Param("jobName") String jobName, @Param("epoch") LocalDateTime epoch);
+
+    // Takes the lease only if it has lapsed (or is already ours); the row count says who won
+    @Modifying
+    @Query("UPDATE JobLease l SET l.owner = :owner, l.leasedUntil = :until, l.lastStartedAt = :now " +
+           "WHERE l.jobName = :jobName AND (l.leasedUntil < :now OR l.owner = :owner)")
+    int tryAcquire(@Param("jobName") String jobName,
+                   @Param("owner") String owner,
+                   @Param("now") LocalDateTime now,
+                   @Param("until") LocalDateTime until);
+
+    // Keeps the lease until the next run is due, so N instances together still run the job once per interval
+    @Modifying
+    @Query("UPDATE JobLease l SET l.leasedUntil = :nextRunAt, l.lastFinishedAt = :now " +
+           "WHERE l.jobName = :jobName AND l.owner = :owner")
+    int release(@Param("jobName") String jobName,
+                @Param("owner") String owner,
+                @Param("now") LocalDateTime now,
+                @Param("nextRunAt") LocalDateTime nextRunAt);
+}
@@ -4,10 +4,11 @@ import com.yavijexpress.entity.LiveLocation;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface LiveLocationRepository extends JpaRepository<LiveLocation, Long> {
     List<LiveLocation> findByTripId(Long tripId);
-    List<LiveLocation> findByTripIdOrderByUpdatedAtDesc(Long tripId);
+    Optional<LiveLocation> findFirstByTripIdOrderByUpdatedAtDesc(Long tripId);
     List<LiveLocation> findByUserId(Long userId);
 }
\ No newline at end of file
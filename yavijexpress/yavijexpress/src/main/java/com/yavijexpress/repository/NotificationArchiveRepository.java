@@ -0,0 +1,36 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.NotificationArchive;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationArchiveRepository extends JpaRepository<NotificationArchive, Long> {
+
+    // Copies rows server-side, compressing the TEXT columns on the way; IGNORE makes a retried chunk harmless
+    @Modifying
+    @Query(value = "INSERT IGNORE INTO notification_archive " +
+                   "(id, user_id, type, title, body, related_entity_type, related_entity_id, created_at, archived_at) " +
+                   "SELECT n.id, n.user_id, n.type, n.title, " +
+                   "COMPRESS(JSON_OBJECT('message', n.message, 'actions', n.actions)), " +
+                   "n.related_entity_type, n.related_entity_id, n.created_at, :now " +
+                   "FROM notifications n WHERE n.id IN (:ids)", nativeQuery = true)
+    int archive(@Param("ids") Collection<Long> ids, @Param("now") LocalDateTime now);
+
+    @Query("SELECT a.id FROM NotificationArchive a WHERE a.archivedAt < :cutoff ORDER BY a.archivedAt ASC")
+    List<Long> findExpiredIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM NotificationArchive a WHERE a.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    @Modifying
+    void deleteByUserId(Long userId);
+}
@@ -0,0 +1,34 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.NotificationOutbox;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface NotificationOutboxRepository extends JpaRepository<NotificationOutbox, Long> {
+
+    @Query("SELECT o.id FROM NotificationOutbox o WHERE o.status = 'PENDING' AND o.nextAttemptAt <= :now " +
+           "ORDER BY o.nextAttemptAt ASC")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claim-by-update: concurrent workers only get the rows their own token landed on
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PROCESSING', o.claimToken = :token, o.claimedAt = :now " +
+           "WHERE o.id IN :ids AND o.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Rows left PROCESSING by a worker that died mid-batch
+    @Modifying
+    @Query("UPDATE NotificationOutbox o SET o.status = 'PENDING', o.claimToken = null " +
+           "WHERE o.status = 'PROCESSING' AND o.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    Long countByStatus(NotificationOutbox.Status status);
+}
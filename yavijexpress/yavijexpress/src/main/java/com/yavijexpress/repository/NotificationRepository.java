@@ -3,18 +3,73 @@ package com.yavijexpress.repository;
 import com.yavijexpress.entity.Notification;
 import com.yavijexpress.entity.User;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
 public interface NotificationRepository extends JpaRepository<Notification, Long> {
     List<Notification> findByUserIdOrderByCreatedAtDesc(Long userId);
-    List<Notification> findByUserIdAndIsReadFalse(Long userId);
     Long countByUserIdAndIsReadFalse(Long userId);
+
+    // One inbox page in (createdAt DESC, id DESC) order, walking idx_notifications_user_created (V2 migration).
+    // The index finds and orders the page; title and message still come from the row, so it is not covering
+    @Query("SELECT n.id AS id, n.title AS title, n.message AS message, n.type AS type, n.isRead AS isRead, " +
+           "n.relatedEntityType AS relatedEntityType, n.relatedEntityId AS relatedEntityId, " +
+           "n.actions AS actions, n.createdAt AS createdAt " +
+           "FROM Notification n WHERE n.user.id = :userId " +
+           "AND (n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<InboxRow> findInboxPage(@Param("userId") Long userId,
+                                 @Param("createdAt") LocalDateTime createdAt,
+                                 @Param("id") Long id,
+                                 Pageable pageable);
     
+    // Read rows of one type past their TTL, oldest first, through idx_notifications_retention
+    @Query("SELECT n.id FROM Notification n WHERE n.type = :type AND n.isRead = true AND n.createdAt < :cutoff " +
+           "ORDER BY n.createdAt ASC")
+    List<Long> findArchivableIds(@Param("type") Notification.NotificationType type,
+                                 @Param("cutoff") LocalDateTime cutoff,
+                                 Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM Notification n WHERE n.id IN :ids")
+    int deleteByIds(@Param("ids") Collection<Long> ids);
+
+    // Conditional, so of two concurrent reads of the same row only one sees 1 and moves the unread badge
+    @Modifying
+    @Query("UPDATE Notification n SET n.isRead = true WHERE n.id = :id AND n.user.id = :userId AND n.isRead = false")
+    int markRead(@Param("id") Long id, @Param("userId") Long userId);
+
+    // Set-based bulk operations, bounded by LIMIT so a huge inbox is worked through in several short transactions
+    @Modifying
+    @Query(value = "UPDATE notifications SET is_read = true WHERE user_id = :userId AND is_read = false LIMIT :limit", nativeQuery = true)
+    int markReadChunk(@Param("userId") Long userId, @Param("limit") int limit);
+
+    @Modifying
+    @Query(value = "DELETE FROM notifications WHERE user_id = :userId LIMIT :limit", nativeQuery = true)
+    int deleteChunk(@Param("userId") Long userId, @Param("limit") int limit);
+
     @Modifying
     @Transactional
     void deleteByUser(User user);
-}
\ No newline at end of file
+
+    // Just the columns the inbox returns; the owning User is never loaded
+    interface InboxRow {
+        Long getId();
+        String getTitle();
+        String getMessage();
+        Notification.NotificationType getType();
+        Boolean getIsRead();
+        String getRelatedEntityType();
+        Long getRelatedEntityId();
+        String getActions();
+        LocalDateTime getCreatedAt();
+    }
+}
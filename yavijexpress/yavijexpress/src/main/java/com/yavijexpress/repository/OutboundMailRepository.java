@@ -0,0 +1,48 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.OutboundMail;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+
+@Repository
+public interface OutboundMailRepository extends JpaRepository<OutboundMail, Long> {
+
+    @Query("SELECT m.id FROM OutboundMail m WHERE m.status = 'PENDING' AND m.nextAttemptAt <= :now " +
+           "ORDER BY m.nextAttemptAt ASC")
+    List<Long> findDueIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    // Claim-by-update, as for the notification outbox
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.status = 'PROCESSING', m.claimToken = :token, m.claimedAt = :now " +
+           "WHERE m.id IN :ids AND m.status = 'PENDING'")
+    int claim(@Param("ids") Collection<Long> ids, @Param("token") String token, @Param("now") LocalDateTime now);
+
+    // Hands a claimed row back without counting an attempt
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.status = 'PENDING', m.claimToken = null, m.nextAttemptAt = :at " +
+           "WHERE m.id = :id AND m.status = 'PROCESSING'")
+    int defer(@Param("id") Long id, @Param("at") LocalDateTime at);
+
+    // Keeps a batch that is still being worked on from looking stale
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.claimedAt = :now WHERE m.claimToken = :token AND m.status = 'PROCESSING'")
+    int refreshClaim(@Param("token") String token, @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM OutboundMail m WHERE m.id = :id AND m.claimToken = :token")
+    int deleteClaimed(@Param("id") Long id, @Param("token") String token);
+
+    @Modifying
+    @Query("UPDATE OutboundMail m SET m.status = 'PENDING', m.claimToken = null " +
+           "WHERE m.status = 'PROCESSING' AND m.claimedAt < :cutoff")
+    int releaseStaleClaims(@Param("cutoff") LocalDateTime cutoff);
+
+    Long countByStatus(OutboundMail.Status status);
+}
@@ -1,8 +1,15 @@
 package com.yavijexpress.repository;
 
 import com.yavijexpress.entity.Payment;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @Repository
@@ -10,4 +17,13 @@ public interface PaymentRepository extends JpaRepository<Payment, Long> {
     Optional<Payment> findByTransactionId(String transactionId);
     Optional<Payment> findByRazorpayOrderId(String razorpayOrderId);
     Optional<Payment> findByBookingId(Long bookingId);
+
+    @Query("SELECT p.id FROM Payment p WHERE p.status = 'PENDING' AND p.createdAt < :cutoff ORDER BY p.createdAt ASC")
+    List<Long> findStalePendingPaymentIds(@Param("cutoff") LocalDateTime cutoff, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Payment p SET p.status = 'FAILED', " +
+           "p.notes = CONCAT(COALESCE(CONCAT(p.notes, ' | '), ''), :note) " +
+           "WHERE p.id IN :ids AND p.status = 'PENDING'")
+    int failPendingPayments(@Param("ids") Collection<Long> ids, @Param("note") String note);
 }
\ No newline at end of file
@@ -2,6 +2,7 @@ package com.yavijexpress.repository;
 
 import com.yavijexpress.entity.Trip;
 import com.yavijexpress.entity.User;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
@@ -9,6 +10,7 @@ import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 
 @Repository
@@ -17,11 +19,101 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
     List<Trip> findByDriverId(Long driverId);
     List<Trip> findByStatus(Trip.TripStatus status);
 
-    @Query("SELECT t FROM Trip t WHERE t.isActive = true ORDER BY t.departureTime ASC")
+    // Keyset page over scheduled trips, used only while the search index warms up; location patterns come from
+    // LocationTokenizer.likePattern so they match exactly what the index would. Those patterns start with '%',
+    // so no location index can serve them: the page walks idx_trips_status_departure in keyset order and
+    // filters locations row by row, which is acceptable for a fallback that only runs during warm-up
+    @Query("SELECT t FROM Trip t JOIN FETCH t.driver JOIN FETCH t.vehicle " +
+           "WHERE t.isActive = true AND t.status = 'SCHEDULED' " +
+           "AND t.departureTime >= :startTime AND t.departureTime < :endTime " +
+           "AND (:from IS NULL OR t.fromLocation LIKE :from) " +
+           "AND (:to IS NULL OR t.toLocation LIKE :to) " +
+           "AND t.availableSeats >= :seats " +
+           "AND (:maxPrice IS NULL OR t.pricePerSeat <= :maxPrice) " +
+           "AND (t.departureTime > :afterTime OR (t.departureTime = :afterTime AND t.id > :afterId)) " +
+           "ORDER BY t.departureTime ASC, t.id ASC")
     List<Trip> searchTrips(@Param("from") String from,
                            @Param("to") String to,
-                           @Param("startDate") LocalDateTime startDate,
-                           @Param("seats") Integer seats);
+                           @Param("startTime") LocalDateTime startTime,
+                           @Param("endTime") LocalDateTime endTime,
+                           @Param("seats") Integer seats,
+                           @Param("maxPrice") Double maxPrice,
+                           @Param("afterTime") LocalDateTime afterTime,
+                           @Param("afterId") Long afterId,
+                           Pageable pageable);
+
+    // Coordinate variant of searchTrips for the warm-up window: without routes it can only match trips whose
+    // origin (and destination, when a drop box is given) lies inside the boxes around the pickup/drop points
+    @Query("SELECT t FROM Trip t JOIN FETCH t.driver JOIN FETCH t.vehicle " +
+           "WHERE t.isActive = true AND t.status = 'SCHEDULED' " +
+           "AND t.departureTime >= :startTime AND t.departureTime < :endTime " +
+           "AND t.originLatitude BETWEEN :minLat AND :maxLat " +
+           "AND t.originLongitude BETWEEN :minLng AND :maxLng " +
+           "AND (:dropMinLat IS NULL OR (t.destinationLatitude BETWEEN :dropMinLat AND :dropMaxLat " +
+           "AND t.destinationLongitude BETWEEN :dropMinLng AND :dropMaxLng)) " +
+           "AND (:from IS NULL OR t.fromLocation LIKE :from) " +
+           "AND (:to IS NULL OR t.toLocation LIKE :to) " +
+           "AND t.availableSeats >= :seats " +
+           "AND (:maxPrice IS NULL OR t.pricePerSeat <= :maxPrice) " +
+           "AND (t.departureTime > :afterTime OR (t.departureTime = :afterTime AND t.id > :afterId)) " +
+           "ORDER BY t.departureTime ASC, t.id ASC")
+    List<Trip> searchTripsNear(@Param("minLat") Double minLat,
+                               @Param("maxLat") Double maxLat,
+                               @Param("minLng") Double minLng,
+                               @Param("maxLng") Double maxLng,
+                               @Param("dropMinLat") Double dropMinLat,
+                               @Param("dropMaxLat") Double dropMaxLat,
+                               @Param("dropMinLng") Double dropMinLng,
+                               @Param("dropMaxLng") Double dropMaxLng,
+                               @Param("from") String from,
+                               @Param("to") String to,
+                               @Param("startTime") LocalDateTime startTime,
+                               @Param("endTime") LocalDateTime endTime,
+                               @Param("seats") Integer seats,
+                               @Param("maxPrice") Double maxPrice,
+                               @Param("afterTime") LocalDateTime afterTime,
+                               @Param("afterId") Long afterId,
+                               Pageable pageable);
+
+    @Query("SELECT t FROM Trip t JOIN FETCH t.driver JOIN FETCH t.vehicle " +
+           "WHERE t.status = 'SCHEDULED' AND t.isActive = true AND t.id > :afterId ORDER BY t.id ASC")
+    List<Trip> findScheduledTripsAfter(@Param("afterId") Long afterId, Pageable pageable);
+
+    // Seat counters are only ever changed by these conditional updates so concurrent bookings cannot oversell
+    @Modifying
+    @Query("UPDATE Trip t SET t.availableSeats = t.availableSeats - :seats " +
+           "WHERE t.id = :tripId AND t.availableSeats >= :seats")
+    int reserveSeats(@Param("tripId") Long tripId, @Param("seats") int seats);
+
+    @Modifying
+    @Query("UPDATE Trip t SET t.availableSeats = CASE WHEN t.availableSeats + :seats > t.totalSeats " +
+           "THEN t.totalSeats ELSE t.availableSeats + :seats END WHERE t.id = :tripId")
+    int releaseSeats(@Param("tripId") Long tripId, @Param("seats") int seats);
+
+    // Fails (returns 0) when the new total would drop below the seats already booked
+    @Modifying
+    @Query("UPDATE Trip t SET t.availableSeats = t.availableSeats + (:totalSeats - t.totalSeats), " +
+           "t.totalSeats = :totalSeats " +
+           "WHERE t.id = :tripId AND t.availableSeats + (:totalSeats - t.totalSeats) >= 0")
+    int resizeSeats(@Param("tripId") Long tripId, @Param("totalSeats") int totalSeats);
+
+    @Query("SELECT t.availableSeats FROM Trip t WHERE t.id = :tripId")
+    Integer findAvailableSeats(@Param("tripId") Long tripId);
+
+    // Status sweep candidates, served by idx_trips_status_departure_sweep / idx_trips_status_arrival; departures
+    // include inactive trips, so the (status, is_active, ...) search index would only be used for its status prefix
+    @Query("SELECT t.id FROM Trip t WHERE t.status = 'SCHEDULED' AND t.departureTime < :now ORDER BY t.departureTime ASC")
+    List<Long> findDepartedTripIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Query("SELECT t.id FROM Trip t WHERE t.status = 'ONGOING' AND t.expectedArrivalTime < :now ORDER BY t.expectedArrivalTime ASC")
+    List<Long> findArrivedTripIds(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Trip t SET t.status = :to, t.updatedAt = :now WHERE t.id IN :ids AND t.status = :from")
+    int transitionStatus(@Param("ids") Collection<Long> ids,
+                         @Param("from") Trip.TripStatus from,
+                         @Param("to") Trip.TripStatus to,
+                         @Param("now") LocalDateTime now);
 
     @Query("SELECT t FROM Trip t WHERE t.driver.id = :driverId AND t.status IN ('SCHEDULED', 'ONGOING')")
     List<Trip> findActiveTripsByDriver(@Param("driverId") Long driverId);
@@ -29,6 +121,14 @@ public interface TripRepository extends JpaRepository<Trip, Long> {
     @Query("SELECT COUNT(t) FROM Trip t WHERE t.driver.id = :driverId AND t.status = 'COMPLETED'")
     Long countCompletedTripsByDriver(@Param("driverId") Long driverId);
 
+    // The driver, or a passenger holding a confirmed booking
+    @Query("SELECT COUNT(t) > 0 FROM Trip t WHERE t.id = :tripId AND (t.driver.id = :userId OR EXISTS " +
+            "(SELECT b.id FROM Booking b WHERE b.trip = t AND b.passenger.id = :userId AND b.status = 'CONFIRMED'))")
+    boolean isParticipant(@Param("tripId") Long tripId, @Param("userId") Long userId);
+
+    @Query("SELECT COUNT(t) > 0 FROM Trip t WHERE t.id = :tripId AND t.driver.id = :userId")
+    boolean isDriver(@Param("tripId") Long tripId, @Param("userId") Long userId);
+
     List<Trip> findByDepartureTimeBetween(LocalDateTime start, LocalDateTime end);
     
     @Query("SELECT t FROM Trip t WHERE t.isActive = true ORDER BY t.departureTime ASC")
@@ -0,0 +1,9 @@
+package com.yavijexpress.repository;
+
+import com.yavijexpress.entity.TripTrajectory;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+@Repository
+public interface TripTrajectoryRepository extends JpaRepository<TripTrajectory, Long> {
+}
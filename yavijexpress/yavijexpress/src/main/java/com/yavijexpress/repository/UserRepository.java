@@ -24,4 +24,16 @@ public interface UserRepository extends JpaRepository<User, Long> {
     Long countByRole(User.UserRole role);
     
     Long countByRoleAndIsActive(User.UserRole role, Boolean isActive);
+
+    @Query("SELECT u.id AS id, u.name AS name, u.email AS email, u.mobile AS mobile FROM User u " +
+            "WHERE u.role = :role AND u.isActive = true ORDER BY u.id")
+    List<ContactRow> findActiveByRole(User.UserRole role);
+
+    // Just the contact columns, for the responder roster
+    interface ContactRow {
+        Long getId();
+        String getName();
+        String getEmail();
+        String getMobile();
+    }
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.yavijexpress.repository;
 
 import com.yavijexpress.entity.Vehicle;
+import org.springframework.data.domain.Pageable;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 
@@ -12,4 +18,13 @@ public interface VehicleRepository extends JpaRepository<Vehicle, Long> {
     List<Vehicle> findByUserId(Long userId);
     List<Vehicle> findByUserIdAndIsActiveTrue(Long userId);
     Boolean existsByVehicleNumber(String vehicleNumber);
+
+    // Vehicles whose pending insurance reminder has fallen due; sent and retired ones have no due date
+    @Query("SELECT v FROM Vehicle v JOIN FETCH v.user WHERE v.insuranceReminderDueAt <= :now " +
+           "ORDER BY v.insuranceReminderDueAt ASC")
+    List<Vehicle> findVehiclesDueInsuranceReminder(@Param("now") LocalDateTime now, Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Vehicle v SET v.insuranceReminderFor = v.insuranceExpiry, v.insuranceReminderDueAt = NULL WHERE v.id IN :ids")
+    int markInsuranceReminded(@Param("ids") Collection<Long> ids);
 }
\ No newline at end of file
@@ -0,0 +1,78 @@
+package com.yavijexpress.search;
+
+import java.text.Normalizer;
+import java.util.LinkedHashSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Normalizes free-text locations and splits them into the trigram keys used by {@link TripSearchIndex}.
+ */
+public final class LocationTokenizer {
+
+    static final int GRAM_SIZE = 3;
+
+    private LocationTokenizer() {
+    }
+
+    // "Navi  Mumbai (W)" -> "navi mumbai w"
+    public static String normalize(String location) {
+        if (location == null) {
+            return "";
+        }
+        String folded = Normalizer.normalize(location, Normalizer.Form.NFD)
+                .replaceAll("\\p{M}", "")
+                .toLowerCase(Locale.ROOT);
+        return folded.replaceAll("[^\\p{Alnum}]+", " ").trim();
+    }
+
+    public static String[] tokens(String normalized) {
+        return normalized.isEmpty() ? new String[0] : normalized.split(" ");
+    }
+
+    // Every trigram of every token; tokens shorter than a gram are kept whole
+    public static Set<String> grams(String normalized) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokens(normalized)) {
+            if (token.length() < GRAM_SIZE) {
+                grams.add(token);
+                continue;
+            }
+            for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+                grams.add(token.substring(i, i + GRAM_SIZE));
+            }
+        }
+        return grams;
+    }
+
+    // Grams a stored location must contain for a substring match on the query; short query tokens are skipped
+    public static Set<String> queryGrams(String normalizedQuery) {
+        Set<String> grams = new LinkedHashSet<>();
+        for (String token : tokens(normalizedQuery)) {
+            for (int i = 0; i + GRAM_SIZE <= token.length(); i++) {
+                grams.add(token.substring(i, i + GRAM_SIZE));
+            }
+        }
+        return grams;
+    }
+
+    // Every query token occurs in the location, in query order: "navi mum" matches "navi mumbai w"
+    public static boolean matches(String normalizedLocation, String normalizedQuery) {
+        int from = 0;
+        for (String token : tokens(normalizedQuery)) {
+            int at = normalizedLocation.indexOf(token, from);
+            if (at < 0) {
+                return false;
+            }
+            from = at + token.length();
+        }
+        return true;
+    }
+
+    // The same match as a LIKE pattern ("%navi%mum%") for the DB fallback, whose collation folds case and
+    // accents; normalized tokens are plain letters and digits, so nothing needs escaping
+    public static String likePattern(String location) {
+        String[] tokens = tokens(normalize(location));
+        return tokens.length == 0 ? null : "%" + String.join("%", tokens) + "%";
+    }
+}
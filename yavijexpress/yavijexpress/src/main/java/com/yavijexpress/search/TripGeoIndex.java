@@ -0,0 +1,150 @@
+package com.yavijexpress.search;
+
+import com.yavijexpress.utils.PolylineCodec;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Geohash grid over trip routes. A trip's route is its origin, the decoded route polyline and its
+ * destination, densified so consecutive points are never more than {@link #MAX_STEP_KM} apart; every
+ * cell a route point falls into maps back to the trip. Queries look at the 3x3 block of cells around
+ * a point, so the search radius is capped at roughly one cell.
+ *
+ * Not thread-safe for writers on its own; {@link TripSearchIndex} serializes all updates.
+ */
+class TripGeoIndex {
+
+    static final int PRECISION = 5; // ~4.9 km cells
+    static final double MAX_RADIUS_KM = 4.0;
+    static final double DEFAULT_RADIUS_KM = 2.0;
+    private static final double MAX_STEP_KM = 1.0;
+
+    private final Map<String, Set<Long>> cells = new ConcurrentHashMap<>();
+    private final Map<Long, Route> routes = new ConcurrentHashMap<>();
+
+    void put(Long tripId, Double originLat, Double originLng, String routePolyline,
+             Double destinationLat, Double destinationLng) {
+        remove(tripId);
+
+        List<double[]> waypoints = new ArrayList<>();
+        if (originLat != null && originLng != null) {
+            waypoints.add(new double[]{originLat, originLng});
+        }
+        waypoints.addAll(PolylineCodec.decode(routePolyline));
+        if (destinationLat != null && destinationLng != null) {
+            waypoints.add(new double[]{destinationLat, destinationLng});
+        }
+        if (waypoints.isEmpty()) {
+            return;
+        }
+
+        Route route = new Route(densify(waypoints));
+        routes.put(tripId, route);
+        for (String cell : route.cells) {
+            cells.computeIfAbsent(cell, k -> ConcurrentHashMap.newKeySet()).add(tripId);
+        }
+    }
+
+    void remove(Long tripId) {
+        Route previous = routes.remove(tripId);
+        if (previous == null) {
+            return;
+        }
+        for (String cell : previous.cells) {
+            cells.computeIfPresent(cell, (k, ids) -> {
+                ids.remove(tripId);
+                return ids.isEmpty() ? null : ids;
+            });
+        }
+    }
+
+    /**
+     * Trips whose route passes within radius of the pickup point and, when a drop point is given,
+     * later passes within radius of the drop point too.
+     */
+    Set<Long> match(double pickupLat, double pickupLng, Double dropLat, Double dropLng, double radiusKm) {
+        Set<Long> candidates = tripsNear(pickupLat, pickupLng);
+        if (dropLat != null && dropLng != null && !candidates.isEmpty()) {
+            candidates.retainAll(tripsNear(dropLat, dropLng));
+        }
+
+        Set<Long> matches = new HashSet<>();
+        for (Long tripId : candidates) {
+            Route route = routes.get(tripId);
+            if (route == null) {
+                continue;
+            }
+            int pickupIndex = route.firstPointWithin(pickupLat, pickupLng, radiusKm, 0);
+            if (pickupIndex < 0) {
+                continue;
+            }
+            if (dropLat == null || dropLng == null
+                    || route.firstPointWithin(dropLat, dropLng, radiusKm, pickupIndex) >= 0) {
+                matches.add(tripId);
+            }
+        }
+        return matches;
+    }
+
+    private Set<Long> tripsNear(double lat, double lng) {
+        Set<Long> ids = new HashSet<>();
+        for (String cell : GeoHash.cellWithNeighbours(lat, lng, PRECISION)) {
+            Set<Long> inCell = cells.get(cell);
+            if (inCell != null) {
+                ids.addAll(inCell);
+            }
+        }
+        return ids;
+    }
+
+    private static List<double[]> densify(List<double[]> waypoints) {
+        List<double[]> points = new ArrayList<>();
+        points.add(waypoints.get(0));
+        for (int i = 1; i < waypoints.size(); i++) {
+            double[] from = waypoints.get(i - 1);
+            double[] to = waypoints.get(i);
+            double distance = GeoHash.distanceKm(from[0], from[1], to[0], to[1]);
+            int steps = (int) Math.ceil(distance / MAX_STEP_KM);
+            for (int step = 1; step < steps; step++) {
+                double fraction = (double) step / steps;
+                points.add(new double[]{
+                        from[0] + (to[0] - from[0]) * fraction,
+                        from[1] + (to[1] - from[1]) * fraction
+                });
+            }
+            points.add(to);
+        }
+        return points;
+    }
+
+    private static final class Route {
+        private final double[] latitudes;
+        private final double[] longitudes;
+        private final Set<String> cells = new LinkedHashSet<>();
+
+        Route(List<double[]> points) {
+            latitudes = new double[points.size()];
+            longitudes = new double[points.size()];
+            for (int i = 0; i < points.size(); i++) {
+                latitudes[i] = points.get(i)[0];
+                longitudes[i] = points.get(i)[1];
+                cells.add(GeoHash.encode(latitudes[i], longitudes[i], PRECISION));
+            }
+        }
+
+        int firstPointWithin(double lat, double lng, double radiusKm, int fromIndex) {
+            for (int i = fromIndex; i < latitudes.length; i++) {
+                if (GeoHash.distanceKm(lat, lng, latitudes[i], longitudes[i]) <= radiusKm) {
+                    return i;
+                }
+            }
+            return -1;
+        }
+    }
+}
@@ -0,0 +1,380 @@
+package com.yavijexpress.search;
+
+import com.yavijexpress.dto.TripDTO;
+import com.yavijexpress.utils.SearchCursor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableSet;
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+/**
+ * In-process inverted index over SCHEDULED trips.
+ *
+ * Each from/to location is normalized and split into trigrams; every gram owns a posting list of
+ * trip keys sorted by (departureTime, id), so a search walks the smallest matching posting list in
+ * departure order and stops as soon as a page is full. Trips with coordinates or a route polyline are
+ * also kept in a {@link TripGeoIndex} so pickup/drop points can be matched along the route.
+ * Writers must call in after their DB change; updates issued inside a transaction are applied only
+ * once it commits.
+ *
+ * A location query matches when each of its tokens occurs in the location in order (see
+ * {@link LocationTokenizer#matches}), the same rule the DB fallback applies through LIKE. Changes made
+ * through another instance, or after-commit updates applied out of order, are repaired by a periodic
+ * reconcile against the table: {@link #beginReconcile()}, {@link #reconcile} per scheduled trip, then
+ * {@link #finishReconcile}.
+ */
+@Component
+public class TripSearchIndex {
+
+    private static final Logger log = LoggerFactory.getLogger(TripSearchIndex.class);
+
+    private static final String FROM_PREFIX = "f:";
+    private static final String TO_PREFIX = "t:";
+
+    private final Map<Long, IndexedTrip> trips = new ConcurrentHashMap<>();
+    private final Map<String, NavigableSet<TripKey>> postings = new ConcurrentHashMap<>();
+    private final NavigableSet<TripKey> allTrips = new ConcurrentSkipListSet<>();
+    private final TripGeoIndex geoIndex = new TripGeoIndex();
+    // Trip id -> System.nanoTime() of its removal, so a reconcile that read the table before the removal does not re-add it
+    private final Map<Long, Long> recentlyRemoved = new ConcurrentHashMap<>();
+    private volatile boolean ready = false;
+
+    public boolean isReady() {
+        return ready;
+    }
+
+    public void markReady() {
+        ready = true;
+        log.info("Trip search index ready with {} scheduled trips and {} grams", trips.size(), postings.size());
+    }
+
+    public int size() {
+        return trips.size();
+    }
+
+    // Adds or replaces a trip; the response snapshot is what search hands back, so it must be fully populated
+    public void upsert(TripDTO.TripResponse trip, String routePolyline) {
+        afterCommit(() -> doUpsert(trip, routePolyline));
+    }
+
+    public long beginReconcile() {
+        return System.nanoTime();
+    }
+
+    // Applies immediately, outside any transaction, unless the trip changed here after the reconcile started
+    public synchronized void reconcile(TripDTO.TripResponse trip, String routePolyline, long startedAt) {
+        IndexedTrip current = trips.get(trip.getId());
+        Long removedAt = recentlyRemoved.get(trip.getId());
+        if ((current != null && current.indexedAt - startedAt > 0) || (removedAt != null && removedAt - startedAt > 0)) {
+            return;
+        }
+        doUpsert(trip, routePolyline);
+    }
+
+    // Drops trips the reconcile did not see, unless they were indexed after it started
+    public synchronized void finishReconcile(Set<Long> seenIds, long startedAt) {
+        recentlyRemoved.values().removeIf(removedAt -> removedAt - startedAt < 0);
+        List<Long> stale = trips.values().stream()
+                .filter(trip -> !seenIds.contains(trip.key.id) && trip.indexedAt - startedAt < 0)
+                .map(trip -> trip.key.id)
+                .toList();
+        stale.forEach(this::doRemove);
+        if (!stale.isEmpty()) {
+            log.info("Search index reconcile dropped {} trips that are no longer scheduled", stale.size());
+        }
+    }
+
+    public void remove(Long tripId) {
+        afterCommit(() -> doRemove(tripId));
+    }
+
+    public void removeAll(Collection<Long> tripIds) {
+        List<Long> ids = new ArrayList<>(tripIds);
+        afterCommit(() -> ids.forEach(this::doRemove));
+    }
+
+    public void removeByDriver(Long driverId) {
+        afterCommit(() -> trips.values().stream()
+                .filter(trip -> driverId.equals(trip.response.getDriverId()))
+                .map(trip -> trip.key.id)
+                .toList()
+                .forEach(this::doRemove));
+    }
+
+    public void updateAvailableSeats(Long tripId, int availableSeats) {
+        afterCommit(() -> doUpdateSeats(tripId, availableSeats));
+    }
+
+    public List<TripDTO.TripResponse> search(TripDTO.TripSearchRequest request,
+                                             LocalDateTime startTime, LocalDateTime endTime,
+                                             int requiredSeats, Double maxPrice,
+                                             SearchCursor after, int limit) {
+        // With a pickup point, candidates come from the geo grid instead of the postings; text filters still apply
+        boolean geoSearch = isGeoSearch(request);
+        String from = LocationTokenizer.normalize(request.getFromLocation());
+        String to = LocationTokenizer.normalize(request.getToLocation());
+
+        NavigableSet<TripKey> candidates = geoSearch ? nearbyTrips(request) : smallestPosting(from, to);
+        TripKey start = after != null
+                ? new TripKey(after.getTime(), after.getId())
+                : new TripKey(startTime, Long.MIN_VALUE);
+
+        List<TripDTO.TripResponse> results = new ArrayList<>(limit);
+        for (TripKey key : candidates.tailSet(start, false)) {
+            if (!key.departureTime.isBefore(endTime)) {
+                break;
+            }
+            IndexedTrip trip = trips.get(key.id);
+            if (trip == null || !trip.key.equals(key) || key.departureTime.isBefore(startTime)) {
+                continue;
+            }
+            if (!LocationTokenizer.matches(trip.from, from)) continue;
+            if (!LocationTokenizer.matches(trip.to, to)) continue;
+            if (trip.availableSeats < requiredSeats) continue;
+            if (maxPrice != null && trip.pricePerSeat > maxPrice) continue;
+
+            results.add(trip.response);
+            if (results.size() >= limit) {
+                break;
+            }
+        }
+        return results;
+    }
+
+    public static boolean isGeoSearch(TripDTO.TripSearchRequest request) {
+        return request.getOriginLatitude() != null && request.getOriginLongitude() != null;
+    }
+
+    public static double radiusKm(TripDTO.TripSearchRequest request) {
+        return request.getRadiusKm() != null
+                ? Math.min(request.getRadiusKm(), TripGeoIndex.MAX_RADIUS_KM)
+                : TripGeoIndex.DEFAULT_RADIUS_KM;
+    }
+
+    private NavigableSet<TripKey> nearbyTrips(TripDTO.TripSearchRequest request) {
+        Set<Long> tripIds = geoIndex.match(
+                request.getOriginLatitude(), request.getOriginLongitude(),
+                request.getDestinationLatitude(), request.getDestinationLongitude(),
+                radiusKm(request));
+
+        NavigableSet<TripKey> keys = new TreeSet<>();
+        for (Long tripId : tripIds) {
+            IndexedTrip trip = trips.get(tripId);
+            if (trip != null) {
+                keys.add(trip.key);
+            }
+        }
+        return keys;
+    }
+
+    private NavigableSet<TripKey> smallestPosting(String from, String to) {
+        NavigableSet<TripKey> smallest = allTrips;
+        int smallestSize = Integer.MAX_VALUE;
+        for (String gram : LocationTokenizer.queryGrams(from)) {
+            NavigableSet<TripKey> posting = postings.get(FROM_PREFIX + gram);
+            if (posting == null) {
+                return new ConcurrentSkipListSet<>();
+            }
+            int size = posting.size();
+            if (size < smallestSize) {
+                smallest = posting;
+                smallestSize = size;
+            }
+        }
+        for (String gram : LocationTokenizer.queryGrams(to)) {
+            NavigableSet<TripKey> posting = postings.get(TO_PREFIX + gram);
+            if (posting == null) {
+                return new ConcurrentSkipListSet<>();
+            }
+            int size = posting.size();
+            if (size < smallestSize) {
+                smallest = posting;
+                smallestSize = size;
+            }
+        }
+        return smallest;
+    }
+
+    // Writers are serialized so posting lists are never dropped while another writer is filling them
+    private synchronized void doUpsert(TripDTO.TripResponse response, String routePolyline) {
+        if (!"SCHEDULED".equals(response.getStatus()) || !Boolean.TRUE.equals(response.getIsActive())) {
+            doRemove(response.getId());
+            return;
+        }
+        IndexedTrip trip = new IndexedTrip(response);
+        IndexedTrip previous = trips.put(trip.key.id, trip);
+        if (previous != null) {
+            unlink(previous, trip);
+        }
+        allTrips.add(trip.key);
+        for (String gram : trip.fromGrams) {
+            postings.computeIfAbsent(FROM_PREFIX + gram, k -> new ConcurrentSkipListSet<>()).add(trip.key);
+        }
+        for (String gram : trip.toGrams) {
+            postings.computeIfAbsent(TO_PREFIX + gram, k -> new ConcurrentSkipListSet<>()).add(trip.key);
+        }
+        geoIndex.put(response.getId(),
+                response.getOriginLatitude(), response.getOriginLongitude(),
+                routePolyline,
+                response.getDestinationLatitude(), response.getDestinationLongitude());
+    }
+
+    private synchronized void doUpdateSeats(Long tripId, int availableSeats) {
+        trips.computeIfPresent(tripId, (id, current) -> current.withAvailableSeats(availableSeats));
+    }
+
+    private synchronized void doRemove(Long tripId) {
+        IndexedTrip previous = trips.remove(tripId);
+        recentlyRemoved.put(tripId, System.nanoTime());
+        if (previous != null) {
+            unlink(previous, null);
+        }
+        geoIndex.remove(tripId);
+    }
+
+    // Drops postings of the old version that the replacement (if any) does not reuse
+    private void unlink(IndexedTrip previous, IndexedTrip replacement) {
+        boolean sameKey = replacement != null && replacement.key.equals(previous.key);
+        if (!sameKey) {
+            allTrips.remove(previous.key);
+        }
+        for (String gram : previous.fromGrams) {
+            if (!sameKey || !replacement.fromGrams.contains(gram)) {
+                unlinkPosting(FROM_PREFIX + gram, previous.key);
+            }
+        }
+        for (String gram : previous.toGrams) {
+            if (!sameKey || !replacement.toGrams.contains(gram)) {
+                unlinkPosting(TO_PREFIX + gram, previous.key);
+            }
+        }
+    }
+
+    private void unlinkPosting(String gram, TripKey key) {
+        postings.computeIfPresent(gram, (k, posting) -> {
+            posting.remove(key);
+            return posting.isEmpty() ? null : posting;
+        });
+    }
+
+    private void afterCommit(Runnable change) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    change.run();
+                }
+            });
+        } else {
+            change.run();
+        }
+    }
+
+    static final class TripKey implements Comparable<TripKey> {
+        private final LocalDateTime departureTime;
+        private final Long id;
+
+        TripKey(LocalDateTime departureTime, Long id) {
+            this.departureTime = departureTime;
+            this.id = id;
+        }
+
+        @Override
+        public int compareTo(TripKey other) {
+            int byTime = departureTime.compareTo(other.departureTime);
+            return byTime != 0 ? byTime : id.compareTo(other.id);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (this == o) return true;
+            if (!(o instanceof TripKey other)) return false;
+            return departureTime.equals(other.departureTime) && id.equals(other.id);
+        }
+
+        @Override
+        public int hashCode() {
+            return 31 * departureTime.hashCode() + id.hashCode();
+        }
+    }
+
+    private static final class IndexedTrip {
+        private final TripKey key;
+        private final String from;
+        private final String to;
+        private final Set<String> fromGrams;
+        private final Set<String> toGrams;
+        private final double pricePerSeat;
+        private final int availableSeats;
+        private final TripDTO.TripResponse response;
+        private final long indexedAt = System.nanoTime();
+
+        IndexedTrip(TripDTO.TripResponse response) {
+            this.key = new TripKey(response.getDepartureTime(), response.getId());
+            this.from = LocationTokenizer.normalize(response.getFromLocation());
+            this.to = LocationTokenizer.normalize(response.getToLocation());
+            this.fromGrams = LocationTokenizer.grams(from);
+            this.toGrams = LocationTokenizer.grams(to);
+            this.pricePerSeat = response.getPricePerSeat();
+            this.availableSeats = response.getAvailableSeats();
+            this.response = response;
+        }
+
+        private IndexedTrip(IndexedTrip source, TripDTO.TripResponse response) {
+            this.key = source.key;
+            this.from = source.from;
+            this.to = source.to;
+            this.fromGrams = source.fromGrams;
+            this.toGrams = source.toGrams;
+            this.pricePerSeat = source.pricePerSeat;
+            this.availableSeats = response.getAvailableSeats();
+            this.response = response;
+        }
+
+        IndexedTrip withAvailableSeats(int seats) {
+            TripDTO.TripResponse copy = copyOf(response);
+            copy.setAvailableSeats(seats);
+            return new IndexedTrip(this, copy);
+        }
+
+        // Snapshots are shared with callers, so seat changes go into a fresh copy
+        private static TripDTO.TripResponse copyOf(TripDTO.TripResponse source) {
+            TripDTO.TripResponse copy = new TripDTO.TripResponse();
+            copy.setId(source.getId());
+            copy.setFromLocation(source.getFromLocation());
+            copy.setToLocation(source.getToLocation());
+            copy.setDepartureTime(source.getDepartureTime());
+            copy.setExpectedArrivalTime(source.getExpectedArrivalTime());
+            copy.setPricePerSeat(source.getPricePerSeat());
+            copy.setTotalSeats(source.getTotalSeats());
+            copy.setAvailableSeats(source.getAvailableSeats());
+            copy.setStatus(source.getStatus());
+            copy.setDistanceKm(source.getDistanceKm());
+            copy.setOriginLatitude(source.getOriginLatitude());
+            copy.setOriginLongitude(source.getOriginLongitude());
+            copy.setDestinationLatitude(source.getDestinationLatitude());
+            copy.setDestinationLongitude(source.getDestinationLongitude());
+            copy.setDriverName(source.getDriverName());
+            copy.setDriverId(source.getDriverId());
+            copy.setVehicleModel(source.getVehicleModel());
+            copy.setVehicleNumber(source.getVehicleNumber());
+            copy.setSoberDeclaration(source.getSoberDeclaration());
+            copy.setIsActive(source.getIsActive());
+            copy.setNotes(source.getNotes());
+            copy.setCreatedAt(source.getCreatedAt());
+            return copy;
+        }
+    }
+}
@@ -0,0 +1,167 @@
+package com.yavijexpress.security;
+
+import com.yavijexpress.notification.NotificationPusher;
+import com.yavijexpress.repository.TripRepository;
+import com.yavijexpress.repository.UserRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ChannelInterceptor;
+import org.springframework.messaging.support.MessageHeaderAccessor;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.security.core.userdetails.UserDetailsService;
+import org.springframework.stereotype.Component;
+import org.springframework.util.StringUtils;
+import java.util.Set;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Authenticates and authorizes STOMP frames from clients, command by command:
+ * <ul>
+ * <li>CONNECT must carry the same bearer token the REST API uses (native header
+ * "Authorization: Bearer ..."); the session is then bound to a {@link StompPrincipal} and every later
+ * frame on it runs as that user.</li>
+ * <li>DISCONNECT is always accepted. Any other frame on a session that never authenticated is
+ * rejected; UNSUBSCRIBE needs nothing more.</li>
+ * <li>SUBSCRIBE is allowed only to the destinations the server publishes to:
+ * <pre>
+ * /user/queue/...                    the caller's own queues
+ * /topic/broadcasts                  everyone
+ * /topic/broadcasts/{ROLE}           users holding that role, and admins
+ * /topic/trips/{tripId}/location     the trip's driver, its confirmed passengers and admins
+ * /topic/admin/emergencies           admins
+ * </pre>
+ * Destinations containing pattern characters are refused outright, since the simple broker and the
+ * relayed brokers treat them as wildcards that would match other users' topics.</li>
+ * <li>SEND is allowed only to /app/... destinations, which go to the application's message handlers.
+ * Clients never publish to /topic, /queue or /user directly, whatever their role; the server does
+ * that after its own checks.</li>
+ * </ul>
+ * Any other command (ACK, NACK, transactions, ...) is refused.
+ */
+@Component
+public class StompAuthChannelInterceptor implements ChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(StompAuthChannelInterceptor.class);
+    private static final Set<String> ADMIN_TOPICS = Set.of("/topic/admin/emergencies");
+    private static final Pattern TRIP_LOCATION = Pattern.compile("^/topic/trips/(\\d+)/location$");
+    private static final String ROLE_BROADCASTS = NotificationPusher.BROADCASTS + "/";
+    private static final String USER_QUEUES = "/user/queue/";
+    private static final String APP_PREFIX = "/app/";
+    // Ant patterns for the simple broker, plus the wildcards of RabbitMQ (#) and ActiveMQ (>)
+    private static final String PATTERN_CHARS = "*?{}#>";
+
+    private final JwtService jwtService;
+    private final UserDetailsService userDetailsService;
+    private final TokenBlacklistService tokenBlacklistService;
+    private final UserRepository userRepository;
+    private final TripRepository tripRepository;
+
+    public StompAuthChannelInterceptor(JwtService jwtService, UserDetailsService userDetailsService, TokenBlacklistService tokenBlacklistService, UserRepository userRepository, TripRepository tripRepository) {
+        this.jwtService = jwtService;
+        this.userDetailsService = userDetailsService;
+        this.tokenBlacklistService = tokenBlacklistService;
+        this.userRepository = userRepository;
+        this.tripRepository = tripRepository;
+    }
+
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        StompHeaderAccessor accessor = MessageHeaderAccessor.getAccessor(message, StompHeaderAccessor.class);
+        if (accessor == null || accessor.getCommand() == null) {
+            return message;
+        }
+
+        StompCommand command = accessor.getCommand();
+        if (command == StompCommand.CONNECT) {
+            accessor.setUser(authenticate(accessor.getFirstNativeHeader("Authorization")));
+            return message;
+        }
+        if (command == StompCommand.DISCONNECT) {
+            return message;
+        }
+        if (!(accessor.getUser() instanceof StompPrincipal principal)) {
+            throw new MessageDeliveryException("STOMP session is not authenticated");
+        }
+        switch (command) {
+            case SUBSCRIBE -> authorizeSubscription(principal, accessor.getDestination());
+            case SEND -> authorizeSend(accessor.getDestination());
+            case UNSUBSCRIBE -> { }
+            default -> throw new MessageDeliveryException("STOMP " + command + " frames are not accepted");
+        }
+        return message;
+    }
+
+    void authorizeSubscription(StompPrincipal principal, String destination) {
+        if (destination == null) {
+            throw new MessageDeliveryException("SUBSCRIBE requires a destination");
+        }
+        for (int i = 0; i < destination.length(); i++) {
+            if (PATTERN_CHARS.indexOf(destination.charAt(i)) >= 0) {
+                throw new MessageDeliveryException("Wildcard subscriptions are not allowed");
+            }
+        }
+        boolean admin = principal.hasRole("ADMIN");
+        if (destination.startsWith(USER_QUEUES) || destination.equals(NotificationPusher.BROADCASTS)) {
+            return;
+        }
+        if (destination.startsWith(ROLE_BROADCASTS)) {
+            if (!admin && !principal.hasRole(destination.substring(ROLE_BROADCASTS.length()))) {
+                throw new MessageDeliveryException("Not allowed to follow this role's broadcasts");
+            }
+            return;
+        }
+        Matcher tripLocation = TRIP_LOCATION.matcher(destination);
+        if (tripLocation.matches()) {
+            if (!admin && !tripRepository.isParticipant(Long.valueOf(tripLocation.group(1)), principal.getUserId())) {
+                throw new MessageDeliveryException("Not allowed to watch this trip");
+            }
+            return;
+        }
+        if (ADMIN_TOPICS.contains(destination)) {
+            if (!admin) {
+                throw new MessageDeliveryException("Admin topics require the ADMIN role");
+            }
+            return;
+        }
+        throw new MessageDeliveryException("Unknown subscription destination");
+    }
+
+    // Clients only talk to the application; a SEND straight to a broker destination would reach every subscriber
+    void authorizeSend(String destination) {
+        if (destination == null || !destination.startsWith(APP_PREFIX)) {
+            throw new MessageDeliveryException("SEND is only allowed to " + APP_PREFIX + "... destinations");
+        }
+    }
+
+    private StompPrincipal authenticate(String authHeader) {
+        if (!StringUtils.hasText(authHeader) || !authHeader.startsWith("Bearer ")) {
+            throw new MessageDeliveryException("Missing bearer token on STOMP CONNECT");
+        }
+        String jwt = authHeader.substring(7);
+        try {
+            if (tokenBlacklistService.isTokenBlacklisted(jwt)) {
+                throw new MessageDeliveryException("Token invalidated");
+            }
+            String email = jwtService.extractUsername(jwt);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(email);
+            if (!jwtService.isTokenValid(jwt, userDetails)) {
+                throw new MessageDeliveryException("Invalid token");
+            }
+            Long userId = userRepository.findByEmail(email)
+                    .orElseThrow(() -> new MessageDeliveryException("User not found"))
+                    .getId();
+            return new StompPrincipal(userId, email, userDetails.getAuthorities());
+        } catch (MessageDeliveryException e) {
+            throw e;
+        } catch (Exception e) {
+            log.warn("Rejected STOMP CONNECT: {}", e.getMessage());
+            throw new MessageDeliveryException("Authentication failed");
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.yavijexpress.security;
+
+import org.springframework.security.core.GrantedAuthority;
+
+import java.security.Principal;
+import java.util.Collection;
+
+/**
+ * User of an authenticated STOMP session. The name is the user id, so server code can address a user
+ * with convertAndSendToUser(userId.toString(), ...) without looking up their email.
+ */
+public class StompPrincipal implements Principal {
+
+    private final Long userId;
+    private final String email;
+    private final Collection<? extends GrantedAuthority> authorities;
+
+    public StompPrincipal(Long userId, String email, Collection<? extends GrantedAuthority> authorities) {
+        this.userId = userId;
+        this.email = email;
+        this.authorities = authorities;
+    }
+
+    @Override
+    public String getName() {
+        return String.valueOf(userId);
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public String getEmail() {
+        return email;
+    }
+
+    public Collection<? extends GrantedAuthority> getAuthorities() {
+        return authorities;
+    }
+
+    public boolean hasRole(String role) {
+        return authorities.stream().anyMatch(authority -> authority.getAuthority().equals("ROLE_" + role));
+    }
+}
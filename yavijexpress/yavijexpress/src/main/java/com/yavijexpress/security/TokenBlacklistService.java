@@ -26,8 +26,8 @@ public class TokenBlacklistService {
         logBlacklistAction(token, "removed");
     }
 
-    // Clean up expired tokens every hour
-    @Scheduled(fixedRate = 3600000) // 1 hour
+    // Clean up expired tokens every hour; the blacklist is per instance, so this runs everywhere without a lease
+    @Scheduled(fixedRateString = "${jobs.blacklist-cleanup.interval-ms:3600000}")
     public void cleanupExpiredTokens() {
         LocalDateTime cutoffTime = LocalDateTime.now().minusHours(24); // Keep for 24 hours
         int initialSize = blacklistedTokens.size();
@@ -1,7 +1,7 @@
 package com.yavijexpress.service;
 
 import com.yavijexpress.dto.EmergencyDTO;
-import com.yavijexpress.entity.EmergencyAlert;
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Map;
 
@@ -9,7 +9,10 @@ public interface EmergencyService {
     EmergencyDTO.EmergencyAlertResponse sendSOS(EmergencyDTO.SOSRequest request);
     void sendDriverPanicAlert(Long tripId, Long driverId, String reason);
     void updateLiveLocation(EmergencyDTO.LiveLocationRequest request);
+    EmergencyDTO.LiveLocationResponse getLatestLocation(Long tripId);
+    EmergencyDTO.TrajectoryResponse getTrajectory(Long tripId, LocalDateTime from, LocalDateTime to, Double toleranceMeters);
     List<Map<String, String>> getEmergencyContacts(Long userId);
     void resolveEmergency(Long alertId, String resolutionNotes);
-    List<EmergencyAlert> getActiveEmergencies();
+    EmergencyDTO.OpsBoard getActiveEmergencies();
+    List<EmergencyDTO.DeliveryStatus> getDeliveries(Long alertId);
 }
\ No newline at end of file
@@ -0,0 +1,20 @@
+package com.yavijexpress.service;
+
+import com.yavijexpress.dto.NotificationDTO;
+import com.yavijexpress.entity.User;
+
+/**
+ * A user's inbox: their own notification rows merged with the admin broadcasts addressed to them.
+ * Broadcast entries carry negative ids (-broadcastId) so read/delete calls can be routed without a
+ * second endpoint.
+ */
+public interface NotificationInboxService {
+    // Newest first, keyset-paged on (createdAt, id); cursor is the nextCursor of the previous page
+    NotificationDTO.NotificationPage getInbox(User user, String cursor, Integer limit);
+    Long getUnreadCount(User user);
+    void markAsRead(User user, Long notificationId);
+    // Both return how many entries were affected
+    int markAllAsRead(User user);
+    void delete(User user, Long notificationId);
+    int deleteAll(User user);
+}
@@ -1,6 +1,8 @@
 package com.yavijexpress.service;
 
+import com.yavijexpress.dto.NotificationDTO;
 import com.yavijexpress.entity.*;
+import java.util.List;
 
 public interface NotificationService {
     void sendTripCreatedNotification(Trip trip);
@@ -13,13 +15,20 @@ public interface NotificationService {
     void sendBookingDeniedNotification(Booking booking);
     void sendBookingCancelledNotification(Booking booking, String reason);
     void sendPaymentSuccessNotification(Payment payment);
+    void sendInsuranceExpiryNotification(Vehicle vehicle);
     void sendComplaintSubmittedNotification(Complaint complaint);
     void sendComplaintStatusUpdateNotification(Complaint complaint);
     void sendComplaintEscalationNotification(Complaint complaint, String reason);
     void sendEmergencyNotification(User user, String title, String message, Long alertId);
     void sendAdminNotification(User admin, String title, String message, String entityType, Long entityId);
+    // Same as above for callers that only hold the recipient's id
+    void sendEmergencyNotification(Long userId, String title, String message, Long alertId);
+    void sendAdminNotification(Long adminId, String title, String message, String entityType, Long entityId);
 
-    void sendBroadcastNotification(User.UserRole roleFilter, String title, String message);
-    void sendBroadcastNotificationToAll(String title, String message);
+    // Both return the broadcast job id; progress is available through getBroadcastProgress
+    Long sendBroadcastNotification(User.UserRole roleFilter, String title, String message);
+    Long sendBroadcastNotificationToAll(String title, String message);
+    NotificationDTO.BroadcastProgress getBroadcastProgress(Long broadcastId);
+    List<NotificationDTO.BroadcastProgress> getRecentBroadcasts(int limit);
 
 }
\ No newline at end of file
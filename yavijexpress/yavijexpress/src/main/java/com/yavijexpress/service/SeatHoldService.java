@@ -0,0 +1,22 @@
+package com.yavijexpress.service;
+
+import com.yavijexpress.entity.Booking;
+
+public interface SeatHoldService {
+
+    // Stamps hold_expires_at on a new PENDING booking; the timer is armed once the booking is committed
+    void hold(Booking booking);
+
+    // Disarms the timer after the booking left PENDING through another path
+    void release(Long bookingId);
+
+    // Cancels the booking and returns its seats if the hold has lapsed; false when it was already resolved
+    boolean expire(Long bookingId);
+
+    // Safety net for holds the timer missed: expires up to limit lapsed holds in the caller's transaction
+    // and returns how many it expired
+    int expireLapsedHolds(int limit);
+
+    // Holds currently armed in the timer
+    int pendingHolds();
+}
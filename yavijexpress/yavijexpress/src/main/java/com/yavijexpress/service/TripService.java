@@ -12,7 +12,7 @@ public interface TripService {
     void cancelTrip(Long tripId, String reason);
 
     // Search & Queries
-    List<TripDTO.TripResponse> searchTrips(TripDTO.TripSearchRequest request);
+    TripDTO.TripSearchPage searchTrips(TripDTO.TripSearchRequest request);
     List<TripDTO.TripResponse> getDriverTrips(Long driverId);
     TripDTO.TripResponse getTripDetails(Long tripId);
 
@@ -23,5 +23,6 @@ public interface TripService {
 
     // Utility
     Trip getTripById(Long tripId);
+    void refreshSearchIndex(Long tripId); // After direct repository writes
     void checkAndUpdateTripStatuses(); // For cron job
 }
\ No newline at end of file
@@ -4,7 +4,9 @@ import com.yavijexpress.dto.AdminDTO;
 import com.yavijexpress.entity.User;
 import com.yavijexpress.entity.Trip;
 import com.yavijexpress.entity.Booking;
+import com.yavijexpress.notification.UnreadCounter;
 import com.yavijexpress.repository.*;
+import com.yavijexpress.search.TripSearchIndex;
 import com.yavijexpress.service.AdminService;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
@@ -25,11 +27,20 @@ public class AdminServiceImpl implements AdminService {
     private final NotificationRepository notificationRepository;
     private final RatingRepository ratingRepository;
     private final EmergencyAlertRepository emergencyAlertRepository;
+    private final BroadcastReadMarkRepository broadcastReadMarkRepository;
+    private final BroadcastReceiptRepository broadcastReceiptRepository;
+    private final UnreadCounter unreadCounter;
+    private final NotificationArchiveRepository notificationArchiveRepository;
+    private final TripSearchIndex tripSearchIndex;
+    private final EmergencyDeliveryRepository emergencyDeliveryRepository;
 
     public AdminServiceImpl(UserRepository userRepository, TripRepository tripRepository, 
                            BookingRepository bookingRepository, ContactMessageRepository contactMessageRepository,
                            NotificationRepository notificationRepository, RatingRepository ratingRepository,
-                           EmergencyAlertRepository emergencyAlertRepository) {
+                           EmergencyAlertRepository emergencyAlertRepository, BroadcastReadMarkRepository broadcastReadMarkRepository,
+                           BroadcastReceiptRepository broadcastReceiptRepository, UnreadCounter unreadCounter,
+                           NotificationArchiveRepository notificationArchiveRepository, TripSearchIndex tripSearchIndex,
+                           EmergencyDeliveryRepository emergencyDeliveryRepository) {
         this.userRepository = userRepository;
         this.tripRepository = tripRepository;
         this.bookingRepository = bookingRepository;
@@ -37,6 +48,12 @@ public class AdminServiceImpl implements AdminService {
         this.notificationRepository = notificationRepository;
         this.ratingRepository = ratingRepository;
         this.emergencyAlertRepository = emergencyAlertRepository;
+        this.broadcastReadMarkRepository = broadcastReadMarkRepository;
+        this.broadcastReceiptRepository = broadcastReceiptRepository;
+        this.unreadCounter = unreadCounter;
+        this.notificationArchiveRepository = notificationArchiveRepository;
+        this.tripSearchIndex = tripSearchIndex;
+        this.emergencyDeliveryRepository = emergencyDeliveryRepository;
     }
 
     @Override
@@ -115,11 +132,16 @@ public class AdminServiceImpl implements AdminService {
         // Delete related entities first to avoid foreign key constraint violations
         
         // Delete user's emergency alerts
+        emergencyDeliveryRepository.deleteByAlertUserId(userId);
         emergencyAlertRepository.deleteByUserId(userId);
         System.out.println("✅ DEBUG: Deleted emergency alerts for user: " + userId);
         
         // Delete user's notifications
         notificationRepository.deleteByUser(user);
+        broadcastReceiptRepository.deleteByUserId(userId);
+        broadcastReadMarkRepository.deleteByUserId(userId);
+        unreadCounter.forget(userId);
+        notificationArchiveRepository.deleteByUserId(userId);
         System.out.println("✅ DEBUG: Deleted notifications for user: " + userId);
         
         // Delete user's ratings (both given and received)
@@ -134,6 +156,7 @@ public class AdminServiceImpl implements AdminService {
         // Delete user's trips (if user is a driver)
         if (user.getRole() == User.UserRole.DRIVER) {
             tripRepository.deleteByDriver(user);
+            tripSearchIndex.removeByDriver(userId);
             System.out.println("✅ DEBUG: Deleted trips for driver: " + userId);
         }
         
@@ -149,6 +172,7 @@ public class AdminServiceImpl implements AdminService {
     @Override
     public void deleteTrip(Long tripId) {
         tripRepository.deleteById(tripId);
+        tripSearchIndex.remove(tripId);
     }
 
     private AdminDTO.UserManagement convertToUserManagement(User user) {
@@ -3,14 +3,19 @@ package com.yavijexpress.service.impl;
 import com.yavijexpress.dto.BookingDTO;
 import com.yavijexpress.entity.*;
 import com.yavijexpress.exception.*;
+import com.yavijexpress.jobs.SweepRunner;
 import com.yavijexpress.repository.*;
 import com.yavijexpress.repository.UserRepository;
+import com.yavijexpress.search.TripSearchIndex;
 import com.yavijexpress.service.BookingService;
 import com.yavijexpress.service.PaymentService;
+import com.yavijexpress.service.SeatHoldService;
+import com.yavijexpress.utils.AppConstants;
 import com.yavijexpress.service.NotificationService;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -26,14 +31,20 @@ public class BookingServiceImpl implements BookingService {
     private final PaymentService paymentService;
     private final NotificationService notificationService;
     private final ModelMapper modelMapper;
+    private final TripSearchIndex tripSearchIndex;
+    private final SeatHoldService seatHoldService;
+    private final SweepRunner sweepRunner;
 
-    public BookingServiceImpl(BookingRepository bookingRepository, TripRepository tripRepository, UserRepository userRepository, PaymentService paymentService, NotificationService notificationService, ModelMapper modelMapper) {
+    public BookingServiceImpl(BookingRepository bookingRepository, TripRepository tripRepository, UserRepository userRepository, PaymentService paymentService, NotificationService notificationService, ModelMapper modelMapper, TripSearchIndex tripSearchIndex, SeatHoldService seatHoldService, SweepRunner sweepRunner) {
         this.bookingRepository = bookingRepository;
         this.tripRepository = tripRepository;
         this.userRepository = userRepository;
         this.paymentService = paymentService;
         this.notificationService = notificationService;
         this.modelMapper = modelMapper;
+        this.tripSearchIndex = tripSearchIndex;
+        this.seatHoldService = seatHoldService;
+        this.sweepRunner = sweepRunner;
     }
 
     @Override
@@ -53,8 +64,8 @@ public class BookingServiceImpl implements BookingService {
             Trip trip = tripRepository.findById(request.getTripId())
                     .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
 
-            // Basic validation
-            if (trip.getAvailableSeats() < request.getSeats()) {
+            // Take the seats atomically; the loaded trip's seat count may already be stale
+            if (tripRepository.reserveSeats(trip.getId(), request.getSeats()) == 0) {
                 throw new BadRequestException("Not enough seats available");
             }
 
@@ -67,11 +78,9 @@ public class BookingServiceImpl implements BookingService {
             booking.setTrip(trip);
             booking.setPassenger(passenger);
 
+            seatHoldService.hold(booking);
             Booking savedBooking = bookingRepository.save(booking);
-
-            // Update available seats
-            trip.setAvailableSeats(trip.getAvailableSeats() - request.getSeats());
-            tripRepository.save(trip);
+            refreshIndexedSeats(trip.getId());
 
             // Send notification to driver
             try {
@@ -101,8 +110,13 @@ public class BookingServiceImpl implements BookingService {
 
         // Generate 4-6 digit OTP
         String otp = String.format("%06d", (int)(Math.random() * 1000000));
+        if (bookingRepository.confirmPending(bookingId, otp) == 0) {
+            throw new BadRequestException("Booking is no longer pending");
+        }
+        seatHoldService.release(bookingId);
         booking.setPickupOtp(otp);
         booking.setStatus(Booking.BookingStatus.CONFIRMED);
+        booking.setHoldExpiresAt(null);
         Booking confirmedBooking = bookingRepository.save(booking);
         System.out.println("Booking confirmed with OTP: " + otp);
 
@@ -125,14 +139,18 @@ public class BookingServiceImpl implements BookingService {
         }
 
         // Update booking status to cancelled
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.cancelIfStatusIn(bookingId, List.of(Booking.BookingStatus.PENDING), now) == 0) {
+            throw new BadRequestException("Booking is not in pending state");
+        }
+        seatHoldService.release(bookingId);
         booking.setStatus(Booking.BookingStatus.CANCELLED);
-        booking.setCancelledAt(LocalDateTime.now());
+        booking.setCancelledAt(now);
+        booking.setHoldExpiresAt(null);
         Booking deniedBooking = bookingRepository.save(booking);
 
         // Restore available seats
-        Trip trip = booking.getTrip();
-        trip.setAvailableSeats(trip.getAvailableSeats() + booking.getSeatsBooked());
-        tripRepository.save(trip);
+        releaseSeats(booking);
 
         // Send denial notification (ignore failures)
         try {
@@ -157,14 +175,19 @@ public class BookingServiceImpl implements BookingService {
         }
 
         // Update booking status
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.cancelIfStatusIn(bookingId,
+                List.of(Booking.BookingStatus.PENDING, Booking.BookingStatus.CONFIRMED), now) == 0) {
+            throw new BadRequestException("Booking is already cancelled");
+        }
+        seatHoldService.release(bookingId);
         booking.setStatus(Booking.BookingStatus.CANCELLED);
-        booking.setCancelledAt(LocalDateTime.now());
+        booking.setCancelledAt(now);
+        booking.setHoldExpiresAt(null);
         Booking cancelledBooking = bookingRepository.save(booking);
 
         // Update available seats
-        Trip trip = booking.getTrip();
-        trip.setAvailableSeats(trip.getAvailableSeats() + booking.getSeatsBooked());
-        tripRepository.save(trip);
+        releaseSeats(booking);
 
         // Process refund if payment was made
         if (booking.getPayment() != null &&
@@ -205,18 +228,11 @@ public class BookingServiceImpl implements BookingService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void autoCancelPendingBookings() {
-        LocalDateTime cutoffTime = LocalDateTime.now().minusMinutes(30);
-
-        List<Booking> pendingBookings = bookingRepository.findAll()
-                .stream()
-                .filter(booking -> booking.getStatus() == Booking.BookingStatus.PENDING)
-                .filter(booking -> booking.getBookedAt().isBefore(cutoffTime))
-                .collect(Collectors.toList());
-
-        pendingBookings.forEach(booking -> {
-            cancelBooking(booking.getId(), "Auto-cancelled due to timeout");
-        });
+        // Holds normally lapse through the seat hold timer; this only catches ones it missed
+        sweepRunner.run("booking-hold-expiry", AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS,
+                seatHoldService::expireLapsedHolds);
     }
 
     @Override
@@ -258,6 +274,7 @@ public class BookingServiceImpl implements BookingService {
             if (trip != null) {
                 trip.setStatus(Trip.TripStatus.ONGOING);
                 tripRepository.save(trip);
+                tripSearchIndex.remove(trip.getId());
                 System.out.println("Trip status updated to ONGOING");
             }
             
@@ -285,6 +302,19 @@ public class BookingServiceImpl implements BookingService {
                 .orElseThrow(() -> new ResourceNotFoundException("Booking not found"));
     }
 
+    private void releaseSeats(Booking booking) {
+        Long tripId = booking.getTrip().getId();
+        tripRepository.releaseSeats(tripId, booking.getSeatsBooked());
+        refreshIndexedSeats(tripId);
+    }
+
+    private void refreshIndexedSeats(Long tripId) {
+        Integer availableSeats = tripRepository.findAvailableSeats(tripId);
+        if (availableSeats != null) {
+            tripSearchIndex.updateAvailableSeats(tripId, availableSeats);
+        }
+    }
+
     private BookingDTO.BookingResponse convertToBookingResponse(Booking booking) {
         BookingDTO.BookingResponse response = modelMapper.map(booking, BookingDTO.BookingResponse.class);
         response.setPassengerName(booking.getPassenger().getName());
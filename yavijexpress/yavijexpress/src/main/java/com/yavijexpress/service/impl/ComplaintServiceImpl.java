@@ -1,6 +1,7 @@
 package com.yavijexpress.service.impl;
 
 import com.yavijexpress.dto.ComplaintDTO;
+import com.yavijexpress.emergency.ResponderRoster;
 import com.yavijexpress.entity.*;
 import com.yavijexpress.exception.*;
 import com.yavijexpress.repository.ComplaintRepository;
@@ -24,13 +25,15 @@ public class ComplaintServiceImpl implements ComplaintService {
     private final UserService userService;
     private final NotificationService notificationService;
     private final ModelMapper modelMapper;
+    private final ResponderRoster responderRoster;
 
     @Autowired
-    public ComplaintServiceImpl(ComplaintRepository complaintRepository, UserService userService, NotificationService notificationService, ModelMapper modelMapper) {
+    public ComplaintServiceImpl(ComplaintRepository complaintRepository, UserService userService, NotificationService notificationService, ModelMapper modelMapper, ResponderRoster responderRoster) {
         this.complaintRepository = complaintRepository;
         this.userService = userService;
         this.notificationService = notificationService;
         this.modelMapper = modelMapper;
+        this.responderRoster = responderRoster;
     }
 
     @Override
@@ -181,14 +184,10 @@ public class ComplaintServiceImpl implements ComplaintService {
                 complaint.getDescription()
         );
 
-        // Get all admin users and notify them
-        List<User> admins = userService.getAllUsers("ADMIN").stream()
-                .map(dto -> userService.getUserById(dto.getId()))
-                .toList();
-
-        admins.forEach(admin -> {
+        // Notify every admin on the roster
+        responderRoster.admins().forEach(admin -> {
             notificationService.sendAdminNotification(
-                    admin,
+                    admin.getId(),
                     "New Complaint #" + complaint.getId(),
                     adminMessage,
                     "COMPLAINT",
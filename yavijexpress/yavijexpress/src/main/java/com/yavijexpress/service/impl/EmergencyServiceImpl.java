@@ -1,17 +1,28 @@
 package com.yavijexpress.service.impl;
 
 import com.yavijexpress.dto.EmergencyDTO;
+import com.yavijexpress.emergency.EmergencyBoard;
+import com.yavijexpress.emergency.EmergencyDispatcher;
+import com.yavijexpress.emergency.ResponderRoster;
 import com.yavijexpress.entity.*;
 import com.yavijexpress.exception.*;
 import com.yavijexpress.repository.*;
 import com.yavijexpress.service.EmergencyService;
 import com.yavijexpress.service.NotificationService;
 import com.yavijexpress.service.UserService;
+import com.yavijexpress.tracking.LiveLocationBuffer;
+import com.yavijexpress.tracking.LocationPoint;
+import com.yavijexpress.tracking.LocationStreamer;
+import com.yavijexpress.tracking.PathSimplifier;
+import com.yavijexpress.tracking.TrajectoryCodec;
 import com.yavijexpress.utils.*;
 import lombok.RequiredArgsConstructor;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
+import java.time.Instant;
 import java.time.LocalDateTime;
+import java.time.ZoneId;
 import java.util.*;
 
 @Service
@@ -22,22 +33,33 @@ public class EmergencyServiceImpl implements EmergencyService {
     private final UserService userService;
     private final BookingRepository bookingRepository;
     private final NotificationService notificationService;
-    private final SMSServiceImpl smsService;
-    private final EmailServiceImpl emailService;
     private final EmergencyAlertRepository emergencyAlertRepository;
     private final LiveLocationRepository liveLocationRepository;
-
-    public EmergencyServiceImpl(TripRepository tripRepository, UserService userService, BookingRepository bookingRepository, NotificationService notificationService, SMSServiceImpl smsService, EmailServiceImpl emailService, EmergencyAlertRepository emergencyAlertRepository, LiveLocationRepository liveLocationRepository) {
+    private final LiveLocationBuffer liveLocationBuffer;
+    private final LocationStreamer locationStreamer;
+    private final TripTrajectoryRepository tripTrajectoryRepository;
+    private final EmergencyDispatcher emergencyDispatcher;
+    private final EmergencyDeliveryRepository emergencyDeliveryRepository;
+    private final ResponderRoster responderRoster;
+    private final EmergencyBoard emergencyBoard;
+
+    public EmergencyServiceImpl(TripRepository tripRepository, UserService userService, BookingRepository bookingRepository, NotificationService notificationService, EmergencyAlertRepository emergencyAlertRepository, LiveLocationRepository liveLocationRepository, LiveLocationBuffer liveLocationBuffer, LocationStreamer locationStreamer, TripTrajectoryRepository tripTrajectoryRepository, EmergencyDispatcher emergencyDispatcher, EmergencyDeliveryRepository emergencyDeliveryRepository, ResponderRoster responderRoster, EmergencyBoard emergencyBoard) {
         this.tripRepository = tripRepository;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
         this.notificationService = notificationService;
-        this.smsService = smsService;
-        this.emailService = emailService;
         this.emergencyAlertRepository = emergencyAlertRepository;
         this.liveLocationRepository = liveLocationRepository;
+        this.liveLocationBuffer = liveLocationBuffer;
+        this.locationStreamer = locationStreamer;
+        this.tripTrajectoryRepository = tripTrajectoryRepository;
+        this.emergencyDispatcher = emergencyDispatcher;
+        this.emergencyDeliveryRepository = emergencyDeliveryRepository;
+        this.responderRoster = responderRoster;
+        this.emergencyBoard = emergencyBoard;
     }
 
+    // Only stores the alert, its in-app notifications and its SMS/email deliveries; EmergencyDispatcher sends the latter after commit
     @Override
     public EmergencyDTO.EmergencyAlertResponse sendSOS(EmergencyDTO.SOSRequest request) {
         Trip trip = tripRepository.findById(request.getTripId())
@@ -63,6 +85,7 @@ public class EmergencyServiceImpl implements EmergencyService {
         alert.setCreatedAt(LocalDateTime.now());
 
         EmergencyAlert savedAlert = emergencyAlertRepository.save(alert);
+        emergencyBoard.openAfterCommit(savedAlert);
 
         // 1. Notify Driver
         User driver = trip.getDriver();
@@ -79,36 +102,104 @@ public class EmergencyServiceImpl implements EmergencyService {
         });
 
         // 3. Notify Emergency Contacts of all passengers
+        List<EmergencyDelivery> deliveries = new ArrayList<>();
         bookings.forEach(booking -> {
             User passenger = booking.getPassenger();
-            notifyEmergencyContacts(passenger, trip, savedAlert);
+            notifyEmergencyContacts(passenger, trip, savedAlert, deliveries);
         });
 
         // 4. Notify Platform Admin
-        notifyAdminAboutSOS(trip, savedAlert);
+        notifyAdminAboutSOS(trip, savedAlert, deliveries);
 
         // 5. Send SMS to emergency contacts
-        sendEmergencySMS(trip, savedAlert);
+        sendEmergencySMS(trip, savedAlert, deliveries);
+        emergencyDispatcher.dispatchAfterCommit(deliveries);
 
         // 6. Store live location if provided
         if (request.getLatitude() != null && request.getLongitude() != null) {
-            updateLiveLocation(request.getTripId(), request.getLatitude(), request.getLongitude(), savedAlert.getUserId());
+            trackLocation(new LocationPoint(request.getTripId(), savedAlert.getUserId(),
+                    request.getLatitude(), request.getLongitude(), null, null, null, System.currentTimeMillis()));
         }
 
         // Prepare response
         EmergencyDTO.EmergencyAlertResponse response = new EmergencyDTO.EmergencyAlertResponse();
         response.setAlertId(savedAlert.getId());
         response.setStatus("SOS_SENT");
-        response.setMessage("Emergency alert sent to all contacts and authorities");
+        response.setMessage("Emergency alert received; contacts and authorities are being notified");
         response.setSentAt(savedAlert.getCreatedAt());
         response.setAuthoritiesNotified(true);
 
         return response;
     }
 
+    // Hot path: apart from the driver check by primary key, the ping goes to the in-memory buffer and the
+    // stream only, so no transaction is needed
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void updateLiveLocation(EmergencyDTO.LiveLocationRequest request) {
-        updateLiveLocation(request.getTripId(), request.getLatitude(), request.getLongitude(), null);
+        Long userId = SecurityUtils.getCurrentUserId();
+        if (!tripRepository.isDriver(request.getTripId(), userId)) {
+            throw new UnauthorizedException("Only the trip's driver can report its location");
+        }
+        trackLocation(new LocationPoint(request.getTripId(), userId, request.getLatitude(), request.getLongitude(),
+                request.getAccuracy(), request.getSpeed(), request.getBearing(), System.currentTimeMillis()));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmergencyDTO.LiveLocationResponse getLatestLocation(Long tripId) {
+        if (!SecurityUtils.isAdmin() && !tripRepository.isParticipant(tripId, SecurityUtils.getCurrentUserId())) {
+            throw new UnauthorizedException("Not allowed to view this trip's location");
+        }
+        LocationPoint point = liveLocationBuffer.latest(tripId);
+        if (point != null) {
+            return toResponse(point);
+        }
+        // Not pinged through this instance lately; the table is at most one flush behind
+        return liveLocationRepository.findFirstByTripIdOrderByUpdatedAtDesc(tripId)
+                .map(this::toResponse)
+                .orElseThrow(() -> new ResourceNotFoundException("No location available for this trip"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public EmergencyDTO.TrajectoryResponse getTrajectory(Long tripId, LocalDateTime from, LocalDateTime to, Double toleranceMeters) {
+        if (!SecurityUtils.isAdmin() && !tripRepository.isParticipant(tripId, SecurityUtils.getCurrentUserId())) {
+            throw new UnauthorizedException("Not allowed to view this trip's path");
+        }
+        TripTrajectory trajectory = tripTrajectoryRepository.findById(tripId)
+                .orElseThrow(() -> new ResourceNotFoundException("No recorded path for this trip"));
+
+        List<LocationPoint> points = new ArrayList<>(TrajectoryCodec.decode(tripId, trajectory.getData()));
+        // Blocks from different instances may interleave in time
+        points.sort(Comparator.comparingLong(LocationPoint::getRecordedAt));
+        long fromMillis = from != null ? toEpochMilli(from) : Long.MIN_VALUE;
+        long toMillis = to != null ? toEpochMilli(to) : Long.MAX_VALUE;
+        points.removeIf(point -> point.getRecordedAt() < fromMillis || point.getRecordedAt() > toMillis);
+        if (toleranceMeters != null) {
+            points = PathSimplifier.simplify(points, toleranceMeters);
+        }
+
+        List<EmergencyDTO.TrajectoryPoint> replay = new ArrayList<>(points.size());
+        List<double[]> coordinates = new ArrayList<>(points.size());
+        for (LocationPoint point : points) {
+            EmergencyDTO.TrajectoryPoint replayPoint = new EmergencyDTO.TrajectoryPoint();
+            replayPoint.setLatitude(point.getLatitude());
+            replayPoint.setLongitude(point.getLongitude());
+            replayPoint.setSpeed(point.getSpeed());
+            replayPoint.setRecordedAt(toLocalDateTime(point.getRecordedAt()));
+            replay.add(replayPoint);
+            coordinates.add(new double[]{point.getLatitude(), point.getLongitude()});
+        }
+
+        EmergencyDTO.TrajectoryResponse response = new EmergencyDTO.TrajectoryResponse();
+        response.setTripId(tripId);
+        response.setTotalPoints(trajectory.getPointCount());
+        response.setStartedAt(trajectory.getStartedAt());
+        response.setEndedAt(trajectory.getEndedAt());
+        response.setPolyline(PolylineCodec.encode(coordinates));
+        response.setPoints(replay);
+        return response;
     }
 
     @Override
@@ -143,14 +234,28 @@ public class EmergencyServiceImpl implements EmergencyService {
         alert.setResolutionNotes(resolutionNotes);
 
         emergencyAlertRepository.save(alert);
+        emergencyBoard.closeAfterCommit(alertId);
 
         // Notify all involved parties
         notifyEmergencyResolved(alert);
     }
 
     @Override
-    public List<EmergencyAlert> getActiveEmergencies() {
-        return emergencyAlertRepository.findByStatus(EmergencyAlert.AlertStatus.ACTIVE);
+    @Transactional(readOnly = true)
+    public List<EmergencyDTO.DeliveryStatus> getDeliveries(Long alertId) {
+        if (!emergencyAlertRepository.existsById(alertId)) {
+            throw new ResourceNotFoundException("Emergency alert not found");
+        }
+        return emergencyDeliveryRepository.findByAlertIdOrderByIdAsc(alertId).stream()
+                .map(this::toDeliveryStatus)
+                .toList();
+    }
+
+    // Served from memory; the board's topic carries every change after this snapshot
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public EmergencyDTO.OpsBoard getActiveEmergencies() {
+        return emergencyBoard.snapshot();
     }
 
     @Override
@@ -167,6 +272,7 @@ public class EmergencyServiceImpl implements EmergencyService {
         alert.setCreatedAt(LocalDateTime.now());
 
         EmergencyAlert savedAlert = emergencyAlertRepository.save(alert);
+        emergencyBoard.openAfterCommit(savedAlert);
 
         // Notify admin immediately
         notifyAdminAboutDriverPanic(trip, savedAlert, reason);
@@ -180,31 +286,42 @@ public class EmergencyServiceImpl implements EmergencyService {
         });
     }
 
-    private void updateLiveLocation(Long tripId, Double latitude, Double longitude, Long userId) {
-        LiveLocation liveLocation = new LiveLocation();
-        liveLocation.setTripId(tripId);
-        liveLocation.setUserId(userId);
-        liveLocation.setLatitude(latitude);
-        liveLocation.setLongitude(longitude);
-        liveLocation.setUpdatedAt(LocalDateTime.now());
-
-        liveLocationRepository.save(liveLocation);
+    private void trackLocation(LocationPoint point) {
+        liveLocationBuffer.record(point);
+        locationStreamer.offer(point);
+    }
 
-        // Keep only last 10 locations per trip to avoid DB bloat
-        List<LiveLocation> oldLocations = liveLocationRepository
-                .findByTripIdOrderByUpdatedAtDesc(tripId);
+    private EmergencyDTO.LiveLocationResponse toResponse(LocationPoint point) {
+        EmergencyDTO.LiveLocationResponse response = new EmergencyDTO.LiveLocationResponse();
+        response.setTripId(point.getTripId());
+        response.setUserId(point.getUserId());
+        response.setLatitude(point.getLatitude());
+        response.setLongitude(point.getLongitude());
+        response.setAccuracy(point.getAccuracy());
+        response.setSpeed(point.getSpeed());
+        response.setBearing(point.getBearing());
+        response.setUpdatedAt(toLocalDateTime(point.getRecordedAt()));
+        return response;
+    }
 
-        if (oldLocations.size() > 10) {
-            List<LiveLocation> toDelete = oldLocations.subList(10, oldLocations.size());
-            liveLocationRepository.deleteAll(toDelete);
-        }
+    private EmergencyDTO.LiveLocationResponse toResponse(LiveLocation location) {
+        EmergencyDTO.LiveLocationResponse response = new EmergencyDTO.LiveLocationResponse();
+        response.setTripId(location.getTripId());
+        response.setUserId(location.getUserId());
+        response.setLatitude(location.getLatitude());
+        response.setLongitude(location.getLongitude());
+        response.setAccuracy(location.getAccuracy());
+        response.setSpeed(location.getSpeed());
+        response.setBearing(location.getBearing());
+        response.setUpdatedAt(location.getUpdatedAt());
+        return response;
     }
 
     private void sendEmergencyNotification(User user, String title, String message, Long alertId) {
         notificationService.sendEmergencyNotification(user, title, message, alertId);
     }
 
-    private void notifyEmergencyContacts(User user, Trip trip, EmergencyAlert alert) {
+    private void notifyEmergencyContacts(User user, Trip trip, EmergencyAlert alert, List<EmergencyDelivery> deliveries) {
         String message = String.format(
                 "EMERGENCY ALERT! %s has triggered SOS in YaVij Express trip from %s to %s. " +
                         "Trip ID: %d, Time: %s, Location: https://maps.google.com/?q=%f,%f",
@@ -219,21 +336,16 @@ public class EmergencyServiceImpl implements EmergencyService {
 
         // Send to primary contact
         if (user.getEmergencyContact1() != null) {
-            smsService.sendSMS(user.getEmergencyContact1(), message);
+            deliveries.add(emergencyDispatcher.sms(alert.getId(), user.getEmergencyContact1(), message));
         }
 
         // Send to secondary contact
         if (user.getEmergencyContact2() != null) {
-            smsService.sendSMS(user.getEmergencyContact2(), message);
+            deliveries.add(emergencyDispatcher.sms(alert.getId(), user.getEmergencyContact2(), message));
         }
     }
 
-    private void notifyAdminAboutSOS(Trip trip, EmergencyAlert alert) {
-        // Get all admin users
-        List<User> admins = userService.getAllUsers("ADMIN").stream()
-                .map(dto -> userService.getUserById(dto.getId()))
-                .toList();
-
+    private void notifyAdminAboutSOS(Trip trip, EmergencyAlert alert, List<EmergencyDelivery> deliveries) {
         String adminMessage = String.format(
                 "🚨 CRITICAL: SOS Alert! Trip #%d from %s to %s. " +
                         "Driver: %s, Vehicle: %s. " +
@@ -248,17 +360,13 @@ public class EmergencyServiceImpl implements EmergencyService {
                 LocalDateTime.now()
         );
 
-        admins.forEach(admin -> {
-            sendEmergencyNotification(admin, "SOS ALERT - Requires Immediate Action!", adminMessage, alert.getId());
-            emailService.sendEmergencyEmail(admin.getEmail(), "SOS Alert - Trip #" + trip.getId(), adminMessage);
+        responderRoster.admins().forEach(admin -> {
+            notificationService.sendEmergencyNotification(admin.getId(), "SOS ALERT - Requires Immediate Action!", adminMessage, alert.getId());
+            deliveries.add(emergencyDispatcher.email(alert.getId(), admin.getEmail(), "SOS Alert - Trip #" + trip.getId(), adminMessage));
         });
     }
 
     private void notifyAdminAboutDriverPanic(Trip trip, EmergencyAlert alert, String reason) {
-        List<User> admins = userService.getAllUsers("ADMIN").stream()
-                .map(dto -> userService.getUserById(dto.getId()))
-                .toList();
-
         String adminMessage = String.format(
                 "🚨 DRIVER PANIC: Trip #%d from %s to %s. " +
                         "Driver: %s, Vehicle: %s. " +
@@ -272,12 +380,12 @@ public class EmergencyServiceImpl implements EmergencyService {
                 LocalDateTime.now()
         );
 
-        admins.forEach(admin -> {
-            sendEmergencyNotification(admin, "Driver Panic Alert!", adminMessage, alert.getId());
+        responderRoster.admins().forEach(admin -> {
+            notificationService.sendEmergencyNotification(admin.getId(), "Driver Panic Alert!", adminMessage, alert.getId());
         });
     }
 
-    private void sendEmergencySMS(Trip trip, EmergencyAlert alert) {
+    private void sendEmergencySMS(Trip trip, EmergencyAlert alert, List<EmergencyDelivery> deliveries) {
         // Send SMS to platform emergency response team
         String smsMessage = String.format(
                 "YaVij SOS: Trip#%d, %s to %s, %s, %f,%f, %s",
@@ -293,7 +401,7 @@ public class EmergencyServiceImpl implements EmergencyService {
         // Platform emergency numbers
         String[] emergencyNumbers = {"+91-XXXXXXXXXX", "+91-XXXXXXXXXX"};
         for (String number : emergencyNumbers) {
-            smsService.sendSMS(number, smsMessage);
+            deliveries.add(emergencyDispatcher.sms(alert.getId(), number, smsMessage));
         }
     }
 
@@ -315,6 +423,27 @@ public class EmergencyServiceImpl implements EmergencyService {
         // This would come from SecurityContext in real implementation
     }
 
+    private EmergencyDTO.DeliveryStatus toDeliveryStatus(EmergencyDelivery delivery) {
+        EmergencyDTO.DeliveryStatus status = new EmergencyDTO.DeliveryStatus();
+        status.setId(delivery.getId());
+        status.setChannel(delivery.getChannel().name());
+        status.setRecipient(delivery.getRecipient());
+        status.setStatus(delivery.getStatus().name());
+        status.setAttempts(delivery.getAttempts());
+        status.setLastError(delivery.getLastError());
+        status.setCreatedAt(delivery.getCreatedAt());
+        status.setCompletedAt(delivery.getCompletedAt());
+        return status;
+    }
+
+    private static LocalDateTime toLocalDateTime(long epochMilli) {
+        return LocalDateTime.ofInstant(Instant.ofEpochMilli(epochMilli), ZoneId.systemDefault());
+    }
+
+    private static long toEpochMilli(LocalDateTime time) {
+        return time.atZone(ZoneId.systemDefault()).toInstant().toEpochMilli();
+    }
+
     private Map<String, String> createContactMap(String type, String number) {
         Map<String, String> contact = new HashMap<>();
         contact.put("type", type);
@@ -0,0 +1,325 @@
+package com.yavijexpress.service.impl;
+
+import com.yavijexpress.dto.NotificationDTO;
+import com.yavijexpress.entity.BroadcastJob;
+import com.yavijexpress.entity.BroadcastReadMark;
+import com.yavijexpress.entity.BroadcastReceipt;
+import com.yavijexpress.entity.Notification;
+import com.yavijexpress.entity.User;
+import com.yavijexpress.exception.ResourceNotFoundException;
+import com.yavijexpress.exception.UnauthorizedException;
+import com.yavijexpress.notification.UnreadCounter;
+import com.yavijexpress.repository.BroadcastJobRepository;
+import com.yavijexpress.repository.BroadcastReadMarkRepository;
+import com.yavijexpress.repository.BroadcastReceiptRepository;
+import com.yavijexpress.repository.NotificationRepository;
+import com.yavijexpress.service.NotificationInboxService;
+import com.yavijexpress.utils.AppConstants;
+import com.yavijexpress.utils.SearchCursor;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Consumer;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.stream.Collectors;
+
+/**
+ * Broadcasts are fanned out on read: one broadcast_jobs row serves every recipient, and per-user state
+ * is a pair of watermarks (read up to / cleared up to) plus a receipt for any single broadcast that was
+ * read or deleted above them.
+ */
+@Service
+@Transactional
+public class NotificationInboxServiceImpl implements NotificationInboxService {
+
+    private static final String BROADCAST_ENTITY_TYPE = "ADMIN_BROADCAST";
+    private static final LocalDateTime FIRST_PAGE = LocalDateTime.of(9999, 1, 1, 0, 0);
+    // Newest first; ties on createdAt are broken by id, matching idx_notifications_user_created
+    private static final Comparator<NotificationDTO.NotificationResponse> INBOX_ORDER =
+            Comparator.comparing(NotificationDTO.NotificationResponse::getCreatedAt)
+                    .thenComparing(NotificationDTO.NotificationResponse::getId)
+                    .reversed();
+
+    private final NotificationRepository notificationRepository;
+    private final BroadcastJobRepository broadcastJobRepository;
+    private final BroadcastReadMarkRepository readMarkRepository;
+    private final BroadcastReceiptRepository receiptRepository;
+    private final UnreadCounter unreadCounter;
+    private final TransactionTemplate transactionTemplate;
+
+    public NotificationInboxServiceImpl(NotificationRepository notificationRepository, BroadcastJobRepository broadcastJobRepository, BroadcastReadMarkRepository readMarkRepository, BroadcastReceiptRepository receiptRepository, UnreadCounter unreadCounter, PlatformTransactionManager transactionManager) {
+        this.notificationRepository = notificationRepository;
+        this.broadcastJobRepository = broadcastJobRepository;
+        this.readMarkRepository = readMarkRepository;
+        this.receiptRepository = receiptRepository;
+        this.unreadCounter = unreadCounter;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationDTO.NotificationPage getInbox(User user, String cursor, Integer limit) {
+        int pageSize = resolvePageSize(limit);
+        SearchCursor after = cursor != null && !cursor.isBlank()
+                ? SearchCursor.decode(cursor)
+                : new SearchCursor(FIRST_PAGE, Long.MAX_VALUE);
+
+        List<NotificationDTO.NotificationResponse> page = notificationRepository
+                .findInboxPage(user.getId(), after.getTime(), after.getId(), PageRequest.of(0, pageSize + 1))
+                .stream()
+                .map(this::convertToResponse)
+                .collect(Collectors.toCollection(ArrayList::new));
+
+        // A user sees few broadcasts, so they are filtered against the cursor in memory
+        BroadcastReadMark mark = readMark(user.getId());
+        Map<Long, BroadcastReceipt> receipts = receipts(user.getId(), mark);
+        for (BroadcastJob broadcast : visibleBroadcasts(user, mark)) {
+            BroadcastReceipt receipt = receipts.get(broadcast.getId());
+            if (receipt != null && receipt.getDismissed()) {
+                continue;
+            }
+            NotificationDTO.NotificationResponse response = convertToResponse(broadcast, isRead(broadcast, mark, receipt));
+            if (isPast(response, after)) {
+                page.add(response);
+            }
+        }
+        page.sort(INBOX_ORDER);
+
+        String nextCursor = null;
+        if (page.size() > pageSize) {
+            page = new ArrayList<>(page.subList(0, pageSize));
+            NotificationDTO.NotificationResponse last = page.get(pageSize - 1);
+            nextCursor = new SearchCursor(last.getCreatedAt(), last.getId()).encode();
+        }
+        return new NotificationDTO.NotificationPage(page, nextCursor);
+    }
+
+    // Not read-only: the first call for a user seeds their counter row
+    @Override
+    public Long getUnreadCount(User user) {
+        return unreadCounter.get(user.getId(), () -> unreadBroadcasts(user));
+    }
+
+    @Override
+    public void markAsRead(User user, Long notificationId) {
+        if (notificationId < 0) {
+            updateBroadcastReceipt(user, -notificationId, receipt -> receipt.setIsRead(true));
+            return;
+        }
+
+        if (notificationRepository.markRead(notificationId, user.getId()) == 1) {
+            unreadCounter.rowsChanged(user.getId(), -1);
+            return;
+        }
+        // Nothing changed: already read, or not found / not the caller's, which this reports
+        ownedNotification(user, notificationId);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int markAllAsRead(User user) {
+        return inChunks(user, notificationRepository::markReadChunk, () -> {
+            BroadcastReadMark mark = readMark(user.getId());
+            List<BroadcastJob> visible = visibleBroadcasts(user, mark);
+            if (visible.isEmpty() || visible.get(0).getId() <= mark.getReadUpTo()) {
+                return 0L;
+            }
+            Map<Long, BroadcastReceipt> receipts = receipts(user.getId(), mark);
+            long unread = visible.stream()
+                    .filter(broadcast -> isUnread(broadcast, mark, receipts.get(broadcast.getId())))
+                    .count();
+            mark.setReadUpTo(visible.get(0).getId());
+            readMarkRepository.save(mark);
+            receiptRepository.deleteCoveredByRead(user.getId(), mark.getReadUpTo());
+            return unread;
+        });
+    }
+
+    @Override
+    public void delete(User user, Long notificationId) {
+        if (notificationId < 0) {
+            updateBroadcastReceipt(user, -notificationId, receipt -> receipt.setDismissed(true));
+            return;
+        }
+
+        Notification notification = ownedNotification(user, notificationId);
+        notificationRepository.delete(notification);
+        if (!Boolean.TRUE.equals(notification.getRead())) {
+            unreadCounter.rowsChanged(user.getId(), -1);
+        }
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public int deleteAll(User user) {
+        return inChunks(user, notificationRepository::deleteChunk, () -> {
+            BroadcastReadMark mark = readMark(user.getId());
+            List<BroadcastJob> visible = visibleBroadcasts(user, mark);
+            if (visible.isEmpty()) {
+                return 0L;
+            }
+            Map<Long, BroadcastReceipt> receipts = receipts(user.getId(), mark);
+            long shown = visible.stream()
+                    .filter(broadcast -> receipts.get(broadcast.getId()) == null || !receipts.get(broadcast.getId()).getDismissed())
+                    .count();
+            Long latest = visible.get(0).getId();
+            mark.setClearedUpTo(latest);
+            mark.setReadUpTo(Math.max(mark.getReadUpTo(), latest));
+            readMarkRepository.save(mark);
+            receiptRepository.deleteCoveredByCleared(user.getId(), latest);
+            return shown;
+        });
+    }
+
+    /**
+     * Runs a LIMITed bulk statement over the user's rows, one short transaction per chunk, until a chunk
+     * comes back short. Only that short chunk's transaction also moves the broadcast watermarks and resets
+     * the counter, so the reset never runs while rows it would have covered are left; a notification
+     * inserted meanwhile is either swept up by that chunk or counted after the reset.
+     */
+    private int inChunks(User user, BulkChunk chunk, Supplier<Long> broadcasts) {
+        int chunkSize = AppConstants.NOTIFICATION_BULK_CHUNK_SIZE;
+        long[] affected = {0};
+        Boolean finished;
+        do {
+            finished = transactionTemplate.execute(status -> {
+                int rows = chunk.apply(user.getId(), chunkSize);
+                affected[0] += rows;
+                if (rows == chunkSize) {
+                    return false;
+                }
+                affected[0] += broadcasts.get();
+                unreadCounter.cleared(user.getId());
+                return true;
+            });
+        } while (!Boolean.TRUE.equals(finished));
+        return (int) affected[0];
+    }
+
+    private interface BulkChunk {
+        int apply(Long userId, int limit);
+    }
+
+    private Notification ownedNotification(User user, Long notificationId) {
+        Notification notification = notificationRepository.findById(notificationId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+
+        // Check ownership
+        if (!notification.getUser().getId().equals(user.getId())) {
+            throw new UnauthorizedException("Access denied");
+        }
+        return notification;
+    }
+
+    // Applies a read/dismiss to one broadcast (addressed to the user) and moves the badge if it was unread
+    private void updateBroadcastReceipt(User user, Long broadcastId, Consumer<BroadcastReceipt> change) {
+        BroadcastJob broadcast = broadcastJobRepository.findById(broadcastId)
+                .orElseThrow(() -> new ResourceNotFoundException("Notification not found"));
+        if (!isAddressedTo(broadcast, user)) {
+            throw new UnauthorizedException("Access denied");
+        }
+
+        BroadcastReadMark mark = readMark(user.getId());
+        BroadcastReceipt receipt = receiptRepository.findByUserIdAndBroadcastId(user.getId(), broadcastId)
+                .orElseGet(() -> {
+                    BroadcastReceipt created = new BroadcastReceipt();
+                    created.setUserId(user.getId());
+                    created.setBroadcastId(broadcastId);
+                    return created;
+                });
+        boolean wasUnread = isUnread(broadcast, mark, receipt);
+        change.accept(receipt);
+        receiptRepository.save(receipt);
+        if (wasUnread && !isUnread(broadcast, mark, receipt)) {
+            unreadCounter.broadcastsChanged(user.getId(), -1);
+        }
+    }
+
+    private long unreadBroadcasts(User user) {
+        BroadcastReadMark mark = readMark(user.getId());
+        Map<Long, BroadcastReceipt> receipts = receipts(user.getId(), mark);
+        return visibleBroadcasts(user, mark).stream()
+                .filter(broadcast -> isUnread(broadcast, mark, receipts.get(broadcast.getId())))
+                .count();
+    }
+
+    private List<BroadcastJob> visibleBroadcasts(User user, BroadcastReadMark mark) {
+        LocalDateTime since = user.getCreatedAt() != null ? user.getCreatedAt() : LocalDateTime.of(1970, 1, 1, 0, 0);
+        return broadcastJobRepository.findVisibleTo(user.getRole(), since, mark.getClearedUpTo());
+    }
+
+    private Map<Long, BroadcastReceipt> receipts(Long userId, BroadcastReadMark mark) {
+        return receiptRepository.findByUserIdAndBroadcastIdGreaterThan(userId, mark.getClearedUpTo())
+                .stream()
+                .collect(Collectors.toMap(BroadcastReceipt::getBroadcastId, Function.identity()));
+    }
+
+    private BroadcastReadMark readMark(Long userId) {
+        return readMarkRepository.findById(userId).orElseGet(() -> {
+            BroadcastReadMark mark = new BroadcastReadMark();
+            mark.setUserId(userId);
+            return mark;
+        });
+    }
+
+    private static boolean isPast(NotificationDTO.NotificationResponse response, SearchCursor after) {
+        int byTime = response.getCreatedAt().compareTo(after.getTime());
+        return byTime < 0 || (byTime == 0 && response.getId() < after.getId());
+    }
+
+    private static int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return AppConstants.NOTIFICATION_DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, AppConstants.NOTIFICATION_MAX_PAGE_SIZE);
+    }
+
+    private static boolean isAddressedTo(BroadcastJob broadcast, User user) {
+        boolean roleMatches = broadcast.getRoleFilter() == null || broadcast.getRoleFilter() == user.getRole();
+        return roleMatches && (user.getCreatedAt() == null || !broadcast.getCreatedAt().isBefore(user.getCreatedAt()));
+    }
+
+    private static boolean isRead(BroadcastJob broadcast, BroadcastReadMark mark, BroadcastReceipt receipt) {
+        return broadcast.getId() <= mark.getReadUpTo() || (receipt != null && receipt.getIsRead());
+    }
+
+    private static boolean isUnread(BroadcastJob broadcast, BroadcastReadMark mark, BroadcastReceipt receipt) {
+        boolean hidden = broadcast.getId() <= mark.getClearedUpTo() || (receipt != null && receipt.getDismissed());
+        return !hidden && !isRead(broadcast, mark, receipt);
+    }
+
+    private NotificationDTO.NotificationResponse convertToResponse(NotificationRepository.InboxRow notification) {
+        NotificationDTO.NotificationResponse response = new NotificationDTO.NotificationResponse();
+        response.setId(notification.getId());
+        response.setTitle(notification.getTitle());
+        response.setMessage(notification.getMessage());
+        response.setType(notification.getType().toString());
+        response.setIsRead(notification.getIsRead());
+        response.setRelatedEntityType(notification.getRelatedEntityType());
+        response.setRelatedEntityId(notification.getRelatedEntityId());
+        response.setActions(notification.getActions());
+        response.setCreatedAt(notification.getCreatedAt());
+        return response;
+    }
+
+    private NotificationDTO.NotificationResponse convertToResponse(BroadcastJob broadcast, boolean read) {
+        NotificationDTO.NotificationResponse response = new NotificationDTO.NotificationResponse();
+        response.setId(-broadcast.getId());
+        response.setTitle(broadcast.getTitle());
+        response.setMessage(broadcast.getMessage());
+        response.setType(Notification.NotificationType.INFO.toString());
+        response.setIsRead(read);
+        response.setRelatedEntityType(BROADCAST_ENTITY_TYPE);
+        response.setCreatedAt(broadcast.getCreatedAt());
+        return response;
+    }
+}
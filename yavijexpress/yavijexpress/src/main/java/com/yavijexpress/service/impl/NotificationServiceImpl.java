@@ -1,28 +1,49 @@
 package com.yavijexpress.service.impl;
 
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yavijexpress.dto.NotificationDTO;
 import com.yavijexpress.entity.*;
-import com.yavijexpress.repository.NotificationRepository;
+import com.yavijexpress.exception.ResourceNotFoundException;
+import com.yavijexpress.notification.NotificationOutboxWorker;
+import com.yavijexpress.notification.UnreadCounter;
+import com.yavijexpress.repository.BroadcastJobRepository;
+import com.yavijexpress.repository.NotificationOutboxRepository;
 import com.yavijexpress.service.NotificationService;
-import com.yavijexpress.repository.UserRepository;import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import java.time.LocalDateTime;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
 import java.util.HashMap;
+import java.util.List;
 import java.util.Map;
+import java.util.stream.Collectors;
 
+/**
+ * Records one outbox intent per send* call in the caller's transaction; the notification rows and
+ * WebSocket pushes are produced later by {@link com.yavijexpress.notification.NotificationDispatcher}
+ * on the outbox worker pool.
+ */
 @Service
 @Transactional
 public class NotificationServiceImpl implements NotificationService {
 
     @Autowired
-    private UserRepository userRepository;
+    private NotificationOutboxRepository outboxRepository;
 
     @Autowired
-    private NotificationRepository notificationRepository;
-    
+    private NotificationOutboxWorker outboxWorker;
+
+    @Autowired
+    private BroadcastJobRepository broadcastJobRepository;
+
     @Autowired
-    private SimpMessagingTemplate messagingTemplate;
+    private UnreadCounter unreadCounter;
+
+    @Autowired
+    private ObjectMapper objectMapper;
 
     @Override
     public void sendTripCreatedNotification(Trip trip) {
@@ -31,279 +52,100 @@ public class NotificationServiceImpl implements NotificationService {
     }
 
     @Override
-    public void sendBroadcastNotification(User.UserRole roleFilter, String title, String message) {
-        var users = userRepository.findByRole(roleFilter);
-        for (User user : users) {
-            Notification notification = createNotification(
-                    user,
-                    title,
-                    message,
-                    Notification.NotificationType.INFO,
-                    "ADMIN_BROADCAST",
-                    null
-            );
-            Notification saved = notificationRepository.save(notification);
-            sendRealTimeNotification(user.getId(), saved);
-        }
+    public Long sendBroadcastNotification(User.UserRole roleFilter, String title, String message) {
+        return queueBroadcast(roleFilter, title, message);
     }
 
     @Override
-    public void sendBroadcastNotificationToAll(String title, String message) {
-        var users = userRepository.findAll();
-        for (User user : users) {
-            Notification notification = createNotification(
-                    user,
-                    title,
-                    message,
-                    Notification.NotificationType.INFO,
-                    "ADMIN_BROADCAST",
-                    null
-            );
-            Notification saved = notificationRepository.save(notification);
-            sendRealTimeNotification(user.getId(), saved);
-        }
+    public Long sendBroadcastNotificationToAll(String title, String message) {
+        return queueBroadcast(null, title, message);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public NotificationDTO.BroadcastProgress getBroadcastProgress(Long broadcastId) {
+        return broadcastJobRepository.findById(broadcastId)
+                .map(this::convertToBroadcastProgress)
+                .orElseThrow(() -> new ResourceNotFoundException("Broadcast not found"));
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<NotificationDTO.BroadcastProgress> getRecentBroadcasts(int limit) {
+        return broadcastJobRepository.findAllByOrderByIdDesc(PageRequest.of(0, limit)).stream()
+                .map(this::convertToBroadcastProgress)
+                .collect(Collectors.toList());
+    }
+
+    private Long queueBroadcast(User.UserRole roleFilter, String title, String message) {
+        BroadcastJob job = new BroadcastJob();
+        job.setRoleFilter(roleFilter);
+        job.setTitle(title);
+        job.setMessage(message);
+        BroadcastJob saved = broadcastJobRepository.save(job);
+        unreadCounter.evictAll();
+        enqueue(NotificationOutbox.Kind.BROADCAST, payload("broadcastId", saved.getId()));
+        return saved.getId();
     }
 
     @Override
     public void sendTripUpdatedNotification(Trip trip) {
-        // Notify all passengers who booked this trip
-        trip.getBookings().forEach(booking -> {
-            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
-                Notification notification = createNotification(
-                        booking.getPassenger(),
-                        "Trip Updated",
-                        String.format("Your trip from %s to %s has been updated",
-                                trip.getFromLocation(), trip.getToLocation()),
-                        Notification.NotificationType.INFO,
-                        "TRIP",
-                        trip.getId()
-                );
-                notificationRepository.save(notification);
-            }
-        });
+        enqueue(NotificationOutbox.Kind.TRIP_UPDATED, payload("tripId", trip.getId()));
     }
 
     @Override
     public void sendTripCancelledNotification(Trip trip, String reason) {
-        trip.getBookings().forEach(booking -> {
-            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
-                Notification notification = createNotification(
-                        booking.getPassenger(),
-                        "Trip Cancelled",
-                        String.format("Your trip from %s to %s has been cancelled. Reason: %s",
-                                trip.getFromLocation(), trip.getToLocation(), reason),
-                        Notification.NotificationType.ERROR,
-                        "TRIP",
-                        trip.getId()
-                );
-                notificationRepository.save(notification);
-            }
-        });
+        enqueue(NotificationOutbox.Kind.TRIP_CANCELLED, payload("tripId", trip.getId(), "reason", reason));
     }
 
     @Override
     public void sendTripStartedNotification(Trip trip) {
-        trip.getBookings().forEach(booking -> {
-            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
-                Notification notification = createNotification(
-                        booking.getPassenger(),
-                        "Trip Started",
-                        "Your ride has started. The driver is on the way.",
-                        Notification.NotificationType.INFO,
-                        "TRIP",
-                        trip.getId()
-                );
-                notificationRepository.save(notification);
-            }
-        });
+        enqueue(NotificationOutbox.Kind.TRIP_STARTED, payload("tripId", trip.getId()));
     }
 
     @Override
     public void sendTripCompletedNotification(Trip trip) {
-        // Notify driver
-        Notification driverNotification = createNotification(
-                trip.getDriver(),
-                "Trip Completed",
-                String.format("Your trip from %s to %s has been completed successfully",
-                        trip.getFromLocation(), trip.getToLocation()),
-                Notification.NotificationType.SUCCESS,
-                "TRIP",
-                trip.getId()
-        );
-        notificationRepository.save(driverNotification);
-
-        // Notify passengers
-        trip.getBookings().forEach(booking -> {
-            if (booking.getStatus() == Booking.BookingStatus.CONFIRMED) {
-                Notification passengerNotification = createNotification(
-                        booking.getPassenger(),
-                        "Trip Completed",
-                        "Your ride has been completed. Please rate your experience.",
-                        Notification.NotificationType.SUCCESS,
-                        "TRIP",
-                        trip.getId()
-                );
-                notificationRepository.save(passengerNotification);
-            }
-        });
+        enqueue(NotificationOutbox.Kind.TRIP_COMPLETED, payload("tripId", trip.getId()));
     }
 
     @Override
     public void sendBookingRequestNotification(Booking booking) {
-        String message = String.format(
-            "New Booking Request - Status: Pending Approval\n" +
-            "Passenger: %s\n" +
-            "Trip: %s to %s\n" +
-            "Departure: %s\n" +
-            "Seats: %d\n" +
-            "Amount: ₹%.2f",
-            booking.getPassenger().getName(),
-            booking.getTrip().getFromLocation(),
-            booking.getTrip().getToLocation(),
-            booking.getTrip().getDepartureTime(),
-            booking.getSeatsBooked(),
-            booking.getTotalAmount()
-        );
-        
-        Notification notification = createNotification(
-                booking.getTrip().getDriver(),
-                "New Booking Request",
-                message,
-                Notification.NotificationType.INFO,
-                "BOOKING",
-                booking.getId()
-        );
-        
-        String actions = String.format(
-            "[{\"label\":\"Accept\",\"action\":\"confirm\",\"url\":\"/api/bookings/%d/confirm\",\"style\":\"success\"}," +
-            "{\"label\":\"Deny\",\"action\":\"deny\",\"url\":\"/api/bookings/%d/deny\",\"style\":\"danger\"}]",
-            booking.getId(), booking.getId()
-        );
-        notification.setActions(actions);
-        
-        Notification saved = notificationRepository.save(notification);
-        sendRealTimeNotification(booking.getTrip().getDriver().getId(), saved);
+        enqueue(NotificationOutbox.Kind.BOOKING_REQUEST, payload("bookingId", booking.getId()));
     }
 
     @Override
     public void sendBookingConfirmedNotification(Booking booking) {
-        Trip trip = booking.getTrip();
-        User driver = trip.getDriver();
-        
-        String message = String.format(
-            "Your trip is booked successfully!\n\n" +
-            "Driver Details:\n" +
-            "Name: %s\n" +
-            "Phone: %s\n" +
-            "Vehicle: %s (%s)\n\n" +
-            "Trip Details:\n" +
-            "From: %s\n" +
-            "To: %s\n" +
-            "Departure: %s\n\n" +
-            "Pickup OTP: %s\n" +
-            "Please give this OTP to the driver during pickup.",
-            driver.getName(),
-            driver.getMobile(),
-            trip.getVehicle().getModel(),
-            trip.getVehicle().getVehicleNumber(),
-            trip.getFromLocation(),
-            trip.getToLocation(),
-            trip.getDepartureTime(),
-            booking.getPickupOtp()
-        );
-        
-        Notification notification = createNotification(
-                booking.getPassenger(),
-                "Trip Booked Successfully",
-                message,
-                Notification.NotificationType.SUCCESS,
-                "BOOKING",
-                booking.getId()
-        );
-        Notification saved = notificationRepository.save(notification);
-        sendRealTimeNotification(booking.getPassenger().getId(), saved);
+        enqueue(NotificationOutbox.Kind.BOOKING_CONFIRMED, payload("bookingId", booking.getId()));
     }
 
     @Override
     public void sendBookingDeniedNotification(Booking booking) {
-        Notification notification = createNotification(
-                booking.getPassenger(),
-                "Trip Request Denied",
-                "Your trip request was denied by the driver.",
-                Notification.NotificationType.WARNING,
-                "BOOKING",
-                booking.getId()
-        );
-        Notification saved = notificationRepository.save(notification);
-        sendRealTimeNotification(booking.getPassenger().getId(), saved);
+        enqueue(NotificationOutbox.Kind.BOOKING_DENIED, payload("bookingId", booking.getId()));
     }
 
     @Override
     public void sendBookingCancelledNotification(Booking booking, String reason) {
-        // Notify passenger
-        Notification passengerNotification = createNotification(
-                booking.getPassenger(),
-                "Booking Cancelled",
-                String.format("Your booking has been cancelled. Reason: %s", reason),
-                Notification.NotificationType.WARNING,
-                "BOOKING",
-                booking.getId()
-        );
-        notificationRepository.save(passengerNotification);
-
-        // Notify driver
-        Notification driverNotification = createNotification(
-                booking.getTrip().getDriver(),
-                "Booking Cancelled",
-                String.format("A booking has been cancelled by %s. Reason: %s",
-                        booking.getPassenger().getName(), reason),
-                Notification.NotificationType.WARNING,
-                "BOOKING",
-                booking.getId()
-        );
-        notificationRepository.save(driverNotification);
+        enqueue(NotificationOutbox.Kind.BOOKING_CANCELLED, payload("bookingId", booking.getId(), "reason", reason));
     }
 
     @Override
     public void sendPaymentSuccessNotification(Payment payment) {
-        Notification notification = createNotification(
-                payment.getBooking().getPassenger(),
-                "Payment Successful",
-                String.format("Payment of ₹%.2f for booking #%d was successful",
-                        payment.getAmount(), payment.getBooking().getId()),
-                Notification.NotificationType.SUCCESS,
-                "PAYMENT",
-                payment.getId()
-        );
-        notificationRepository.save(notification);
+        enqueue(NotificationOutbox.Kind.PAYMENT_SUCCESS, payload("paymentId", payment.getId()));
+    }
+
+    @Override
+    public void sendInsuranceExpiryNotification(Vehicle vehicle) {
+        enqueue(NotificationOutbox.Kind.INSURANCE_EXPIRY, payload("vehicleId", vehicle.getId()));
     }
 
     @Override
     public void sendComplaintSubmittedNotification(Complaint complaint) {
-        Notification notification = createNotification(
-                complaint.getReportedBy(),
-                "Complaint Submitted",
-                String.format("Your complaint '%s' has been submitted successfully. We'll review it soon.",
-                        complaint.getTitle()),
-                Notification.NotificationType.INFO,
-                "COMPLAINT",
-                complaint.getId()
-        );
-        notificationRepository.save(notification);
+        enqueue(NotificationOutbox.Kind.COMPLAINT_SUBMITTED, payload("complaintId", complaint.getId()));
     }
 
     @Override
     public void sendComplaintStatusUpdateNotification(Complaint complaint) {
-        Notification notification = createNotification(
-                complaint.getReportedBy(),
-                "Complaint Status Updated",
-                String.format("Your complaint '%s' status has been updated to: %s",
-                        complaint.getTitle(), complaint.getStatus()),
-                Notification.NotificationType.INFO,
-                "COMPLAINT",
-                complaint.getId()
-        );
-        notificationRepository.save(notification);
+        enqueue(NotificationOutbox.Kind.COMPLAINT_STATUS_UPDATE, payload("complaintId", complaint.getId()));
     }
 
     @Override
@@ -313,60 +155,69 @@ public class NotificationServiceImpl implements NotificationService {
 
     @Override
     public void sendEmergencyNotification(User user, String title, String message, Long alertId) {
-        Notification notification = createNotification(
-                user,
-                title,
-                message,
-                Notification.NotificationType.EMERGENCY_ALERT,
-                "EMERGENCY",
-                alertId
-        );
-        notificationRepository.save(notification);
+        sendEmergencyNotification(user.getId(), title, message, alertId);
     }
 
     @Override
     public void sendAdminNotification(User admin, String title, String message, String entityType, Long entityId) {
-        Notification notification = createNotification(
-                admin,
-                title,
-                message,
-                Notification.NotificationType.WARNING,
-                entityType,
-                entityId
-        );
-        notificationRepository.save(notification);
+        sendAdminNotification(admin.getId(), title, message, entityType, entityId);
     }
 
-    private Notification createNotification(User user, String title, String message,
-                                            Notification.NotificationType type,
-                                            String entityType, Long entityId) {
-        Notification notification = new Notification();
-        notification.setUser(user);
-        notification.setTitle(title);
-        notification.setMessage(message);
-        notification.setType(type);
-        notification.setRelatedEntityType(entityType);
-        notification.setRelatedEntityId(entityId);
-        notification.setIsRead(false);
-
-        return notification;
+    @Override
+    public void sendEmergencyNotification(Long userId, String title, String message, Long alertId) {
+        enqueue(NotificationOutbox.Kind.EMERGENCY,
+                payload("userId", userId, "title", title, "message", message, "alertId", alertId));
     }
 
-    private void sendRealTimeNotification(Long userId, Notification notification) {
+    @Override
+    public void sendAdminNotification(Long adminId, String title, String message, String entityType, Long entityId) {
+        enqueue(NotificationOutbox.Kind.ADMIN, payload("userId", adminId, "title", title, "message", message,
+                "entityType", entityType, "entityId", entityId));
+    }
+
+    private NotificationDTO.BroadcastProgress convertToBroadcastProgress(BroadcastJob job) {
+        NotificationDTO.BroadcastProgress progress = new NotificationDTO.BroadcastProgress();
+        progress.setId(job.getId());
+        progress.setTitle(job.getTitle());
+        progress.setTargetAudience(job.getRoleFilter() != null ? job.getRoleFilter().name() : "ALL");
+        progress.setStatus(job.getStatus().name());
+        progress.setTotalRecipients(job.getTotalRecipients());
+        progress.setProcessedRecipients(job.getProcessedRecipients());
+        progress.setCreatedAt(job.getCreatedAt());
+        progress.setStartedAt(job.getStartedAt());
+        progress.setFinishedAt(job.getFinishedAt());
+        progress.setLastError(job.getLastError());
+        return progress;
+    }
+
+    private void enqueue(NotificationOutbox.Kind kind, Map<String, Object> payload) {
+        NotificationOutbox intent = new NotificationOutbox();
+        intent.setKind(kind);
         try {
-            Map<String, Object> notificationData = new HashMap<>();
-            notificationData.put("title", notification.getTitle());
-            notificationData.put("message", notification.getMessage());
-            notificationData.put("type", notification.getType().toString());
-            notificationData.put("entityType", notification.getRelatedEntityType());
-            notificationData.put("entityId", notification.getRelatedEntityId());
-            notificationData.put("actions", notification.getActions());
-            notificationData.put("timestamp", LocalDateTime.now());
-            
-            messagingTemplate.convertAndSend("/topic/notifications/" + userId, notificationData);
-        } catch (Exception e) {
-            // Log error but don't fail notification creation
+            intent.setPayload(objectMapper.writeValueAsString(payload));
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Could not serialize notification payload", e);
+        }
+        outboxRepository.save(intent);
+
+        // Wake the worker once the intent is visible; the poll covers rollbacks and missed wake-ups
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    outboxWorker.wakeUp();
+                }
+            });
+        } else {
+            outboxWorker.wakeUp();
         }
     }
 
-}
\ No newline at end of file
+    private static Map<String, Object> payload(Object... keyValues) {
+        Map<String, Object> payload = new HashMap<>();
+        for (int i = 0; i < keyValues.length; i += 2) {
+            payload.put((String) keyValues[i], keyValues[i + 1]);
+        }
+        return payload;
+    }
+}
@@ -4,10 +4,12 @@ import com.yavijexpress.dto.PaymentDTO;
 import com.yavijexpress.entity.Booking;
 import com.yavijexpress.entity.Payment;
 import com.yavijexpress.exception.*;
+import com.yavijexpress.jobs.SweepRunner;
 import com.yavijexpress.repository.BookingRepository;
 import com.yavijexpress.repository.PaymentRepository;
 import com.yavijexpress.service.BookingService;
 import com.yavijexpress.service.PaymentService;
+import com.yavijexpress.utils.AppConstants;
 import com.razorpay.Order;
 import com.razorpay.RazorpayClient;
 import com.razorpay.RazorpayException;
@@ -15,9 +17,12 @@ import lombok.RequiredArgsConstructor;
 import org.json.JSONObject;
 import org.modelmapper.ModelMapper;
 import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.List;
 
 @Service
 @Transactional
@@ -26,11 +31,13 @@ public class PaymentServiceImpl implements PaymentService {
     private final PaymentRepository paymentRepository;
     private final BookingRepository bookingRepository;
     private final ModelMapper modelMapper;
+    private final SweepRunner sweepRunner;
 
-    public PaymentServiceImpl(PaymentRepository paymentRepository, BookingRepository bookingRepository, ModelMapper modelMapper) {
+    public PaymentServiceImpl(PaymentRepository paymentRepository, BookingRepository bookingRepository, ModelMapper modelMapper, SweepRunner sweepRunner) {
         this.paymentRepository = paymentRepository;
         this.bookingRepository = bookingRepository;
         this.modelMapper = modelMapper;
+        this.sweepRunner = sweepRunner;
     }
 
     @Value("${razorpay.key.id}")
@@ -106,18 +113,17 @@ public class PaymentServiceImpl implements PaymentService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void reconcilePayments() {
-        java.time.LocalDateTime cutoff = java.time.LocalDateTime.now().minusMinutes(30);
-
-        paymentRepository.findAll().stream()
-                .filter(payment -> payment.getStatus() == Payment.PaymentStatus.PENDING)
-                .filter(payment -> payment.getCreatedAt() != null && payment.getCreatedAt().isBefore(cutoff))
-                .forEach(payment -> {
-                    payment.setStatus(Payment.PaymentStatus.FAILED);
-                    payment.setNotes((payment.getNotes() != null ? payment.getNotes() + " | " : "")
-                            + "Auto-failed by reconciliation job due to timeout");
-                    paymentRepository.save(payment);
-                });
+        LocalDateTime cutoff = LocalDateTime.now().minusMinutes(AppConstants.PAYMENT_TIMEOUT_MINUTES);
+
+        sweepRunner.run("payment-reconciliation", AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS, limit -> {
+            List<Long> ids = paymentRepository.findStalePendingPaymentIds(cutoff, PageRequest.of(0, limit));
+            if (!ids.isEmpty()) {
+                paymentRepository.failPendingPayments(ids, "Auto-failed by reconciliation job due to timeout");
+            }
+            return ids.size();
+        });
     }
 
     @Override
@@ -0,0 +1,179 @@
+package com.yavijexpress.service.impl;
+
+import com.yavijexpress.entity.Booking;
+import com.yavijexpress.repository.BookingRepository;
+import com.yavijexpress.repository.TripRepository;
+import com.yavijexpress.search.TripSearchIndex;
+import com.yavijexpress.service.NotificationService;
+import com.yavijexpress.service.SeatHoldService;
+import com.yavijexpress.utils.HashedWheelTimer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.task.TaskRejectedException;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Seat holds for PENDING bookings. Each hold is armed in a hashed timing wheel and lapses exactly at
+ * hold_expires_at (to the second); the deadline itself is stored on the booking, so holds are re-armed
+ * from the database after a restart. The wheel thread only schedules: a lapsed hold is expired (its
+ * transaction and notification) on the hold-expiry pool.
+ */
+@Service
+public class SeatHoldServiceImpl implements SeatHoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(SeatHoldServiceImpl.class);
+    private static final int RELOAD_BATCH_SIZE = 500;
+
+    private final BookingRepository bookingRepository;
+    private final TripRepository tripRepository;
+    private final TripSearchIndex tripSearchIndex;
+    private final NotificationService notificationService;
+    private final TransactionTemplate transactionTemplate;
+    private final ThreadPoolTaskExecutor expiryExecutor;
+    private final Duration holdTtl;
+    private final HashedWheelTimer<Long> timer = new HashedWheelTimer<>("seat-hold-timer", 1, TimeUnit.SECONDS, 512);
+
+    public SeatHoldServiceImpl(BookingRepository bookingRepository, TripRepository tripRepository, TripSearchIndex tripSearchIndex, NotificationService notificationService, PlatformTransactionManager transactionManager, @Qualifier("holdExpiryExecutor") ThreadPoolTaskExecutor expiryExecutor, @Value("${booking.hold.ttl-minutes:30}") long holdTtlMinutes) {
+        this.bookingRepository = bookingRepository;
+        this.tripRepository = tripRepository;
+        this.tripSearchIndex = tripSearchIndex;
+        this.notificationService = notificationService;
+        this.transactionTemplate = new TransactionTemplate(transactionManager);
+        this.expiryExecutor = expiryExecutor;
+        this.holdTtl = Duration.ofMinutes(holdTtlMinutes);
+    }
+
+    @Override
+    public void hold(Booking booking) {
+        LocalDateTime expiresAt = LocalDateTime.now().plus(holdTtl);
+        booking.setHoldExpiresAt(expiresAt);
+        afterCommit(() -> arm(booking.getId(), expiresAt));
+    }
+
+    @Override
+    public void release(Long bookingId) {
+        afterCommit(() -> timer.cancel(bookingId));
+    }
+
+    @Override
+    public boolean expire(Long bookingId) {
+        return Boolean.TRUE.equals(transactionTemplate.execute(status -> expireInTransaction(bookingId)));
+    }
+
+    // Runs inside the sweep chunk's transaction, so the whole chunk commits once
+    @Override
+    public int expireLapsedHolds(int limit) {
+        LocalDateTime now = LocalDateTime.now();
+        List<Long> lapsed = bookingRepository.findLapsedHoldIds(now, now.minus(holdTtl), PageRequest.of(0, limit));
+        int expired = 0;
+        for (Long bookingId : lapsed) {
+            timer.cancel(bookingId);
+            if (expireInTransaction(bookingId)) {
+                expired++;
+            }
+        }
+        return expired;
+    }
+
+    private boolean expireInTransaction(Long bookingId) {
+        LocalDateTime now = LocalDateTime.now();
+        if (bookingRepository.expireHold(bookingId, now, now.minus(holdTtl)) == 0) {
+            return false;
+        }
+        Booking booking = bookingRepository.findById(bookingId).orElse(null);
+        if (booking == null) {
+            return false;
+        }
+        Long tripId = booking.getTrip().getId();
+        tripRepository.releaseSeats(tripId, booking.getSeatsBooked());
+        Integer availableSeats = tripRepository.findAvailableSeats(tripId);
+        if (availableSeats != null) {
+            tripSearchIndex.updateAvailableSeats(tripId, availableSeats);
+        }
+
+        try {
+            notificationService.sendBookingCancelledNotification(booking, "Seat hold expired");
+        } catch (Exception e) {
+            // Log but don't keep the seats held
+        }
+        return true;
+    }
+
+    @Override
+    public int pendingHolds() {
+        return timer.pending();
+    }
+
+    // Re-arm every PENDING booking; lapsed ones fire on the next tick
+    @EventListener(ApplicationReadyEvent.class)
+    public void reloadHolds() {
+        long afterId = 0L;
+        int armed = 0;
+        List<BookingRepository.SeatHold> batch;
+        do {
+            batch = bookingRepository.findPendingHoldsAfter(afterId, PageRequest.of(0, RELOAD_BATCH_SIZE));
+            for (BookingRepository.SeatHold hold : batch) {
+                LocalDateTime expiresAt = hold.getHoldExpiresAt() != null
+                        ? hold.getHoldExpiresAt()
+                        : hold.getBookedAt().plus(holdTtl);
+                arm(hold.getId(), expiresAt);
+                afterId = hold.getId();
+                armed++;
+            }
+        } while (batch.size() == RELOAD_BATCH_SIZE);
+        log.info("Re-armed {} seat holds", armed);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop();
+    }
+
+    private void arm(Long bookingId, LocalDateTime expiresAt) {
+        long delayMillis = Duration.between(LocalDateTime.now(), expiresAt).toMillis();
+        timer.schedule(bookingId, delayMillis, TimeUnit.MILLISECONDS, () -> {
+            try {
+                expiryExecutor.execute(() -> expireQuietly(bookingId));
+            } catch (TaskRejectedException e) {
+                // Still PENDING in the table, so the booking-expiry sweep lapses it instead
+                log.warn("Hold expiry pool is full; leaving booking {} to the sweep", bookingId);
+            }
+        });
+    }
+
+    private void expireQuietly(Long bookingId) {
+        try {
+            expire(bookingId);
+        } catch (Exception e) {
+            log.error("Failed to expire seat hold for booking {}", bookingId, e);
+        }
+    }
+
+    private void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+}
@@ -3,61 +3,122 @@ package com.yavijexpress.service.impl;
 import com.yavijexpress.dto.TripDTO;
 import com.yavijexpress.entity.*;
 import com.yavijexpress.exception.*;
+import com.yavijexpress.jobs.SweepRunner;
 import com.yavijexpress.repository.*;
+import com.yavijexpress.search.GeoHash;
+import com.yavijexpress.search.LocationTokenizer;
+import com.yavijexpress.search.TripSearchIndex;
 import com.yavijexpress.service.TripService;
 import com.yavijexpress.service.NotificationService;
+import com.yavijexpress.utils.AppConstants;
+import com.yavijexpress.utils.SearchCursor;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
 import java.util.List;
+import java.util.Set;
 import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class TripServiceImpl implements TripService {
 
+    private static final int INDEX_WARMUP_BATCH_SIZE = 500;
+
     private final TripRepository tripRepository;
     private final VehicleRepository vehicleRepository;
     private final UserServiceImpl userService;
     private final BookingRepository bookingRepository;
     private final NotificationService notificationService;
     private final ModelMapper modelMapper;
+    private final TripSearchIndex tripSearchIndex;
+    private final SweepRunner sweepRunner;
 
-    public TripServiceImpl(TripRepository tripRepository, VehicleRepository vehicleRepository, UserServiceImpl userService, BookingRepository bookingRepository, NotificationService notificationService, ModelMapper modelMapper) {
+    public TripServiceImpl(TripRepository tripRepository, VehicleRepository vehicleRepository, UserServiceImpl userService, BookingRepository bookingRepository, NotificationService notificationService, ModelMapper modelMapper, TripSearchIndex tripSearchIndex, SweepRunner sweepRunner) {
         this.tripRepository = tripRepository;
         this.vehicleRepository = vehicleRepository;
         this.userService = userService;
         this.bookingRepository = bookingRepository;
         this.notificationService = notificationService;
         this.modelMapper = modelMapper;
+        this.tripSearchIndex = tripSearchIndex;
+        this.sweepRunner = sweepRunner;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void warmSearchIndex() {
+        reindexScheduledTrips();
+        tripSearchIndex.markReady();
+    }
+
+    // Repairs changes made through other instances and after-commit updates that landed out of order
+    @Scheduled(fixedDelayString = "${search.index.reconcile-ms:300000}", initialDelayString = "${search.index.reconcile-ms:300000}")
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public void reconcileSearchIndex() {
+        if (tripSearchIndex.isReady()) {
+            reindexScheduledTrips();
+        }
+    }
+
+    // Reads every scheduled trip into the search index in id-ordered batches, one short transaction each
+    private void reindexScheduledTrips() {
+        long startedAt = tripSearchIndex.beginReconcile();
+        Set<Long> seenIds = new HashSet<>();
+        long afterId = 0L;
+        List<Trip> batch;
+        do {
+            batch = tripRepository.findScheduledTripsAfter(afterId, PageRequest.of(0, INDEX_WARMUP_BATCH_SIZE));
+            for (Trip trip : batch) {
+                tripSearchIndex.reconcile(convertToTripResponse(trip), trip.getRoutePolyline(), startedAt);
+                seenIds.add(trip.getId());
+                afterId = trip.getId();
+            }
+        } while (batch.size() == INDEX_WARMUP_BATCH_SIZE);
+        tripSearchIndex.finishReconcile(seenIds, startedAt);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public void refreshSearchIndex(Long tripId) {
+        tripRepository.findById(tripId).ifPresentOrElse(
+                trip -> tripSearchIndex.upsert(convertToTripResponse(trip), trip.getRoutePolyline()),
+                () -> tripSearchIndex.remove(tripId)
+        );
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkAndUpdateTripStatuses() {
         LocalDateTime now = LocalDateTime.now();
 
-        // Fetch all trips (JpaRepository provides findAll())
-        List<Trip> trips = tripRepository.findAll();
-
-        for (Trip trip : trips) {
-            // If the trip was scheduled and departure time has passed, mark it as ONGOING
-            if (trip.getStatus() == Trip.TripStatus.SCHEDULED
-                    && trip.getDepartureTime() != null
-                    && trip.getDepartureTime().isBefore(now)) {
-                trip.setStatus(Trip.TripStatus.ONGOING);
+        // Scheduled trips whose departure time has passed become ONGOING
+        sweepRunner.run("trip-departures", AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS, limit -> {
+            List<Long> ids = tripRepository.findDepartedTripIds(now, PageRequest.of(0, limit));
+            if (!ids.isEmpty()) {
+                tripRepository.transitionStatus(ids, Trip.TripStatus.SCHEDULED, Trip.TripStatus.ONGOING, now);
+                tripSearchIndex.removeAll(ids);
             }
+            return ids.size();
+        });
 
-            // If the trip is ongoing and expected arrival time has passed, mark it as COMPLETED
-            if (trip.getStatus() == Trip.TripStatus.ONGOING
-                    && trip.getExpectedArrivalTime() != null
-                    && trip.getExpectedArrivalTime().isBefore(now)) {
-                trip.setStatus(Trip.TripStatus.COMPLETED);
+        // Ongoing trips whose expected arrival time has passed become COMPLETED
+        sweepRunner.run("trip-arrivals", AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS, limit -> {
+            List<Long> ids = tripRepository.findArrivedTripIds(now, PageRequest.of(0, limit));
+            if (!ids.isEmpty()) {
+                tripRepository.transitionStatus(ids, Trip.TripStatus.ONGOING, Trip.TripStatus.COMPLETED, now);
             }
-        }
-
-        tripRepository.saveAll(trips);
+            return ids.size();
+        });
     }
     @Override
     public TripDTO.TripResponse createTrip(Long driverId, TripDTO.TripRequest request) {
@@ -109,6 +170,10 @@ public class TripServiceImpl implements TripService {
         trip.setAvailableSeats(request.getTotalSeats());
         trip.setStatus(Trip.TripStatus.SCHEDULED);
         trip.setRoutePolyline(request.getRoutePolyline());
+        trip.setOriginLatitude(request.getOriginLatitude());
+        trip.setOriginLongitude(request.getOriginLongitude());
+        trip.setDestinationLatitude(request.getDestinationLatitude());
+        trip.setDestinationLongitude(request.getDestinationLongitude());
         trip.setIsFlexible(request.getIsFlexible());
         trip.setNotes(request.getNotes());
         trip.setDriver(driver);
@@ -116,11 +181,13 @@ public class TripServiceImpl implements TripService {
         trip.setSoberDeclaration(false); // Must be set before trip start
 
         Trip savedTrip = tripRepository.save(trip);
+        TripDTO.TripResponse response = convertToTripResponse(savedTrip);
+        tripSearchIndex.upsert(response, savedTrip.getRoutePolyline());
 
         // Send notification to nearby passengers
         notificationService.sendTripCreatedNotification(savedTrip);
 
-        return convertToTripResponse(savedTrip);
+        return response;
     }
 
     @Override
@@ -147,26 +214,39 @@ public class TripServiceImpl implements TripService {
             trip.setDepartureTime(request.getDepartureTime());
         }
         if (request.getPricePerSeat() != null) trip.setPricePerSeat(request.getPricePerSeat());
-        if (request.getTotalSeats() != null) {
-            // Cannot reduce seats below already booked seats
-            int bookedSeats = getBookedSeats(tripId);
-            if (request.getTotalSeats() < bookedSeats) {
-                throw new BadRequestException("Cannot reduce seats below already booked seats: " + bookedSeats);
+        if (request.getTotalSeats() != null && !request.getTotalSeats().equals(trip.getTotalSeats())) {
+            // Cannot reduce seats below already booked seats; resized in place so concurrent bookings are kept
+            if (tripRepository.resizeSeats(tripId, request.getTotalSeats()) == 0) {
+                throw new BadRequestException("Cannot reduce seats below already booked seats: "
+                        + (trip.getTotalSeats() - tripRepository.findAvailableSeats(tripId)));
             }
-            trip.setTotalSeats(request.getTotalSeats());
-            trip.setAvailableSeats(request.getTotalSeats() - bookedSeats);
         }
         if (request.getRoutePolyline() != null) trip.setRoutePolyline(request.getRoutePolyline());
+        if (request.getOriginLatitude() != null && request.getOriginLongitude() != null) {
+            trip.setOriginLatitude(request.getOriginLatitude());
+            trip.setOriginLongitude(request.getOriginLongitude());
+        }
+        if (request.getDestinationLatitude() != null && request.getDestinationLongitude() != null) {
+            trip.setDestinationLatitude(request.getDestinationLatitude());
+            trip.setDestinationLongitude(request.getDestinationLongitude());
+        }
         if (request.getDistanceKm() != null) trip.setDistanceKm(request.getDistanceKm());
         if (request.getIsFlexible() != null) trip.setIsFlexible(request.getIsFlexible());
         if (request.getNotes() != null) trip.setNotes(request.getNotes());
 
         Trip updatedTrip = tripRepository.save(trip);
+        TripDTO.TripResponse response = convertToTripResponse(updatedTrip);
+        if (request.getTotalSeats() != null) {
+            // Seat counters were changed in the database, not on the loaded entity
+            response.setTotalSeats(request.getTotalSeats());
+            response.setAvailableSeats(tripRepository.findAvailableSeats(tripId));
+        }
+        tripSearchIndex.upsert(response, updatedTrip.getRoutePolyline());
 
         // Notify passengers about trip update
         notificationService.sendTripUpdatedNotification(updatedTrip);
 
-        return convertToTripResponse(updatedTrip);
+        return response;
     }
 
     @Override
@@ -184,6 +264,7 @@ public class TripServiceImpl implements TripService {
         // Update trip status
         trip.setStatus(Trip.TripStatus.CANCELLED);
         tripRepository.save(trip);
+        tripSearchIndex.remove(tripId);
 
         // Cancel all bookings and process refunds
         List<Booking> bookings = bookingRepository.findByTripId(tripId);
@@ -205,37 +286,67 @@ public class TripServiceImpl implements TripService {
     }
 
     @Override
-    public List<TripDTO.TripResponse> searchTrips(TripDTO.TripSearchRequest request) {
-        List<Trip> trips = tripRepository.searchTrips(null, null, null, null);
-        
-        return trips.stream()
-                .filter(trip -> trip.getStatus() == Trip.TripStatus.SCHEDULED)
-                .filter(trip -> {
-                    if (request.getFromLocation() != null && !request.getFromLocation().trim().isEmpty()) {
-                        return trip.getFromLocation().toLowerCase().contains(request.getFromLocation().toLowerCase());
-                    }
-                    return true;
-                })
-                .filter(trip -> {
-                    if (request.getToLocation() != null && !request.getToLocation().trim().isEmpty()) {
-                        return trip.getToLocation().toLowerCase().contains(request.getToLocation().toLowerCase());
-                    }
-                    return true;
-                })
-                .filter(trip -> {
-                    if (request.getRequiredSeats() != null && request.getRequiredSeats() > 0) {
-                        return trip.getAvailableSeats() >= request.getRequiredSeats();
-                    }
-                    return true;
-                })
-                .filter(trip -> {
-                    if (request.getMaxPrice() != null && request.getMaxPrice() > 0) {
-                        return trip.getPricePerSeat() <= request.getMaxPrice();
-                    }
-                    return true;
-                })
-                .map(this::convertToTripResponse)
-                .collect(Collectors.toList());
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true) // no connection is taken when the index answers
+    public TripDTO.TripSearchPage searchTrips(TripDTO.TripSearchRequest request) {
+        int pageSize = resolvePageSize(request.getPageSize());
+
+        // Departure window: the requested calendar day, otherwise everything from now on
+        LocalDateTime startTime = LocalDateTime.now();
+        LocalDateTime endTime = LocalDateTime.of(9999, 12, 31, 0, 0);
+        if (request.getDepartureDate() != null) {
+            LocalDateTime dayStart = request.getDepartureDate().toLocalDate().atStartOfDay();
+            startTime = dayStart.isAfter(startTime) ? dayStart : startTime;
+            endTime = dayStart.plusDays(1);
+        }
+
+        // Without a cursor, start just before the window so the keyset predicate is a no-op
+        SearchCursor after = request.getCursor() != null && !request.getCursor().isBlank()
+                ? SearchCursor.decode(request.getCursor())
+                : new SearchCursor(startTime.minusNanos(1), Long.MAX_VALUE);
+
+        int seats = request.getRequiredSeats() != null && request.getRequiredSeats() > 0
+                ? request.getRequiredSeats() : 1;
+        Double maxPrice = request.getMaxPrice() != null && request.getMaxPrice() > 0
+                ? request.getMaxPrice() : null;
+
+        // Fetch one extra trip to know whether another page exists; the index avoids the DB entirely once warm
+        List<TripDTO.TripResponse> trips;
+        if (tripSearchIndex.isReady()) {
+            trips = tripSearchIndex.search(
+                    request,
+                    startTime,
+                    endTime,
+                    seats,
+                    maxPrice,
+                    after,
+                    pageSize + 1
+            );
+        } else if (TripSearchIndex.isGeoSearch(request)) {
+            trips = searchTripsNear(request, startTime, endTime, seats, maxPrice, after, pageSize + 1);
+        } else {
+            trips = tripRepository.searchTrips(
+                    LocationTokenizer.likePattern(request.getFromLocation()),
+                    LocationTokenizer.likePattern(request.getToLocation()),
+                    startTime,
+                    endTime,
+                    seats,
+                    maxPrice,
+                    after.getTime(),
+                    after.getId(),
+                    PageRequest.of(0, pageSize + 1)
+            ).stream()
+                    .map(this::convertToTripResponse)
+                    .collect(Collectors.toList());
+        }
+
+        String nextCursor = null;
+        if (trips.size() > pageSize) {
+            trips = trips.subList(0, pageSize);
+            TripDTO.TripResponse last = trips.get(pageSize - 1);
+            nextCursor = new SearchCursor(last.getDepartureTime(), last.getId()).encode();
+        }
+
+        return new TripDTO.TripSearchPage(new ArrayList<>(trips), nextCursor);
     }
 
     @Override
@@ -270,6 +381,7 @@ public class TripServiceImpl implements TripService {
         trip.setSoberDeclaration(true);
         trip.setStatus(Trip.TripStatus.ONGOING);
         tripRepository.save(trip);
+        tripSearchIndex.remove(tripId);
 
         // Send notifications to passengers
         notificationService.sendTripStartedNotification(trip);
@@ -285,6 +397,7 @@ public class TripServiceImpl implements TripService {
 
         trip.setStatus(Trip.TripStatus.COMPLETED);
         tripRepository.save(trip);
+        tripSearchIndex.remove(tripId);
 
         // Update driver and passenger ride counts
         User driver = trip.getDriver();
@@ -328,11 +441,40 @@ public class TripServiceImpl implements TripService {
                 .orElseThrow(() -> new ResourceNotFoundException("Trip not found"));
     }
 
-    private int getBookedSeats(Long tripId) {
-        List<Booking> bookings = bookingRepository.findConfirmedBookingsByTripId(tripId);
-        return bookings.stream()
-                .mapToInt(Booking::getSeatsBooked)
-                .sum();
+    // Bounding-box fallback for coordinate searches while the index (and its route grid) is still warming up
+    private List<TripDTO.TripResponse> searchTripsNear(TripDTO.TripSearchRequest request, LocalDateTime startTime,
+                                                       LocalDateTime endTime, int seats, Double maxPrice,
+                                                       SearchCursor after, int limit) {
+        double radiusKm = TripSearchIndex.radiusKm(request);
+        double[] pickup = GeoHash.boundingBox(request.getOriginLatitude(), request.getOriginLongitude(), radiusKm);
+        double[] drop = request.getDestinationLatitude() != null && request.getDestinationLongitude() != null
+                ? GeoHash.boundingBox(request.getDestinationLatitude(), request.getDestinationLongitude(), radiusKm)
+                : null;
+        return tripRepository.searchTripsNear(
+                pickup[0], pickup[1], pickup[2], pickup[3],
+                drop != null ? drop[0] : null,
+                drop != null ? drop[1] : null,
+                drop != null ? drop[2] : null,
+                drop != null ? drop[3] : null,
+                LocationTokenizer.likePattern(request.getFromLocation()),
+                LocationTokenizer.likePattern(request.getToLocation()),
+                startTime,
+                endTime,
+                seats,
+                maxPrice,
+                after.getTime(),
+                after.getId(),
+                PageRequest.of(0, limit)
+        ).stream()
+                .map(this::convertToTripResponse)
+                .collect(Collectors.toList());
+    }
+
+    private int resolvePageSize(Integer requested) {
+        if (requested == null || requested <= 0) {
+            return AppConstants.TRIP_SEARCH_DEFAULT_PAGE_SIZE;
+        }
+        return Math.min(requested, AppConstants.TRIP_SEARCH_MAX_PAGE_SIZE);
     }
 
     private TripDTO.TripResponse convertToTripResponse(Trip trip) {
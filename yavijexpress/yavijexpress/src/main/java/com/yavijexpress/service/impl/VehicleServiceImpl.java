@@ -4,11 +4,16 @@ import com.yavijexpress.dto.VehicleDTO;
 import com.yavijexpress.entity.User;
 import com.yavijexpress.entity.Vehicle;
 import com.yavijexpress.exception.*;
+import com.yavijexpress.jobs.SweepRunner;
 import com.yavijexpress.repository.VehicleRepository;
+import com.yavijexpress.service.NotificationService;
 import com.yavijexpress.service.VehicleService;
+import com.yavijexpress.utils.AppConstants;
 import lombok.RequiredArgsConstructor;
 import org.modelmapper.ModelMapper;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDateTime;
 import java.util.List;
@@ -21,11 +26,15 @@ public class VehicleServiceImpl implements VehicleService {
     private final VehicleRepository vehicleRepository;
     private final UserServiceImpl userService;
     private final ModelMapper modelMapper;
+    private final NotificationService notificationService;
+    private final SweepRunner sweepRunner;
 
-    public VehicleServiceImpl(VehicleRepository vehicleRepository, UserServiceImpl userService, ModelMapper modelMapper) {
+    public VehicleServiceImpl(VehicleRepository vehicleRepository, UserServiceImpl userService, ModelMapper modelMapper, NotificationService notificationService, SweepRunner sweepRunner) {
         this.vehicleRepository = vehicleRepository;
         this.userService = userService;
         this.modelMapper = modelMapper;
+        this.notificationService = notificationService;
+        this.sweepRunner = sweepRunner;
     }
 
     @Override
@@ -125,16 +134,24 @@ public class VehicleServiceImpl implements VehicleService {
     }
 
     @Override
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void checkVehicleInsuranceExpiry() {
-        List<Vehicle> vehicles = vehicleRepository.findAll();
         LocalDateTime now = LocalDateTime.now();
 
-        vehicles.forEach(vehicle -> {
-            if (vehicle.getInsuranceExpiry() != null &&
-                    vehicle.getInsuranceExpiry().isBefore(now.plusDays(30))) {
-                // Insurance expiring within 30 days
-                // Send notification to owner
+        sweepRunner.run("insurance-expiry", AppConstants.SWEEP_CHUNK_SIZE, AppConstants.SWEEP_MAX_CHUNKS, limit -> {
+            List<Vehicle> vehicles = vehicleRepository.findVehiclesDueInsuranceReminder(now, PageRequest.of(0, limit));
+            for (Vehicle vehicle : vehicles) {
+                // Insurance expiring within 30 days: send notification to owner
+                try {
+                    notificationService.sendInsuranceExpiryNotification(vehicle);
+                } catch (Exception e) {
+                    // Log but don't block the rest of the chunk
+                }
             }
+            if (!vehicles.isEmpty()) {
+                vehicleRepository.markInsuranceReminded(vehicles.stream().map(Vehicle::getId).collect(Collectors.toList()));
+            }
+            return vehicles.size();
         });
     }
 
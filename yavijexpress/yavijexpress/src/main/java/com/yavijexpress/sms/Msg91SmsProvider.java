@@ -0,0 +1,140 @@
+package com.yavijexpress.sms;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.io.IOException;
+import java.net.ConnectException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpConnectTimeoutException;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.net.http.HttpTimeoutException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * msg91 v2 sendsms. One request carries one text and up to sms.batch.max-recipients numbers in the
+ * payload's "to" array. The client is shared, so its keep-alive connections to the provider are
+ * reused across sends; sms.http.connect-timeout-ms bounds the connect and sms.http.read-timeout-ms
+ * the whole response.
+ *
+ * Only failures where the provider surely did not take the request are retryable: a failed connect,
+ * 5xx and 429. A timeout or a broken connection after the request went out is reported as
+ * {@link SmsOutcomeUnknownException}, since sending it again could text everyone twice.
+ */
+@Component
+@ConditionalOnProperty(name = "sms.enabled", havingValue = "true")
+public class Msg91SmsProvider implements SmsProvider {
+
+    private final ObjectMapper objectMapper;
+    private final HttpClient httpClient;
+    private final URI providerUrl;
+    private final String authKey;
+    private final String senderId;
+    private final Duration readTimeout;
+    private final long requestTimeoutMs;
+    private final int maxRecipients;
+
+    public Msg91SmsProvider(ObjectMapper objectMapper,
+                            @Value("${sms.provider.url:https://api.msg91.com/api/v2/sendsms}") String providerUrl,
+                            @Value("${sms.auth.key:test_key}") String authKey,
+                            @Value("${sms.sender.id:YAVIJX}") String senderId,
+                            @Value("${sms.http.connect-timeout-ms:1000}") long connectTimeoutMs,
+                            @Value("${sms.http.read-timeout-ms:2000}") long readTimeoutMs,
+                            @Value("${sms.batch.max-recipients:100}") int maxRecipients) {
+        this.objectMapper = objectMapper;
+        this.providerUrl = URI.create(providerUrl);
+        this.authKey = authKey;
+        this.senderId = senderId;
+        this.readTimeout = Duration.ofMillis(readTimeoutMs);
+        this.requestTimeoutMs = connectTimeoutMs + readTimeoutMs;
+        this.maxRecipients = maxRecipients;
+        this.httpClient = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofMillis(connectTimeoutMs))
+                .build();
+    }
+
+    @Override
+    public void send(String message, List<String> recipients) throws SmsDeliveryException {
+        HttpRequest request;
+        try {
+            request = HttpRequest.newBuilder(providerUrl)
+                    .timeout(readTimeout)
+                    .header("Content-Type", "application/json")
+                    .header("authkey", authKey)
+                    .POST(HttpRequest.BodyPublishers.ofByteArray(objectMapper.writeValueAsBytes(payload(message, recipients))))
+                    .build();
+        } catch (IOException e) {
+            throw new SmsDeliveryException("Could not build SMS request", e, false);
+        }
+
+        HttpResponse<String> response;
+        try {
+            response = httpClient.send(request, HttpResponse.BodyHandlers.ofString());
+        } catch (HttpConnectTimeoutException | ConnectException e) {
+            throw new SmsDeliveryException("SMS provider unreachable: " + e.getMessage(), e, true);
+        } catch (HttpTimeoutException e) {
+            throw new SmsOutcomeUnknownException("SMS provider timed out", e);
+        } catch (IOException e) {
+            throw new SmsOutcomeUnknownException("SMS provider connection failed: " + e.getMessage(), e);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new SmsDeliveryException("Interrupted while sending SMS", e, false);
+        }
+
+        int status = response.statusCode();
+        if (status == 429 || status >= 500) {
+            throw new SmsDeliveryException("SMS provider returned " + status, true);
+        }
+        if (status != 200) {
+            throw new SmsDeliveryException("SMS provider returned " + status + ": " + response.body(), false);
+        }
+        String error = providerError(response.body());
+        if (error != null) {
+            throw new SmsDeliveryException("SMS provider rejected the message: " + error, false);
+        }
+    }
+
+    @Override
+    public int maxRecipients() {
+        return maxRecipients;
+    }
+
+    @Override
+    public long requestTimeoutMs() {
+        return requestTimeoutMs;
+    }
+
+    private Map<String, Object> payload(String message, List<String> recipients) {
+        Map<String, Object> sms = new LinkedHashMap<>();
+        sms.put("message", message);
+        sms.put("to", recipients);
+
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("sender", senderId);
+        body.put("route", "4"); // Transactional route
+        body.put("country", "91");
+        body.put("sms", List.of(sms));
+        return body;
+    }
+
+    // msg91 answers 200 with {"type": "error", "message": ...} for rejected requests
+    private String providerError(String body) {
+        try {
+            JsonNode json = objectMapper.readTree(body);
+            if (json != null && "error".equalsIgnoreCase(json.path("type").asText())) {
+                return json.path("message").asText("unknown error");
+            }
+        } catch (IOException e) {
+            // Not JSON; the status code is all we have
+        }
+        return null;
+    }
+}
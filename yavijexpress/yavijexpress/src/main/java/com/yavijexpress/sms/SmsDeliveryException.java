@@ -0,0 +1,21 @@
+package com.yavijexpress.sms;
+
+// A provider request that failed; retryable when it surely was not delivered and may succeed later (connect failures, 5xx, 429)
+public class SmsDeliveryException extends Exception {
+
+    private final boolean retryable;
+
+    public SmsDeliveryException(String message, boolean retryable) {
+        super(message);
+        this.retryable = retryable;
+    }
+
+    public SmsDeliveryException(String message, Throwable cause, boolean retryable) {
+        super(message, cause);
+        this.retryable = retryable;
+    }
+
+    public boolean isRetryable() {
+        return retryable;
+    }
+}
@@ -0,0 +1,160 @@
+package com.yavijexpress.sms;
+
+import com.yavijexpress.utils.CircuitBreaker;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sends one text to any number of recipients through the configured {@link SmsProvider}, packing
+ * them into as few provider requests as its recipient limit allows, and reports the outcome per
+ * recipient. A request that fails retryably (the provider surely did not take it) is tried up to
+ * sms.retry.max-attempts times with jittered exponential backoff starting at
+ * sms.retry.initial-backoff-ms; a request whose outcome is unknown is never repeated. With a time
+ * budget, no request starts unless it can time out before the budget ends.
+ *
+ * sms.circuit.failure-threshold failed requests in a row open the circuit for sms.circuit.open-ms,
+ * during which sends fail immediately instead of waiting on a provider that is down; callers with a
+ * retry of their own (emergency deliveries) pick them up later.
+ *
+ * Blocks the calling thread, so call it from a worker pool.
+ */
+@Component
+public class SmsGateway {
+
+    public enum Outcome {
+        SENT,
+        FAILED,
+        // The provider may or may not have taken it; do not send it again
+        UNKNOWN
+    }
+
+    private static final Logger log = LoggerFactory.getLogger(SmsGateway.class);
+
+    private final SmsProvider provider;
+    private final CircuitBreaker circuitBreaker;
+    private final int maxAttempts;
+    private final long initialBackoffMs;
+    private final long maxBackoffMs;
+
+    public SmsGateway(SmsProvider provider,
+                      @Value("${sms.retry.max-attempts:3}") int maxAttempts,
+                      @Value("${sms.retry.initial-backoff-ms:200}") long initialBackoffMs,
+                      @Value("${sms.retry.max-backoff-ms:2000}") long maxBackoffMs,
+                      @Value("${sms.circuit.failure-threshold:5}") int failureThreshold,
+                      @Value("${sms.circuit.open-ms:30000}") long openMs) {
+        this.provider = provider;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.initialBackoffMs = initialBackoffMs;
+        this.maxBackoffMs = maxBackoffMs;
+        this.circuitBreaker = new CircuitBreaker("sms", failureThreshold, openMs, TimeUnit.MILLISECONDS);
+    }
+
+    // True when the provider accepted the message for every recipient
+    public boolean send(String message, Collection<String> recipients) {
+        Map<String, Outcome> outcomes = send(message, recipients, Long.MAX_VALUE);
+        return !outcomes.isEmpty() && outcomes.values().stream().allMatch(outcome -> outcome == Outcome.SENT);
+    }
+
+    /**
+     * Outcome for each recipient, keyed as passed in (blank ones fail). The first request always goes
+     * out; later requests and retries only while they can finish within budgetMs of this call.
+     */
+    public Map<String, Outcome> send(String message, Collection<String> recipients, long budgetMs) {
+        long deadline = budgetMs == Long.MAX_VALUE ? Long.MAX_VALUE : System.nanoTime() + TimeUnit.MILLISECONDS.toNanos(budgetMs);
+        Set<String> unique = new LinkedHashSet<>();
+        for (String recipient : recipients) {
+            if (recipient != null && !recipient.isBlank()) {
+                unique.add(recipient.trim());
+            }
+        }
+
+        List<String> all = new ArrayList<>(unique);
+        Map<String, Outcome> byNumber = new LinkedHashMap<>();
+        int batchSize = Math.max(1, provider.maxRecipients());
+        for (int from = 0; from < all.size(); from += batchSize) {
+            List<String> batch = all.subList(from, Math.min(all.size(), from + batchSize));
+            Outcome outcome = sendBatch(message, batch, deadline, from == 0);
+            batch.forEach(number -> byNumber.put(number, outcome));
+        }
+
+        Map<String, Outcome> outcomes = new LinkedHashMap<>();
+        for (String recipient : recipients) {
+            Outcome outcome = recipient != null ? byNumber.get(recipient.trim()) : null;
+            outcomes.put(recipient, outcome != null ? outcome : Outcome.FAILED);
+        }
+        return outcomes;
+    }
+
+    public CircuitBreaker.State getCircuitState() {
+        return circuitBreaker.getState();
+    }
+
+    private Outcome sendBatch(String message, List<String> recipients, long deadline, boolean firstRequest) {
+        long backoffMs = initialBackoffMs;
+        long sleepMs = 0;
+        for (int attempt = 1; ; attempt++) {
+            if ((!firstRequest || attempt > 1) && !fits(sleepMs, deadline)) {
+                log.error("Failed to send SMS to {}: out of time after {} attempts", recipients, attempt - 1);
+                return Outcome.FAILED;
+            }
+            if (sleepMs > 0) {
+                try {
+                    Thread.sleep(sleepMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return Outcome.FAILED;
+                }
+            }
+            if (!circuitBreaker.tryAcquire()) {
+                log.warn("SMS circuit open; not sending to {}", recipients);
+                return Outcome.FAILED;
+            }
+            try {
+                provider.send(message, recipients);
+                circuitBreaker.onSuccess();
+                log.info("SMS sent successfully to {}", recipients);
+                return Outcome.SENT;
+            } catch (SmsOutcomeUnknownException e) {
+                circuitBreaker.onFailure();
+                log.error("SMS to {} may not have been delivered, not retrying: {}", recipients, e.getMessage());
+                return Outcome.UNKNOWN;
+            } catch (SmsDeliveryException e) {
+                if (!e.isRetryable()) {
+                    // The provider answered; the request itself is at fault
+                    circuitBreaker.onSuccess();
+                    log.error("Failed to send SMS to {}: {}", recipients, e.getMessage());
+                    return Outcome.FAILED;
+                }
+                circuitBreaker.onFailure();
+                if (attempt >= maxAttempts) {
+                    log.error("Failed to send SMS to {} after {} attempts: {}", recipients, attempt, e.getMessage());
+                    return Outcome.FAILED;
+                }
+                log.warn("SMS attempt {} to {} failed, retrying: {}", attempt, recipients, e.getMessage());
+            }
+            // Jittered, so a burst of failed sends does not retry in lockstep
+            sleepMs = ThreadLocalRandom.current().nextLong(backoffMs / 2, backoffMs + 1);
+            backoffMs = Math.min(maxBackoffMs, backoffMs * 2);
+        }
+    }
+
+    // Whether a request started after sleepMs would time out before the deadline
+    private boolean fits(long sleepMs, long deadline) {
+        if (deadline == Long.MAX_VALUE) {
+            return true;
+        }
+        long needed = TimeUnit.MILLISECONDS.toNanos(sleepMs + provider.requestTimeoutMs());
+        return deadline - System.nanoTime() >= needed;
+    }
+}
@@ -0,0 +1,9 @@
+package com.yavijexpress.sms;
+
+// The request may have reached the provider (e.g. it timed out waiting for the response); sending it again could deliver the text twice
+public class SmsOutcomeUnknownException extends SmsDeliveryException {
+
+    public SmsOutcomeUnknownException(String message, Throwable cause) {
+        super(message, cause, false);
+    }
+}
@@ -0,0 +1,18 @@
+package com.yavijexpress.sms;
+
+import java.util.List;
+
+// One request to an SMS provider: the same text to every recipient
+public interface SmsProvider {
+
+    // Returns normally once the provider accepted the message for all recipients
+    void send(String message, List<String> recipients) throws SmsDeliveryException;
+
+    // Most recipients one request may carry
+    int maxRecipients();
+
+    // Longest one request can take before it fails, or 0 when unbounded or negligible
+    default long requestTimeoutMs() {
+        return 0;
+    }
+}
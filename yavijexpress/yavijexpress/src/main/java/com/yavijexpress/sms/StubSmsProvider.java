@@ -0,0 +1,75 @@
+package com.yavijexpress.sms;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Used while sms.enabled is false: logs each request and keeps the last few hundred in memory instead
+ * of sending them, so local runs and tests can check what would have gone out. {@link #failNext(int)}
+ * makes the following requests fail (retryably), to exercise retries and the circuit breaker.
+ */
+@Component
+@ConditionalOnProperty(name = "sms.enabled", havingValue = "false", matchIfMissing = true)
+public class StubSmsProvider implements SmsProvider {
+
+    private static final Logger log = LoggerFactory.getLogger(StubSmsProvider.class);
+    private static final int KEEP = 500;
+
+    private final Deque<SentSms> sent = new ArrayDeque<>();
+    private int failuresLeft;
+
+    @Override
+    public synchronized void send(String message, List<String> recipients) throws SmsDeliveryException {
+        if (failuresLeft > 0) {
+            failuresLeft--;
+            throw new SmsDeliveryException("Stub failure", true);
+        }
+        log.info("SMS Disabled. Would send to {}: {}", recipients, message);
+        if (sent.size() == KEEP) {
+            sent.removeFirst();
+        }
+        sent.addLast(new SentSms(message, List.copyOf(recipients)));
+    }
+
+    @Override
+    public int maxRecipients() {
+        return 100;
+    }
+
+    public synchronized List<SentSms> sent() {
+        return new ArrayList<>(sent);
+    }
+
+    public synchronized void clear() {
+        sent.clear();
+        failuresLeft = 0;
+    }
+
+    public synchronized void failNext(int requests) {
+        failuresLeft = requests;
+    }
+
+    public static final class SentSms {
+        private final String message;
+        private final List<String> recipients;
+
+        private SentSms(String message, List<String> recipients) {
+            this.message = message;
+            this.recipients = recipients;
+        }
+
+        public String getMessage() {
+            return message;
+        }
+
+        public List<String> getRecipients() {
+            return recipients;
+        }
+    }
+}
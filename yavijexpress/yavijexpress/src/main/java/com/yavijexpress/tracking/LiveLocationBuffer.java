@@ -0,0 +1,172 @@
+package com.yavijexpress.tracking;
+
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Ingestion path for live GPS pings. A ping only touches the trip's in-memory ring, so recording it
+ * costs no database round trip; the latest position is served from the ring as well. Every
+ * tracking.flush-interval-ms the unflushed points of all trips are written with one batched INSERT,
+ * and rows older than what each ring still holds are pruned with one batched DELETE, so
+ * live_locations keeps about tracking.ring-size recent points per trip.
+ *
+ * Rings are per instance; a trip whose pings land elsewhere is served from the table, at most one
+ * flush interval behind.
+ *
+ * The full history goes to trip_trajectories: every tracking.trajectory.flush-interval-ms each trip's
+ * open {@link TrajectoryCodec} block is appended to its row, for all trips in one batched upsert.
+ */
+@Component
+public class LiveLocationBuffer {
+
+    private static final Logger log = LoggerFactory.getLogger(LiveLocationBuffer.class);
+    private static final String INSERT =
+            "INSERT INTO live_locations (trip_id, user_id, latitude, longitude, accuracy, speed, bearing, updated_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String PRUNE = "DELETE FROM live_locations WHERE trip_id = ? AND updated_at < ?";
+    private static final String APPEND_TRAJECTORY =
+            "INSERT INTO trip_trajectories (trip_id, data, point_count, started_at, ended_at) VALUES (?, ?, ?, ?, ?) " +
+            "ON DUPLICATE KEY UPDATE data = CONCAT(data, VALUES(data)), point_count = point_count + VALUES(point_count), " +
+            "started_at = LEAST(started_at, VALUES(started_at)), ended_at = GREATEST(ended_at, VALUES(ended_at))";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Map<Long, TripTrack> tracks = new ConcurrentHashMap<>();
+
+    @Value("${tracking.ring-size:16}")
+    private int ringSize;
+
+    @Value("${tracking.flush-batch-size:1000}")
+    private int flushBatchSize;
+
+    @Value("${tracking.trajectory.max-block-bytes:65536}")
+    private int maxBlockBytes;
+
+    @Value("${tracking.idle-evict-minutes:30}")
+    private long idleEvictMinutes;
+
+    public LiveLocationBuffer(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    // Appending inside compute keeps it atomic with idle eviction
+    public void record(LocationPoint point) {
+        tracks.compute(point.getTripId(), (tripId, track) -> {
+            TripTrack target = track != null ? track : new TripTrack(ringSize, maxBlockBytes);
+            target.add(point);
+            return target;
+        });
+    }
+
+    public LocationPoint latest(Long tripId) {
+        TripTrack track = tracks.get(tripId);
+        return track != null ? track.latest() : null;
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.flush-interval-ms:2000}")
+    public void flush() {
+        List<LocationPoint> pending = new ArrayList<>();
+        List<Object[]> prunes = new ArrayList<>();
+        long lost = 0;
+        for (Map.Entry<Long, TripTrack> entry : tracks.entrySet()) {
+            TripTrack track = entry.getValue();
+            List<LocationPoint> points = track.drainUnflushed();
+            lost += track.takeLost();
+            if (points.isEmpty()) {
+                continue;
+            }
+            pending.addAll(points);
+            prunes.add(new Object[]{entry.getKey(), new Timestamp(track.oldest().getRecordedAt())});
+        }
+        if (lost > 0) {
+            log.warn("{} location points were dropped before they could be flushed", lost);
+        }
+
+        try {
+            for (int from = 0; from < pending.size(); from += flushBatchSize) {
+                insert(pending.subList(from, Math.min(from + flushBatchSize, pending.size())));
+            }
+            for (int from = 0; from < prunes.size(); from += flushBatchSize) {
+                jdbcTemplate.batchUpdate(PRUNE, prunes.subList(from, Math.min(from + flushBatchSize, prunes.size())));
+            }
+        } catch (RuntimeException e) {
+            // The rings still hold the latest positions; only history for this interval is lost
+            log.error("Failed to flush {} location points", pending.size(), e);
+        }
+
+        evictIdle();
+    }
+
+    @Scheduled(fixedDelayString = "${tracking.trajectory.flush-interval-ms:30000}")
+    public void flushTrajectories() {
+        List<Object[]> appends = new ArrayList<>();
+        for (Map.Entry<Long, TripTrack> entry : tracks.entrySet()) {
+            TrajectoryCodec.BlockWriter block = entry.getValue().takeTrajectory();
+            if (block != null) {
+                appends.add(new Object[]{entry.getKey(), block.toBlock(), block.count(),
+                        new Timestamp(block.firstAt()), new Timestamp(block.lastAt())});
+            }
+        }
+        try {
+            for (int from = 0; from < appends.size(); from += flushBatchSize) {
+                jdbcTemplate.batchUpdate(APPEND_TRAJECTORY, appends.subList(from, Math.min(from + flushBatchSize, appends.size())));
+            }
+        } catch (RuntimeException e) {
+            log.error("Failed to append trajectory blocks for {} trips", appends.size(), e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        flush();
+        flushTrajectories();
+    }
+
+    private void insert(List<LocationPoint> points) {
+        jdbcTemplate.batchUpdate(INSERT, points, points.size(), (ps, point) -> {
+            ps.setLong(1, point.getTripId());
+            if (point.getUserId() != null) {
+                ps.setLong(2, point.getUserId());
+            } else {
+                ps.setNull(2, Types.BIGINT);
+            }
+            ps.setDouble(3, point.getLatitude());
+            ps.setDouble(4, point.getLongitude());
+            setFloat(ps, 5, point.getAccuracy());
+            setFloat(ps, 6, point.getSpeed());
+            setFloat(ps, 7, point.getBearing());
+            ps.setTimestamp(8, new Timestamp(point.getRecordedAt()));
+        });
+    }
+
+    private void evictIdle() {
+        long idleBefore = System.currentTimeMillis() - idleEvictMinutes * 60_000;
+        for (Long tripId : tracks.keySet()) {
+            tracks.computeIfPresent(tripId, (id, track) -> {
+                LocationPoint latest = track.latest();
+                boolean idle = latest == null || latest.getRecordedAt() < idleBefore;
+                return idle && !track.hasOpenTrajectory() ? null : track;
+            });
+        }
+    }
+
+    private static void setFloat(PreparedStatement ps, int index, Float value) throws SQLException {
+        if (value != null) {
+            ps.setFloat(index, value);
+        } else {
+            ps.setNull(index, Types.FLOAT);
+        }
+    }
+}
@@ -0,0 +1,59 @@
+package com.yavijexpress.tracking;
+
+// One GPS ping as held in memory; accuracy, speed and bearing are optional
+public final class LocationPoint {
+
+    private final Long tripId;
+    private final Long userId;
+    private final double latitude;
+    private final double longitude;
+    private final Float accuracy;
+    private final Float speed;
+    private final Float bearing;
+    private final long recordedAt;
+
+    public LocationPoint(Long tripId, Long userId, double latitude, double longitude,
+                         Float accuracy, Float speed, Float bearing, long recordedAt) {
+        this.tripId = tripId;
+        this.userId = userId;
+        this.latitude = latitude;
+        this.longitude = longitude;
+        this.accuracy = accuracy;
+        this.speed = speed;
+        this.bearing = bearing;
+        this.recordedAt = recordedAt;
+    }
+
+    public Long getTripId() {
+        return tripId;
+    }
+
+    public Long getUserId() {
+        return userId;
+    }
+
+    public double getLatitude() {
+        return latitude;
+    }
+
+    public double getLongitude() {
+        return longitude;
+    }
+
+    public Float getAccuracy() {
+        return accuracy;
+    }
+
+    public Float getSpeed() {
+        return speed;
+    }
+
+    public Float getBearing() {
+        return bearing;
+    }
+
+    // Epoch millis
+    public long getRecordedAt() {
+        return recordedAt;
+    }
+}
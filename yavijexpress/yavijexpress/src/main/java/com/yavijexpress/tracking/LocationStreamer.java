@@ -0,0 +1,176 @@
+package com.yavijexpress.tracking;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.yavijexpress.emergency.EmergencyBoard;
+import com.yavijexpress.search.GeoHash;
+import com.yavijexpress.utils.HashedWheelTimer;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.SimpMessagingTemplate;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.util.MimeTypeUtils;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Streams trip positions to /topic/trips/{tripId}/location. A ping is published only if it moved at
+ * least tracking.stream.min-distance-m (or its reported accuracy, up to max-accuracy-m) from the last
+ * published position, turned by tracking.stream.min-bearing-deg while moving, or nothing was published
+ * for tracking.stream.keepalive-ms. Publishes per trip are at least tracking.stream.min-interval-ms
+ * apart; a ping that arrives sooner waits and is replaced by newer ones until the interval is up.
+ *
+ * Each update is serialized once and handed to the broker, which fans it out to every watcher:
+ * {"tripId", "lat", "lng", "acc", "spd", "brg", "ts"}, with acc/spd/brg left out when unknown.
+ * Trips with an active alert are also forwarded to the {@link EmergencyBoard}.
+ */
+@Component
+public class LocationStreamer {
+
+    private static final Logger log = LoggerFactory.getLogger(LocationStreamer.class);
+    private static final double MIN_MOVING_SPEED_KMH = 3.0;
+
+    private final SimpMessagingTemplate messagingTemplate;
+    private final ObjectMapper objectMapper;
+    private final EmergencyBoard emergencyBoard;
+    private final Map<Long, TripStream> streams = new ConcurrentHashMap<>();
+    private final HashedWheelTimer<Long> timer = new HashedWheelTimer<>("location-stream-timer", 100, TimeUnit.MILLISECONDS, 128);
+
+    @Value("${tracking.stream.min-interval-ms:1000}")
+    private long minIntervalMs;
+
+    @Value("${tracking.stream.min-distance-m:10}")
+    private double minDistanceM;
+
+    @Value("${tracking.stream.max-accuracy-m:50}")
+    private double maxAccuracyM;
+
+    @Value("${tracking.stream.min-bearing-deg:15}")
+    private double minBearingDeg;
+
+    @Value("${tracking.stream.keepalive-ms:15000}")
+    private long keepaliveMs;
+
+    public LocationStreamer(SimpMessagingTemplate messagingTemplate, ObjectMapper objectMapper, EmergencyBoard emergencyBoard) {
+        this.messagingTemplate = messagingTemplate;
+        this.objectMapper = objectMapper;
+        this.emergencyBoard = emergencyBoard;
+    }
+
+    public void offer(LocationPoint point) {
+        long now = System.currentTimeMillis();
+        streams.compute(point.getTripId(), (tripId, stream) -> {
+            TripStream target = stream != null ? stream : new TripStream();
+            if (target.published != null && target.pending == null && !significant(target, point, now)) {
+                return target;
+            }
+            long wait = target.publishedAt + minIntervalMs - now;
+            if (wait <= 0) {
+                publish(target, point, now);
+            } else {
+                if (target.pending == null) {
+                    timer.schedule(tripId, wait, TimeUnit.MILLISECONDS, () -> publishPending(tripId));
+                }
+                target.pending = point;
+            }
+            return target;
+        });
+    }
+
+    // Streams that have been quiet for a while are dropped; the next ping starts a new one
+    @Scheduled(fixedDelayString = "${tracking.stream.purge-interval-ms:60000}")
+    public void purgeIdle() {
+        long idleBefore = System.currentTimeMillis() - Math.max(keepaliveMs, minIntervalMs) * 4;
+        for (Long tripId : streams.keySet()) {
+            streams.computeIfPresent(tripId, (id, stream) ->
+                    stream.pending == null && stream.publishedAt < idleBefore ? null : stream);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        timer.stop();
+    }
+
+    private void publishPending(Long tripId) {
+        streams.computeIfPresent(tripId, (id, stream) -> {
+            if (stream.pending != null) {
+                publish(stream, stream.pending, System.currentTimeMillis());
+            }
+            return stream;
+        });
+    }
+
+    private boolean significant(TripStream stream, LocationPoint point, long now) {
+        if (now - stream.publishedAt >= keepaliveMs) {
+            return true;
+        }
+        LocationPoint last = stream.published;
+        double threshold = minDistanceM;
+        if (point.getAccuracy() != null) {
+            // Movement inside the fix's own error radius is just jitter
+            threshold = Math.max(threshold, Math.min(point.getAccuracy(), maxAccuracyM));
+        }
+        double movedM = GeoHash.distanceKm(last.getLatitude(), last.getLongitude(), point.getLatitude(), point.getLongitude()) * 1000;
+        if (movedM >= threshold) {
+            return true;
+        }
+        if (point.getBearing() == null || last.getBearing() == null
+                || point.getSpeed() == null || point.getSpeed() < MIN_MOVING_SPEED_KMH) {
+            return false;
+        }
+        double turn = Math.abs(point.getBearing() - last.getBearing()) % 360;
+        return Math.min(turn, 360 - turn) >= minBearingDeg;
+    }
+
+    private void publish(TripStream stream, LocationPoint point, long now) {
+        stream.published = point;
+        stream.publishedAt = now;
+        stream.pending = null;
+
+        SimpMessageHeaderAccessor accessor = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        accessor.setContentType(MimeTypeUtils.APPLICATION_JSON);
+        accessor.setLeaveMutable(true);
+        try {
+            messagingTemplate.send("/topic/trips/" + point.getTripId() + "/location",
+                    MessageBuilder.createMessage(frame(point), accessor.getMessageHeaders()));
+        } catch (Exception e) {
+            // Watchers catch up on the next update
+            log.debug("Failed to stream location for trip {}", point.getTripId(), e);
+        }
+        emergencyBoard.tripMoved(point);
+    }
+
+    private byte[] frame(LocationPoint point) throws JsonProcessingException {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("tripId", point.getTripId());
+        // Five decimals is about a metre
+        data.put("lat", Math.round(point.getLatitude() * 1e5) / 1e5);
+        data.put("lng", Math.round(point.getLongitude() * 1e5) / 1e5);
+        if (point.getAccuracy() != null) {
+            data.put("acc", Math.round(point.getAccuracy()));
+        }
+        if (point.getSpeed() != null) {
+            data.put("spd", Math.round(point.getSpeed()));
+        }
+        if (point.getBearing() != null) {
+            data.put("brg", Math.round(point.getBearing()));
+        }
+        data.put("ts", point.getRecordedAt());
+        return objectMapper.writeValueAsBytes(data);
+    }
+
+    private static final class TripStream {
+        private LocationPoint published;
+        private long publishedAt;
+        private LocationPoint pending;
+    }
+}
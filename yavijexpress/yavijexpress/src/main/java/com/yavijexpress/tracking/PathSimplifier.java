@@ -0,0 +1,68 @@
+package com.yavijexpress.tracking;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.List;
+
+/**
+ * Douglas-Peucker downsampling: keeps the points needed so that no dropped point lies further than
+ * the tolerance from the simplified path. Distances use a local equirectangular projection, which
+ * is accurate enough at trip scale.
+ */
+public final class PathSimplifier {
+
+    private static final double EARTH_RADIUS_M = 6_371_000;
+
+    private PathSimplifier() {
+    }
+
+    public static List<LocationPoint> simplify(List<LocationPoint> points, double toleranceM) {
+        if (points.size() < 3 || toleranceM <= 0) {
+            return points;
+        }
+
+        boolean[] keep = new boolean[points.size()];
+        keep[0] = true;
+        keep[points.size() - 1] = true;
+        Deque<int[]> ranges = new ArrayDeque<>();
+        ranges.push(new int[]{0, points.size() - 1});
+        while (!ranges.isEmpty()) {
+            int[] range = ranges.pop();
+            int farthest = -1;
+            double farthestM = toleranceM;
+            for (int i = range[0] + 1; i < range[1]; i++) {
+                double distance = offsetM(points.get(i), points.get(range[0]), points.get(range[1]));
+                if (distance > farthestM) {
+                    farthest = i;
+                    farthestM = distance;
+                }
+            }
+            if (farthest >= 0) {
+                keep[farthest] = true;
+                ranges.push(new int[]{range[0], farthest});
+                ranges.push(new int[]{farthest, range[1]});
+            }
+        }
+
+        List<LocationPoint> kept = new ArrayList<>();
+        for (int i = 0; i < points.size(); i++) {
+            if (keep[i]) {
+                kept.add(points.get(i));
+            }
+        }
+        return kept;
+    }
+
+    // Distance from p to the segment a-b, in metres
+    private static double offsetM(LocationPoint p, LocationPoint a, LocationPoint b) {
+        double cosLat = Math.cos(Math.toRadians(a.getLatitude()));
+        double px = Math.toRadians(p.getLongitude() - a.getLongitude()) * cosLat * EARTH_RADIUS_M;
+        double py = Math.toRadians(p.getLatitude() - a.getLatitude()) * EARTH_RADIUS_M;
+        double bx = Math.toRadians(b.getLongitude() - a.getLongitude()) * cosLat * EARTH_RADIUS_M;
+        double by = Math.toRadians(b.getLatitude() - a.getLatitude()) * EARTH_RADIUS_M;
+        double lengthSquared = bx * bx + by * by;
+        double t = lengthSquared == 0 ? 0 : Math.max(0, Math.min(1, (px * bx + py * by) / lengthSquared));
+        return Math.hypot(px - t * bx, py - t * by);
+    }
+}
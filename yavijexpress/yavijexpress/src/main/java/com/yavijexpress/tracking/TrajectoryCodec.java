@@ -0,0 +1,135 @@
+package com.yavijexpress.tracking;
+
+import java.io.ByteArrayOutputStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Binary trajectory format: the delta/zigzag scheme of {@link com.yavijexpress.utils.PolylineCodec} at
+ * the same 1e5 precision, but packed as 7-bit varints instead of printable characters, with a time
+ * delta and the speed alongside each position.
+ *
+ * A trajectory is a concatenation of self-contained blocks, so blocks written by different instances
+ * can simply be appended:
+ * <pre>
+ * block = count, point(absolute), point(delta) * (count - 1)
+ * point = zigzag(lat), zigzag(lng), time, speed + 1 (0 = unknown)
+ * </pre>
+ * where time is epoch millis for the first point and millis since the previous point afterwards.
+ * A moving vehicle pinging every few seconds costs about six bytes per point.
+ */
+public final class TrajectoryCodec {
+
+    private TrajectoryCodec() {
+    }
+
+    // Accumulates one block; not thread-safe, TripTrack serializes access
+    static final class BlockWriter {
+        private final ByteArrayOutputStream body = new ByteArrayOutputStream();
+        private int count;
+        private long lastLat;
+        private long lastLng;
+        private long lastAt;
+        private long firstAt;
+
+        void append(LocationPoint point) {
+            long lat = Math.round(point.getLatitude() * 1e5);
+            long lng = Math.round(point.getLongitude() * 1e5);
+            if (count == 0) {
+                writeSigned(body, lat);
+                writeSigned(body, lng);
+                writeUnsigned(body, point.getRecordedAt());
+                firstAt = point.getRecordedAt();
+            } else {
+                writeSigned(body, lat - lastLat);
+                writeSigned(body, lng - lastLng);
+                writeUnsigned(body, Math.max(0, point.getRecordedAt() - lastAt));
+            }
+            writeUnsigned(body, point.getSpeed() != null ? Math.max(0, Math.round(point.getSpeed())) + 1 : 0);
+            lastLat = lat;
+            lastLng = lng;
+            lastAt = Math.max(lastAt, point.getRecordedAt());
+            count++;
+        }
+
+        int count() {
+            return count;
+        }
+
+        int size() {
+            return body.size();
+        }
+
+        long firstAt() {
+            return firstAt;
+        }
+
+        long lastAt() {
+            return lastAt;
+        }
+
+        byte[] toBlock() {
+            ByteArrayOutputStream block = new ByteArrayOutputStream(body.size() + 3);
+            writeUnsigned(block, count);
+            block.writeBytes(body.toByteArray());
+            return block.toByteArray();
+        }
+    }
+
+    // Points of every block, in the order they were written; a truncated tail is ignored
+    public static List<LocationPoint> decode(Long tripId, byte[] data) {
+        List<LocationPoint> points = new ArrayList<>();
+        if (data == null) {
+            return points;
+        }
+        int[] position = {0};
+        try {
+            while (position[0] < data.length) {
+                long count = readUnsigned(data, position);
+                long lat = 0;
+                long lng = 0;
+                long at = 0;
+                for (long i = 0; i < count; i++) {
+                    lat += readSigned(data, position);
+                    lng += readSigned(data, position);
+                    at += readUnsigned(data, position);
+                    long speed = readUnsigned(data, position);
+                    points.add(new LocationPoint(tripId, null, lat / 1e5, lng / 1e5, null,
+                            speed > 0 ? (float) (speed - 1) : null, null, at));
+                }
+            }
+        } catch (ArrayIndexOutOfBoundsException e) {
+            // Keep what decoded cleanly
+        }
+        return points;
+    }
+
+    private static void writeSigned(ByteArrayOutputStream out, long value) {
+        writeUnsigned(out, (value << 1) ^ (value >> 63));
+    }
+
+    private static void writeUnsigned(ByteArrayOutputStream out, long value) {
+        while ((value & ~0x7FL) != 0) {
+            out.write((int) ((value & 0x7F) | 0x80));
+            value >>>= 7;
+        }
+        out.write((int) value);
+    }
+
+    private static long readSigned(byte[] data, int[] position) {
+        long raw = readUnsigned(data, position);
+        return (raw >>> 1) ^ -(raw & 1);
+    }
+
+    private static long readUnsigned(byte[] data, int[] position) {
+        long result = 0;
+        int shift = 0;
+        byte b;
+        do {
+            b = data[position[0]++];
+            result |= (long) (b & 0x7F) << shift;
+            shift += 7;
+        } while ((b & 0x80) != 0);
+        return result;
+    }
+}
@@ -0,0 +1,82 @@
+package com.yavijexpress.tracking;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Fixed-size ring of a trip's most recent points. Points are numbered by arrival; everything after
+ * the last flushed number is still waiting for the database. If more points arrive between two
+ * flushes than the ring holds, the oldest unflushed ones are overwritten and counted as lost.
+ *
+ * Alongside the ring, every point is encoded into the trip's open trajectory block, which is handed
+ * off on the (slower) trajectory flush. A block that reaches its size cap stops taking points.
+ */
+final class TripTrack {
+
+    private final LocationPoint[] ring;
+    private final int maxBlockBytes;
+    private TrajectoryCodec.BlockWriter trajectory = new TrajectoryCodec.BlockWriter();
+    private long written;
+    private long flushed;
+    private long lost;
+
+    TripTrack(int capacity, int maxBlockBytes) {
+        this.ring = new LocationPoint[capacity];
+        this.maxBlockBytes = maxBlockBytes;
+    }
+
+    synchronized void add(LocationPoint point) {
+        if (written - flushed >= ring.length) {
+            flushed++;
+            lost++;
+        }
+        ring[(int) (written % ring.length)] = point;
+        written++;
+        if (trajectory.size() < maxBlockBytes) {
+            trajectory.append(point);
+        } else {
+            lost++;
+        }
+    }
+
+    synchronized LocationPoint latest() {
+        return written == 0 ? null : ring[(int) ((written - 1) % ring.length)];
+    }
+
+    // Oldest point still in the ring
+    synchronized LocationPoint oldest() {
+        if (written == 0) {
+            return null;
+        }
+        return ring[(int) (Math.max(0, written - ring.length) % ring.length)];
+    }
+
+    synchronized List<LocationPoint> drainUnflushed() {
+        List<LocationPoint> points = new ArrayList<>((int) (written - flushed));
+        for (long i = flushed; i < written; i++) {
+            points.add(ring[(int) (i % ring.length)]);
+        }
+        flushed = written;
+        return points;
+    }
+
+    // The open block, or null when no point arrived since the last hand-off
+    synchronized TrajectoryCodec.BlockWriter takeTrajectory() {
+        if (trajectory.count() == 0) {
+            return null;
+        }
+        TrajectoryCodec.BlockWriter block = trajectory;
+        trajectory = new TrajectoryCodec.BlockWriter();
+        return block;
+    }
+
+    synchronized boolean hasOpenTrajectory() {
+        return trajectory.count() > 0;
+    }
+
+    synchronized long takeLost() {
+        long count = lost;
+        lost = 0;
+        return count;
+    }
+}
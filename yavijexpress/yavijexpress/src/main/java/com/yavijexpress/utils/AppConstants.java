@@ -16,6 +16,17 @@ public class AppConstants {
     public static final String DEFAULT_PAGE_SIZE = "10";
     public static final String DEFAULT_SORT_BY = "id";
     public static final String DEFAULT_SORT_DIR = "asc";
+    public static final int TRIP_SEARCH_DEFAULT_PAGE_SIZE = 20;
+    public static final int TRIP_SEARCH_MAX_PAGE_SIZE = 100;
+    public static final int NOTIFICATION_DEFAULT_PAGE_SIZE = 20;
+    public static final int NOTIFICATION_MAX_PAGE_SIZE = 100;
+    public static final int NOTIFICATION_BULK_CHUNK_SIZE = 1000;
+
+    // Background sweeps
+    public static final int SWEEP_CHUNK_SIZE = 500;
+    public static final int SWEEP_MAX_CHUNKS = 200;
+    public static final int PAYMENT_TIMEOUT_MINUTES = 30;
+    public static final int INSURANCE_REMINDER_DAYS = 30;
 
     // File Upload
     public static final long MAX_FILE_SIZE = 5 * 1024 * 1024; // 5MB
@@ -0,0 +1,146 @@
+package com.yavijexpress.utils;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Deque;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Hashed timing wheel for large numbers of keyed, cancellable timeouts. Scheduling and cancelling are
+ * O(1); a single daemon thread advances one bucket per tick and runs the tasks that are due, so a
+ * timeout fires at most one tick late. Scheduling an existing key replaces its previous timeout.
+ * Tasks run on the wheel thread and should hand off anything slow.
+ */
+public class HashedWheelTimer<K> {
+
+    private static final Logger log = LoggerFactory.getLogger(HashedWheelTimer.class);
+
+    private final long tickNanos;
+    private final int mask;
+    private final List<Deque<Entry<K>>> wheel;
+    private final Queue<Entry<K>> incoming = new ConcurrentLinkedQueue<>();
+    private final Map<K, Entry<K>> scheduled = new ConcurrentHashMap<>();
+    private final Thread worker;
+    private final long startNanos;
+    private volatile boolean running = true;
+    private long tick;
+
+    public HashedWheelTimer(String name, long tickDuration, TimeUnit unit, int wheelSize) {
+        if (Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("wheelSize must be a power of two");
+        }
+        this.tickNanos = unit.toNanos(tickDuration);
+        this.mask = wheelSize - 1;
+        this.wheel = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            wheel.add(new ArrayDeque<>());
+        }
+        this.startNanos = System.nanoTime();
+        this.worker = new Thread(this::run, name);
+        this.worker.setDaemon(true);
+        this.worker.start();
+    }
+
+    public void schedule(K key, long delay, TimeUnit unit, Runnable task) {
+        Entry<K> entry = new Entry<>(key, System.nanoTime() + unit.toNanos(Math.max(0, delay)), task);
+        Entry<K> previous = scheduled.put(key, entry);
+        if (previous != null) {
+            previous.cancelled = true;
+        }
+        incoming.add(entry);
+    }
+
+    public boolean cancel(K key) {
+        Entry<K> entry = scheduled.remove(key);
+        if (entry == null) {
+            return false;
+        }
+        entry.cancelled = true;
+        return true;
+    }
+
+    public int pending() {
+        return scheduled.size();
+    }
+
+    public void stop() {
+        running = false;
+        worker.interrupt();
+    }
+
+    private void run() {
+        while (running) {
+            long sleepNanos = startNanos + (tick + 1) * tickNanos - System.nanoTime();
+            if (sleepNanos > 0) {
+                try {
+                    TimeUnit.NANOSECONDS.sleep(sleepNanos);
+                } catch (InterruptedException e) {
+                    if (!running) {
+                        return;
+                    }
+                    continue;
+                }
+            }
+            transferIncoming();
+            expire(wheel.get((int) (tick & mask)));
+            tick++;
+        }
+    }
+
+    private void transferIncoming() {
+        Entry<K> entry;
+        while ((entry = incoming.poll()) != null) {
+            if (entry.cancelled) {
+                continue;
+            }
+            // Anything already overdue lands in the current bucket
+            long dueTick = Math.max((entry.deadlineNanos - startNanos) / tickNanos, tick);
+            entry.remainingRounds = (dueTick - tick) / wheel.size();
+            wheel.get((int) (dueTick & mask)).add(entry);
+        }
+    }
+
+    private void expire(Deque<Entry<K>> bucket) {
+        Iterator<Entry<K>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Entry<K> entry = it.next();
+            if (entry.cancelled) {
+                it.remove();
+            } else if (entry.remainingRounds > 0) {
+                entry.remainingRounds--;
+            } else {
+                it.remove();
+                if (scheduled.remove(entry.key, entry)) {
+                    try {
+                        entry.task.run();
+                    } catch (Throwable t) {
+                        log.error("Timer task for {} failed", entry.key, t);
+                    }
+                }
+            }
+        }
+    }
+
+    private static final class Entry<K> {
+        private final K key;
+        private final long deadlineNanos;
+        private final Runnable task;
+        private volatile boolean cancelled;
+        private long remainingRounds;
+
+        Entry(K key, long deadlineNanos, Runnable task) {
+            this.key = key;
+            this.deadlineNanos = deadlineNanos;
+            this.task = task;
+        }
+    }
+}
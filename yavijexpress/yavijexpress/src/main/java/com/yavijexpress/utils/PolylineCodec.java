@@ -0,0 +1,76 @@
+package com.yavijexpress.utils;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Google encoded-polyline format (1e5 precision), as produced by the maps APIs for trip routes.
+ * Points are returned as {latitude, longitude} pairs.
+ */
+public final class PolylineCodec {
+
+    private PolylineCodec() {
+    }
+
+    public static List<double[]> decode(String encoded) {
+        List<double[]> points = new ArrayList<>();
+        if (encoded == null || encoded.isEmpty()) {
+            return points;
+        }
+
+        int index = 0;
+        int lat = 0;
+        int lng = 0;
+        try {
+            while (index < encoded.length()) {
+                int[] next = readValue(encoded, index);
+                lat += next[0];
+                next = readValue(encoded, next[1]);
+                lng += next[0];
+                index = next[1];
+                points.add(new double[]{lat / 1e5, lng / 1e5});
+            }
+        } catch (IndexOutOfBoundsException e) {
+            // Truncated polyline: keep the points decoded so far
+        }
+        return points;
+    }
+
+    public static String encode(List<double[]> points) {
+        StringBuilder encoded = new StringBuilder();
+        long previousLat = 0;
+        long previousLng = 0;
+        for (double[] point : points) {
+            long lat = Math.round(point[0] * 1e5);
+            long lng = Math.round(point[1] * 1e5);
+            writeValue(encoded, lat - previousLat);
+            writeValue(encoded, lng - previousLng);
+            previousLat = lat;
+            previousLng = lng;
+        }
+        return encoded.toString();
+    }
+
+    // Returns {signed value, index after it}
+    private static int[] readValue(String encoded, int index) {
+        int result = 0;
+        int shift = 0;
+        int chunk;
+        do {
+            chunk = encoded.charAt(index++) - 63;
+            result |= (chunk & 0x1f) << shift;
+            shift += 5;
+        } while (chunk >= 0x20);
+        int value = (result & 1) != 0 ? ~(result >> 1) : (result >> 1);
+        return new int[]{value, index};
+    }
+
+    private static void writeValue(StringBuilder encoded, long value) {
+        long remaining = value < 0 ? ~(value << 1) : (value << 1);
+        while (remaining >= 0x20) {
+            encoded.append((char) ((0x20 | (remaining & 0x1f)) + 63));
+            remaining >>= 5;
+        }
+        encoded.append((char) (remaining + 63));
+    }
+}
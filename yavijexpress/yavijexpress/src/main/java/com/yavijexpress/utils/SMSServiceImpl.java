@@ -1,74 +1,38 @@
 package com.yavijexpress.utils;
 
-import lombok.extern.slf4j.Slf4j;
+import com.yavijexpress.sms.SmsGateway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
-import org.springframework.beans.factory.annotation.Autowired;
-import org.springframework.beans.factory.annotation.Value;
-import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 
-import java.util.HashMap;
+import java.util.Collection;
+import java.util.List;
 import java.util.Map;
 
 @Service
 public class SMSServiceImpl {
 
-    @Autowired
-    private RestTemplate restTemplate;
+    private final SmsGateway smsGateway;
 
-    @Value("${sms.provider.url:https://api.msg91.com/api/v2/sendsms}")
-    private String smsProviderUrl;
-
-    @Value("${sms.auth.key:test_key}")
-    private String authKey;
-
-    @Value("${sms.sender.id:YAVIJX}")
-    private String senderId;
-
-    @Value("${sms.enabled:false}")
-    private boolean smsEnabled;
-    
     private static final Logger log = LoggerFactory.getLogger(SMSServiceImpl.class);
 
-    public void sendSMS(String to, String message) {
-        if (!smsEnabled) {
-            log.info("SMS Disabled. Would send to {}: {}", to, message);
-            return;
-        }
-
-        try {
-            Map<String, Object> requestBody = new HashMap<>();
-            requestBody.put("sender", senderId);
-            requestBody.put("route", "4"); // Transactional route
-            requestBody.put("country", "91");
-
-            Map<String, Object> smsData = new HashMap<>();
-            smsData.put("message", message);
-            smsData.put("to", new String[]{to});
-
-            requestBody.put("sms", new Object[]{smsData});
-
-            HttpHeaders headers = new HttpHeaders();
-            headers.setContentType(MediaType.APPLICATION_JSON);
-            headers.set("authkey", authKey);
-
-            HttpEntity<Map<String, Object>> entity = new HttpEntity<>(requestBody, headers);
+    public SMSServiceImpl(SmsGateway smsGateway) {
+        this.smsGateway = smsGateway;
+    }
 
-            ResponseEntity<String> response = restTemplate.postForEntity(
-                    smsProviderUrl, entity, String.class);
+    // True when the provider accepted the message (or SMS is disabled and the stub took it)
+    public boolean sendSMS(String to, String message) {
+        return to != null && smsGateway.send(message, List.of(to));
+    }
 
-            if (response.getStatusCode() == HttpStatus.OK) {
-                log.info("SMS sent successfully to {}", to);
-            } else {
-                log.error("Failed to send SMS to {}. Response: {}", to, response.getBody());
-            }
+    // Same text to several numbers, in as few provider requests as possible
+    public boolean sendSMS(Collection<String> to, String message) {
+        return smsGateway.send(message, to);
+    }
 
-        } catch (Exception e) {
-            log.error("Error sending SMS to {}: {}", to, e.getMessage());
-            // Don't throw exception - SMS failure shouldn't break the main flow
-        }
+    // Outcome per number; no request or retry starts that could end after budgetMs
+    public Map<String, SmsGateway.Outcome> sendSMS(Collection<String> to, String message, long budgetMs) {
+        return smsGateway.send(message, to, budgetMs);
     }
 
 
@@ -0,0 +1,252 @@
+package com.yavijexpress.websocket;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.MessageChannel;
+import org.springframework.messaging.MessageHandler;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.ExecutorChannelInterceptor;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.BinaryMessage;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketHandler;
+import org.springframework.web.socket.WebSocketMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.WebSocketHandlerDecorator;
+import org.springframework.web.socket.handler.WebSocketHandlerDecoratorFactory;
+import org.springframework.web.socket.handler.WebSocketSessionDecorator;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Tracks how far each WebSocket session lags behind what the broker has handed it. Every frame is
+ * counted when it enters the client outbound channel and discounted once it has actually been written
+ * to the socket, or when the channel discards it; the difference is the session's backlog (executor
+ * queue plus send buffer). There is no per-frame pairing: a write discounts its own encoded size, which
+ * is never less than what was counted for it, and the byte count is reset whenever the frame count
+ * drains to zero, so the count cannot stay stuck above the threshold once the session catches up. ERROR
+ * frames, which STOMP also writes straight to the socket without passing the channel, are left out on
+ * both sides.
+ *
+ * Once a session's backlog passes websocket.slow-consumer.drop-threshold-bytes, policy=drop discards
+ * its MESSAGE frames so it can catch up, while policy=disconnect closes it so the client reconnects
+ * and reloads state over REST. A session that exceeds the transport's send-time or send-buffer limit
+ * is closed by Spring under either policy; every such close is counted as an eviction.
+ */
+@Component
+public class SlowConsumerGuard implements WebSocketHandlerDecoratorFactory, ExecutorChannelInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(SlowConsumerGuard.class);
+
+    private final Map<String, SessionBacklog> sessions = new ConcurrentHashMap<>();
+    private final AtomicLong evictions = new AtomicLong();
+    private final AtomicLong droppedFrames = new AtomicLong();
+
+    @Value("${websocket.slow-consumer.policy:drop}")
+    private String policy;
+
+    @Value("${websocket.slow-consumer.drop-threshold-bytes:262144}")
+    private long dropThresholdBytes;
+
+    @Override
+    public WebSocketHandler decorate(WebSocketHandler handler) {
+        return new WebSocketHandlerDecorator(handler) {
+            @Override
+            public void afterConnectionEstablished(WebSocketSession session) throws Exception {
+                SessionBacklog backlog = new SessionBacklog(session);
+                sessions.put(session.getId(), backlog);
+                super.afterConnectionEstablished(new CountingSession(session, backlog));
+            }
+
+            @Override
+            public void afterConnectionClosed(WebSocketSession session, CloseStatus closeStatus) throws Exception {
+                sessions.remove(session.getId());
+                // Spring closes a session with SESSION_NOT_RELIABLE when it exceeds the send time or buffer limit
+                if (CloseStatus.SESSION_NOT_RELIABLE.equals(closeStatus)) {
+                    evictions.incrementAndGet();
+                    log.warn("Evicted slow WebSocket session {}", session.getId());
+                }
+                super.afterConnectionClosed(session, closeStatus);
+            }
+        };
+    }
+
+    // Registered on the client outbound channel; runs on the publishing thread
+    @Override
+    public Message<?> preSend(Message<?> message, MessageChannel channel) {
+        SessionBacklog backlog = backlogOf(message);
+        if (backlog == null) {
+            return message;
+        }
+
+        if (SimpMessageHeaderAccessor.getMessageType(message.getHeaders()) == SimpMessageType.MESSAGE
+                && backlog.bytes() > dropThresholdBytes) {
+            backlog.dropped.incrementAndGet();
+            droppedFrames.incrementAndGet();
+            if ("disconnect".equalsIgnoreCase(policy)) {
+                disconnect(backlog.session.getId(), backlog);
+            }
+            return null;
+        }
+        backlog.queued(payloadSize(message));
+        return message;
+    }
+
+    // The executor rejected the frame, so it will never be written
+    @Override
+    public void afterSendCompletion(Message<?> message, MessageChannel channel, boolean sent, Exception ex) {
+        if (!sent || ex != null) {
+            discard(message);
+        }
+    }
+
+    @Override
+    public void afterMessageHandled(Message<?> message, MessageChannel channel, MessageHandler handler, Exception ex) {
+        if (ex != null) {
+            discard(message);
+        }
+    }
+
+    private void discard(Message<?> message) {
+        SessionBacklog backlog = backlogOf(message);
+        if (backlog != null) {
+            backlog.discounted(payloadSize(message));
+        }
+    }
+
+    // Null for frames that are not counted: no live session, or an ERROR frame
+    private SessionBacklog backlogOf(Message<?> message) {
+        String sessionId = SimpMessageHeaderAccessor.getSessionId(message.getHeaders());
+        if (sessionId == null || StompHeaderAccessor.getCommand(message.getHeaders()) == StompCommand.ERROR) {
+            return null;
+        }
+        return sessions.get(sessionId);
+    }
+
+    private static int payloadSize(Message<?> message) {
+        return message.getPayload() instanceof byte[] bytes ? bytes.length : 0;
+    }
+
+    private void disconnect(String sessionId, SessionBacklog backlog) {
+        if (!backlog.closing.compareAndSet(false, true)) {
+            return;
+        }
+        try {
+            backlog.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+        } catch (IOException e) {
+            log.debug("Failed to close slow WebSocket session {}", sessionId, e);
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getEvictions() {
+        return evictions.get();
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames.get();
+    }
+
+    public String getPolicy() {
+        return policy;
+    }
+
+    // The sessions with the largest backlog, largest first
+    public List<WebSocketStats.SessionBacklog> topBacklogs(int limit) {
+        List<WebSocketStats.SessionBacklog> result = new ArrayList<>();
+        sessions.forEach((id, backlog) -> result.add(
+                new WebSocketStats.SessionBacklog(id, backlog.frames(), backlog.bytes(), backlog.dropped.get())));
+        result.sort(Comparator.comparingLong(WebSocketStats.SessionBacklog::getBufferedBytes).reversed());
+        return result.size() > limit ? new ArrayList<>(result.subList(0, limit)) : result;
+    }
+
+    private static final class SessionBacklog {
+        private final WebSocketSession session;
+        private final AtomicBoolean closing = new AtomicBoolean();
+        private final AtomicLong dropped = new AtomicLong();
+        private int frames;
+        private long bytes;
+
+        SessionBacklog(WebSocketSession session) {
+            this.session = session;
+        }
+
+        synchronized void queued(int size) {
+            frames++;
+            bytes += size;
+        }
+
+        // A frame was written or discarded; size is at least what was counted for it
+        synchronized void discounted(long size) {
+            frames = Math.max(frames - 1, 0);
+            bytes = frames == 0 ? 0 : Math.max(bytes - size, 0);
+        }
+
+        synchronized int frames() {
+            return frames;
+        }
+
+        synchronized long bytes() {
+            return bytes;
+        }
+    }
+
+    // Sits under Spring's own buffering decorator and observes each frame as it reaches the socket
+    private static final class CountingSession extends WebSocketSessionDecorator {
+        private final SessionBacklog backlog;
+
+        CountingSession(WebSocketSession session, SessionBacklog backlog) {
+            super(session);
+            this.backlog = backlog;
+        }
+
+        @Override
+        public void sendMessage(WebSocketMessage<?> message) throws IOException {
+            try {
+                super.sendMessage(message);
+            } finally {
+                if (!isErrorFrame(message)) {
+                    backlog.discounted(message.getPayloadLength());
+                }
+            }
+        }
+
+        private static boolean isErrorFrame(WebSocketMessage<?> message) {
+            if (message instanceof TextMessage text) {
+                return text.getPayload().startsWith("ERROR\n");
+            }
+            if (message instanceof BinaryMessage binary) {
+                byte[] prefix = "ERROR\n".getBytes(StandardCharsets.US_ASCII);
+                ByteBuffer payload = binary.getPayload().duplicate();
+                if (payload.remaining() < prefix.length) {
+                    return false;
+                }
+                for (byte b : prefix) {
+                    if (payload.get() != b) {
+                        return false;
+                    }
+                }
+                return true;
+            }
+            return false;
+        }
+    }
+}
@@ -0,0 +1,49 @@
+package com.yavijexpress.websocket;
+
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.ThreadPoolExecutor;
+
+// Collects channel executor and per-session backlog figures for GET /api/admin/websocket/stats
+@Component
+public class WebSocketMetrics {
+
+    private static final int TOP_SESSIONS = 20;
+
+    private final SlowConsumerGuard slowConsumerGuard;
+    private final ThreadPoolTaskExecutor inboundExecutor;
+    private final ThreadPoolTaskExecutor outboundExecutor;
+
+    public WebSocketMetrics(SlowConsumerGuard slowConsumerGuard,
+                            @Qualifier("clientInboundChannelExecutor") ThreadPoolTaskExecutor inboundExecutor,
+                            @Qualifier("clientOutboundChannelExecutor") ThreadPoolTaskExecutor outboundExecutor) {
+        this.slowConsumerGuard = slowConsumerGuard;
+        this.inboundExecutor = inboundExecutor;
+        this.outboundExecutor = outboundExecutor;
+    }
+
+    public WebSocketStats snapshot() {
+        return new WebSocketStats(
+                slowConsumerGuard.getSessionCount(),
+                slowConsumerGuard.getPolicy(),
+                slowConsumerGuard.getEvictions(),
+                slowConsumerGuard.getDroppedFrames(),
+                executorStats(inboundExecutor),
+                executorStats(outboundExecutor),
+                slowConsumerGuard.topBacklogs(TOP_SESSIONS)
+        );
+    }
+
+    private static WebSocketStats.ExecutorStats executorStats(ThreadPoolTaskExecutor executor) {
+        ThreadPoolExecutor pool = executor.getThreadPoolExecutor();
+        return new WebSocketStats.ExecutorStats(
+                pool.getPoolSize(),
+                pool.getActiveCount(),
+                pool.getQueue().size(),
+                pool.getQueue().remainingCapacity(),
+                pool.getCompletedTaskCount()
+        );
+    }
+}
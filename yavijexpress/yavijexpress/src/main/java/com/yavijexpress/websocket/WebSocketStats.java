@@ -0,0 +1,122 @@
+package com.yavijexpress.websocket;
+
+import java.util.List;
+
+/**
+ * Point-in-time view of the WebSocket transport for the admin dashboard.
+ */
+public class WebSocketStats {
+
+    private final int sessions;
+    private final String slowConsumerPolicy;
+    private final long evictions;
+    private final long droppedFrames;
+    private final ExecutorStats inbound;
+    private final ExecutorStats outbound;
+    private final List<SessionBacklog> largestBacklogs;
+
+    public WebSocketStats(int sessions, String slowConsumerPolicy, long evictions, long droppedFrames,
+                          ExecutorStats inbound, ExecutorStats outbound, List<SessionBacklog> largestBacklogs) {
+        this.sessions = sessions;
+        this.slowConsumerPolicy = slowConsumerPolicy;
+        this.evictions = evictions;
+        this.droppedFrames = droppedFrames;
+        this.inbound = inbound;
+        this.outbound = outbound;
+        this.largestBacklogs = largestBacklogs;
+    }
+
+    public int getSessions() {
+        return sessions;
+    }
+
+    public String getSlowConsumerPolicy() {
+        return slowConsumerPolicy;
+    }
+
+    public long getEvictions() {
+        return evictions;
+    }
+
+    public long getDroppedFrames() {
+        return droppedFrames;
+    }
+
+    public ExecutorStats getInbound() {
+        return inbound;
+    }
+
+    public ExecutorStats getOutbound() {
+        return outbound;
+    }
+
+    public List<SessionBacklog> getLargestBacklogs() {
+        return largestBacklogs;
+    }
+
+    public static class ExecutorStats {
+        private final int poolSize;
+        private final int activeThreads;
+        private final int queueDepth;
+        private final int queueRemainingCapacity;
+        private final long completedTasks;
+
+        public ExecutorStats(int poolSize, int activeThreads, int queueDepth, int queueRemainingCapacity, long completedTasks) {
+            this.poolSize = poolSize;
+            this.activeThreads = activeThreads;
+            this.queueDepth = queueDepth;
+            this.queueRemainingCapacity = queueRemainingCapacity;
+            this.completedTasks = completedTasks;
+        }
+
+        public int getPoolSize() {
+            return poolSize;
+        }
+
+        public int getActiveThreads() {
+            return activeThreads;
+        }
+
+        public int getQueueDepth() {
+            return queueDepth;
+        }
+
+        public int getQueueRemainingCapacity() {
+            return queueRemainingCapacity;
+        }
+
+        public long getCompletedTasks() {
+            return completedTasks;
+        }
+    }
+
+    public static class SessionBacklog {
+        private final String sessionId;
+        private final int bufferedFrames;
+        private final long bufferedBytes;
+        private final long droppedFrames;
+
+        public SessionBacklog(String sessionId, int bufferedFrames, long bufferedBytes, long droppedFrames) {
+            this.sessionId = sessionId;
+            this.bufferedFrames = bufferedFrames;
+            this.bufferedBytes = bufferedBytes;
+            this.droppedFrames = droppedFrames;
+        }
+
+        public String getSessionId() {
+            return sessionId;
+        }
+
+        public int getBufferedFrames() {
+            return bufferedFrames;
+        }
+
+        public long getBufferedBytes() {
+            return bufferedBytes;
+        }
+
+        public long getDroppedFrames() {
+            return droppedFrames;
+        }
+    }
+}
@@ -0,0 +1,15 @@
+-- Inbox keyset pages walk (user_id, created_at DESC, id DESC); see NotificationRepository.findInboxPage.
+-- V1 is the baseline Flyway records for schemas created by ddl-auto before migrations existed. On a fresh
+-- database the table does not exist yet when this runs (Hibernate creates it, index included), so the
+-- index is only added to an existing notifications table that lacks it.
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = 'notifications')
+        AND NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                        WHERE table_schema = DATABASE() AND table_name = 'notifications'
+                          AND index_name = 'idx_notifications_user_created'),
+        'CREATE INDEX idx_notifications_user_created ON notifications (user_id, created_at, id)',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,22 @@
+-- Broadcasts are pushed as one topic frame, so nothing resumes a push per user any more: the resume
+-- cursor broadcast_jobs.last_user_id and the users (role, id) index it paged through are dropped.
+-- ddl-auto=update never removes either, and neither exists on a database created after the change.
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.columns
+                WHERE table_schema = DATABASE() AND table_name = 'broadcast_jobs'
+                  AND column_name = 'last_user_id'),
+        'ALTER TABLE broadcast_jobs DROP COLUMN last_user_id',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'users'
+                  AND index_name = 'idx_users_role_id'),
+        'DROP INDEX idx_users_role_id ON users',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
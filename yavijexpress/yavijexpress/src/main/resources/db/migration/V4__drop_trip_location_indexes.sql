@@ -0,0 +1,22 @@
+-- The warm-up search fallback matches locations with infix LIKE patterns ('%navi%mum%'), which the
+-- (from_location, departure_time) and (to_location, departure_time) indexes can never serve; they only
+-- cost writes. ddl-auto=update never removes an index, so existing databases drop them here.
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'trips'
+                  AND index_name = 'idx_trips_from_departure'),
+        'DROP INDEX idx_trips_from_departure ON trips',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'trips'
+                  AND index_name = 'idx_trips_to_departure'),
+        'DROP INDEX idx_trips_to_departure ON trips',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
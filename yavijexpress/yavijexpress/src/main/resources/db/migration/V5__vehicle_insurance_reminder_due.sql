@@ -0,0 +1,61 @@
+-- The insurance reminder sweep reads vehicles by insurance_reminder_due_at, which is only set while a
+-- reminder is pending (see Vehicle.scheduleInsuranceReminder). Flyway runs before Hibernate's update, so
+-- on an existing vehicles table the columns are added and backfilled here; a fresh database gets them
+-- from Hibernate. The insurance_expiry index only served the old open-ended scan and is dropped.
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = 'vehicles')
+        AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                        WHERE table_schema = DATABASE() AND table_name = 'vehicles'
+                          AND column_name = 'insurance_reminder_for'),
+        'ALTER TABLE vehicles ADD COLUMN insurance_reminder_for DATETIME(6) NULL',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = 'vehicles')
+        AND NOT EXISTS (SELECT 1 FROM information_schema.columns
+                        WHERE table_schema = DATABASE() AND table_name = 'vehicles'
+                          AND column_name = 'insurance_reminder_due_at'),
+        'ALTER TABLE vehicles ADD COLUMN insurance_reminder_due_at DATETIME(6) NULL',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+-- Same rule as the entity: active, with an expiry that has not been reminded yet, due 30 days ahead
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = 'vehicles'),
+        'UPDATE vehicles SET insurance_reminder_due_at = insurance_expiry - INTERVAL 30 DAY
+         WHERE is_active = 1 AND insurance_expiry IS NOT NULL
+           AND (insurance_reminder_for IS NULL OR insurance_reminder_for <> insurance_expiry)',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.tables
+                WHERE table_schema = DATABASE() AND table_name = 'vehicles')
+        AND NOT EXISTS (SELECT 1 FROM information_schema.statistics
+                        WHERE table_schema = DATABASE() AND table_name = 'vehicles'
+                          AND index_name = 'idx_vehicles_insurance_reminder_due'),
+        'CREATE INDEX idx_vehicles_insurance_reminder_due ON vehicles (insurance_reminder_due_at)',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
+
+SET @ddl = (SELECT IF(
+        EXISTS (SELECT 1 FROM information_schema.statistics
+                WHERE table_schema = DATABASE() AND table_name = 'vehicles'
+                  AND index_name = 'idx_vehicles_insurance_expiry'),
+        'DROP INDEX idx_vehicles_insurance_expiry ON vehicles',
+        'DO 0'));
+PREPARE stmt FROM @ddl;
+EXECUTE stmt;
+DEALLOCATE PREPARE stmt;
@@ -0,0 +1,219 @@
+package com.yavijexpress.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.Message;
+import org.springframework.messaging.simp.SimpMessageHeaderAccessor;
+import org.springframework.messaging.simp.SimpMessageType;
+import org.springframework.messaging.simp.config.MessageBrokerRegistry;
+import org.springframework.messaging.simp.stomp.StompBrokerRelayMessageHandler;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.simp.config.StompBrokerRelayRegistration;
+import org.springframework.messaging.support.ExecutorSubscribableChannel;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.messaging.tcp.ReconnectStrategy;
+import org.springframework.messaging.tcp.TcpConnection;
+import org.springframework.messaging.tcp.TcpConnectionHandler;
+import org.springframework.messaging.tcp.TcpOperations;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * websocket.broker.mode=relay against a stub STOMP broker. The stub is plugged in as the relay's TCP
+ * client, so the test needs neither reactor-netty (-Pbroker-relay) nor a running broker, and it checks
+ * the relay that {@link WebSocketConfig} actually registers.
+ */
+class WebSocketConfigRelayTest {
+
+    private final ExecutorSubscribableChannel clientInbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel clientOutbound = new ExecutorSubscribableChannel();
+    private final ExecutorSubscribableChannel brokerChannel = new ExecutorSubscribableChannel();
+    private final List<Message<?>> toClients = new CopyOnWriteArrayList<>();
+    private final StubBroker broker = new StubBroker();
+    private StompBrokerRelayMessageHandler relay;
+
+    @BeforeEach
+    void setUp() {
+        clientOutbound.subscribe(toClients::add);
+        MessageBrokerRegistry registry = new MessageBrokerRegistry(clientInbound, clientOutbound);
+        config("relay").configureMessageBroker(registry);
+
+        StompBrokerRelayRegistration registration =
+                (StompBrokerRelayRegistration) ReflectionTestUtils.getField(registry, "brokerRelayRegistration");
+        assertThat(registration).isNotNull();
+        registration.setTcpClient(broker);
+        relay = ReflectionTestUtils.invokeMethod(registry, "getStompBrokerRelay", brokerChannel);
+        relay.start();
+    }
+
+    @AfterEach
+    void tearDown() {
+        relay.stop();
+    }
+
+    @Test
+    void simpleModeDoesNotRegisterARelay() {
+        MessageBrokerRegistry registry = new MessageBrokerRegistry(clientInbound, clientOutbound);
+        config("simple").configureMessageBroker(registry);
+
+        assertThat(ReflectionTestUtils.getField(registry, "brokerRelayRegistration")).isNull();
+    }
+
+    @Test
+    void systemSessionConnectsWithConfiguredCredentials() {
+        StubConnection system = broker.connections.get(0);
+
+        StompHeaderAccessor connect = system.frames.get(0);
+        assertThat(connect.getCommand()).isEqualTo(StompCommand.CONNECT);
+        assertThat(connect.getLogin()).isEqualTo("relay-user");
+        assertThat(connect.getPasscode()).isEqualTo("relay-pass");
+        assertThat(connect.getHost()).isEqualTo("yavij");
+        assertThat(relay.isBrokerAvailable()).isTrue();
+    }
+
+    @Test
+    void applicationPublishesAreForwardedOverTheSystemSession() {
+        SimpMessageHeaderAccessor headers = SimpMessageHeaderAccessor.create(SimpMessageType.MESSAGE);
+        headers.setDestination("/topic/admin/emergencies");
+        relay.handleMessage(MessageBuilder.createMessage("{\"seq\":1}".getBytes(StandardCharsets.UTF_8), headers.getMessageHeaders()));
+
+        StompHeaderAccessor send = broker.connections.get(0).last();
+        assertThat(send.getCommand()).isEqualTo(StompCommand.SEND);
+        assertThat(send.getDestination()).isEqualTo("/topic/admin/emergencies");
+    }
+
+    @Test
+    void clientSessionsGetTheirOwnConnectionAndReceiveBrokerMessages() {
+        relay.handleMessage(clientFrame(StompCommand.CONNECT, "s1", null));
+        assertThat(broker.connections).hasSize(2);
+        StubConnection client = broker.connections.get(1);
+        assertThat(client.frames.get(0).getCommand()).isEqualTo(StompCommand.CONNECT);
+
+        Message<byte[]> subscribe = clientFrame(StompCommand.SUBSCRIBE, "s1", "/topic/trips/7/location");
+        relay.handleMessage(subscribe);
+        StompHeaderAccessor forwarded = client.last();
+        assertThat(forwarded.getCommand()).isEqualTo(StompCommand.SUBSCRIBE);
+        assertThat(forwarded.getDestination()).isEqualTo("/topic/trips/7/location");
+
+        client.receive(StompCommand.MESSAGE, "/topic/trips/7/location", forwarded.getSubscriptionId());
+
+        Message<?> delivered = toClients.get(toClients.size() - 1);
+        StompHeaderAccessor deliveredHeaders = StompHeaderAccessor.wrap(delivered);
+        assertThat(deliveredHeaders.getCommand()).isEqualTo(StompCommand.MESSAGE);
+        assertThat(deliveredHeaders.getSessionId()).isEqualTo("s1");
+        assertThat(deliveredHeaders.getDestination()).isEqualTo("/topic/trips/7/location");
+    }
+
+    @Test
+    void onlyTopicAndQueueDestinationsAreRelayed() {
+        assertThat(relay.getDestinationPrefixes()).containsExactlyInAnyOrder("/topic", "/queue");
+    }
+
+    private static WebSocketConfig config(String mode) {
+        WebSocketConfig config = new WebSocketConfig(null, null);
+        ReflectionTestUtils.setField(config, "brokerMode", mode);
+        ReflectionTestUtils.setField(config, "relayHost", "localhost");
+        ReflectionTestUtils.setField(config, "relayPort", 61613);
+        ReflectionTestUtils.setField(config, "relayLogin", "relay-user");
+        ReflectionTestUtils.setField(config, "relayPasscode", "relay-pass");
+        ReflectionTestUtils.setField(config, "relayVirtualHost", "yavij");
+        ReflectionTestUtils.setField(config, "heartbeatMs", 0L);
+        return config;
+    }
+
+    private static Message<byte[]> clientFrame(StompCommand command, String sessionId, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setSessionId(sessionId);
+        if (destination != null) {
+            accessor.setDestination(destination);
+            accessor.setSubscriptionId("sub-0");
+        }
+        if (command == StompCommand.CONNECT) {
+            accessor.setAcceptVersion("1.2");
+            accessor.setHeartbeat(0, 0);
+        }
+        accessor.setLeaveMutable(true);
+        return MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders());
+    }
+
+    // Accepts every connection and answers CONNECT with CONNECTED, like a broker with no auth
+    private static final class StubBroker implements TcpOperations<byte[]> {
+        private final List<StubConnection> connections = new CopyOnWriteArrayList<>();
+
+        @Override
+        public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> handler) {
+            StubConnection connection = new StubConnection(handler);
+            connections.add(connection);
+            handler.afterConnected(connection);
+            return CompletableFuture.completedFuture(null);
+        }
+
+        @Override
+        public CompletableFuture<Void> connectAsync(TcpConnectionHandler<byte[]> handler, ReconnectStrategy reconnectStrategy) {
+            return connectAsync(handler);
+        }
+
+        @Override
+        public CompletableFuture<Void> shutdownAsync() {
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
+    private static final class StubConnection implements TcpConnection<byte[]> {
+        private final TcpConnectionHandler<byte[]> handler;
+        private final List<StompHeaderAccessor> frames = new CopyOnWriteArrayList<>();
+
+        StubConnection(TcpConnectionHandler<byte[]> handler) {
+            this.handler = handler;
+        }
+
+        @Override
+        public CompletableFuture<Void> sendAsync(Message<byte[]> message) {
+            StompHeaderAccessor frame = StompHeaderAccessor.wrap(message);
+            frames.add(frame);
+            if (frame.getCommand() == StompCommand.CONNECT || frame.getCommand() == StompCommand.STOMP) {
+                receive(StompCommand.CONNECTED, null, null);
+            }
+            return CompletableFuture.completedFuture(null);
+        }
+
+        void receive(StompCommand command, String destination, String subscriptionId) {
+            StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+            if (command == StompCommand.CONNECTED) {
+                accessor.setVersion("1.2");
+                accessor.setHeartbeat(0, 0);
+            } else {
+                accessor.setDestination(destination);
+                accessor.setSubscriptionId(subscriptionId);
+                accessor.setMessageId("m-" + frames.size());
+            }
+            // The relay stamps its session id onto frames coming from the broker
+            accessor.setLeaveMutable(true);
+            handler.handleMessage(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()));
+        }
+
+        StompHeaderAccessor last() {
+            return frames.get(frames.size() - 1);
+        }
+
+        @Override
+        public void onReadInactivity(Runnable runnable, long duration) {
+        }
+
+        @Override
+        public void onWriteInactivity(Runnable runnable, long duration) {
+        }
+
+        @Override
+        public void close() {
+            handler.afterConnectionClosed();
+        }
+    }
+}
@@ -0,0 +1,61 @@
+package com.yavijexpress.mail;
+
+import com.yavijexpress.entity.OutboundMail;
+import com.yavijexpress.repository.OutboundMailRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+
+class MailOutboxTest {
+
+    private final OutboundMailRepository repository = mock(OutboundMailRepository.class);
+    private final MailOutboxWorker worker = mock(MailOutboxWorker.class);
+    private final MailOutbox outbox = new MailOutbox(repository, worker);
+
+    @AfterEach
+    void tearDown() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void queuedMailIsSavedAsPending() {
+        outbox.enqueue("a@example.com", "Subject", "<p>Body</p>");
+
+        ArgumentCaptor<OutboundMail> saved = ArgumentCaptor.forClass(OutboundMail.class);
+        verify(repository).save(saved.capture());
+        assertThat(saved.getValue().getRecipient()).isEqualTo("a@example.com");
+        assertThat(saved.getValue().getStatus()).isEqualTo(OutboundMail.Status.PENDING);
+        verify(worker).wakeUp();
+    }
+
+    @Test
+    void insideATransactionTheWorkerIsWokenOnlyAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.enqueue("a@example.com", "Subject", "<p>Body</p>");
+        verify(worker, never()).wakeUp();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        verify(worker).wakeUp();
+    }
+
+    @Test
+    void aRolledBackTransactionNeverWakesTheWorker() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        outbox.enqueue("a@example.com", "Subject", "<p>Body</p>");
+        TransactionSynchronizationManager.getSynchronizations()
+                .forEach(synchronization -> synchronization.afterCompletion(TransactionSynchronization.STATUS_ROLLED_BACK));
+
+        verify(worker, never()).wakeUp();
+    }
+}
@@ -0,0 +1,143 @@
+package com.yavijexpress.mail;
+
+import com.yavijexpress.entity.OutboundMail;
+import com.yavijexpress.repository.OutboundMailRepository;
+import jakarta.mail.Session;
+import jakarta.mail.internet.MimeMessage;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.InOrder;
+import org.springframework.mail.MailSendException;
+import org.springframework.mail.javamail.JavaMailSender;
+import org.springframework.scheduling.concurrent.ThreadPoolTaskExecutor;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.SimpleTransactionStatus;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyCollection;
+import static org.mockito.ArgumentMatchers.anyString;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.doThrow;
+import static org.mockito.Mockito.inOrder;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class MailOutboxWorkerTest {
+
+    private final OutboundMailRepository repository = mock(OutboundMailRepository.class);
+    private final JavaMailSender mailSender = mock(JavaMailSender.class);
+    private final MailPacer pacer = new MailPacer(0, 60_000);
+    private final List<OutboundMail> due = new ArrayList<>();
+    private MailOutboxWorker worker;
+
+    @BeforeEach
+    void setUp() {
+        // Drains run inline on the calling thread
+        ThreadPoolTaskExecutor executor = mock(ThreadPoolTaskExecutor.class);
+        when(executor.getMaxPoolSize()).thenReturn(1);
+        when(executor.getThreadPoolExecutor()).thenReturn(new ThreadPoolExecutor(1, 1, 0, TimeUnit.SECONDS, new LinkedBlockingQueue<>()));
+        doAnswer(invocation -> {
+            invocation.<Runnable>getArgument(0).run();
+            return null;
+        }).when(executor).execute(any(Runnable.class));
+
+        PlatformTransactionManager transactionManager = mock(PlatformTransactionManager.class);
+        when(transactionManager.getTransaction(any())).thenAnswer(invocation -> new SimpleTransactionStatus());
+
+        when(mailSender.createMimeMessage()).thenAnswer(invocation -> new MimeMessage(Session.getInstance(new Properties())));
+        when(repository.findDueIds(any(), any())).thenAnswer(invocation ->
+                due.stream().filter(mail -> mail.getClaimToken() == null).map(OutboundMail::getId).toList());
+        when(repository.claim(anyCollection(), anyString(), any())).thenAnswer(invocation -> {
+            String token = invocation.getArgument(1);
+            due.forEach(mail -> mail.setClaimToken(token));
+            return due.size();
+        });
+        when(repository.findAllById(any())).thenAnswer(invocation -> new ArrayList<>(due));
+        when(repository.deleteClaimed(any(), anyString())).thenReturn(1);
+        when(repository.countByStatus(any())).thenReturn(0L);
+
+        worker = new MailOutboxWorker(repository, mailSender, pacer, executor, transactionManager);
+        ReflectionTestUtils.setField(worker, "batchSize", 50);
+        ReflectionTestUtils.setField(worker, "maxAttempts", 3);
+        ReflectionTestUtils.setField(worker, "messagesPerConnection", 50);
+        ReflectionTestUtils.setField(worker, "fromEmail", "noreply@example.com");
+    }
+
+    @Test
+    void eachMailIsRemovedRightAfterItIsSent() {
+        OutboundMail first = mail(1L, "a@example.com");
+        OutboundMail second = mail(2L, "b@example.com");
+
+        worker.wakeUp();
+
+        InOrder order = inOrder(mailSender, repository);
+        order.verify(mailSender).send(any(MimeMessage.class));
+        order.verify(repository).deleteClaimed(eq(1L), eq(first.getClaimToken()));
+        order.verify(mailSender).send(any(MimeMessage.class));
+        order.verify(repository).deleteClaimed(eq(2L), eq(second.getClaimToken()));
+        assertThat(worker.stats().getSent()).isEqualTo(2);
+    }
+
+    @Test
+    void aFailedSendIsRetriedLaterWithoutHoldingBackTheRest() {
+        OutboundMail failing = mail(1L, "a@example.com");
+        mail(2L, "b@example.com");
+        doThrow(new MailSendException("connection reset")).doNothing().when(mailSender).send(any(MimeMessage.class));
+
+        worker.wakeUp();
+
+        verify(repository, never()).deleteClaimed(eq(1L), anyString());
+        verify(repository).deleteClaimed(eq(2L), anyString());
+        verify(repository).save(failing);
+        assertThat(failing.getStatus()).isEqualTo(OutboundMail.Status.PENDING);
+        assertThat(failing.getAttempts()).isEqualTo(1);
+        assertThat(failing.getClaimToken()).isNull();
+        assertThat(failing.getNextAttemptAt()).isAfter(LocalDateTime.now());
+    }
+
+    @Test
+    void theLastAttemptMarksTheMailFailed() {
+        OutboundMail failing = mail(1L, "a@example.com");
+        failing.setAttempts(2);
+        doThrow(new MailSendException("connection reset")).when(mailSender).send(any(MimeMessage.class));
+
+        worker.wakeUp();
+
+        assertThat(failing.getStatus()).isEqualTo(OutboundMail.Status.FAILED);
+        assertThat(worker.stats().getGaveUp()).isEqualTo(1);
+    }
+
+    @Test
+    void aRecipientMailedMomentsAgoIsDeferred() {
+        pacer.sent("a@example.com");
+        mail(1L, "a@example.com");
+
+        worker.wakeUp();
+
+        verify(mailSender, never()).send(any(MimeMessage.class));
+        verify(repository).defer(eq(1L), any());
+        assertThat(worker.stats().getDeferred()).isEqualTo(1);
+    }
+
+    private OutboundMail mail(Long id, String recipient) {
+        OutboundMail mail = new OutboundMail();
+        mail.setId(id);
+        mail.setRecipient(recipient);
+        mail.setSubject("Subject " + id);
+        mail.setBody("<p>Body " + id + "</p>");
+        due.add(mail);
+        return mail;
+    }
+}
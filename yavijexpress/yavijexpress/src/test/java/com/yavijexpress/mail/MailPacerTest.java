@@ -0,0 +1,59 @@
+package com.yavijexpress.mail;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class MailPacerTest {
+
+    @Test
+    void sendSlotsAreSpacedByTheRate() throws InterruptedException {
+        MailPacer pacer = new MailPacer(20, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 5; i++) {
+            pacer.acquire();
+        }
+        // The first slot is immediate, the other four 50ms apart
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(190);
+    }
+
+    @Test
+    void zeroRateDoesNotPace() throws InterruptedException {
+        MailPacer pacer = new MailPacer(0, 0);
+
+        long start = System.nanoTime();
+        for (int i = 0; i < 100; i++) {
+            pacer.acquire();
+        }
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isLessThan(100);
+    }
+
+    @Test
+    void recipientWaitsOutTheIntervalIgnoringCaseAndSpaces() {
+        MailPacer pacer = new MailPacer(0, 60_000);
+        assertThat(pacer.recipientWaitMs("a@example.com")).isZero();
+
+        pacer.sent(" A@Example.com ");
+
+        assertThat(pacer.recipientWaitMs("a@example.com")).isBetween(59_000L, 60_000L);
+        assertThat(pacer.recipientWaitMs("b@example.com")).isZero();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void pruneForgetsRecipientsWhoseIntervalHasPassed() throws InterruptedException {
+        MailPacer pacer = new MailPacer(0, 20);
+        pacer.sent("a@example.com");
+        Thread.sleep(40);
+        pacer.sent("b@example.com");
+
+        pacer.prune();
+
+        Map<String, Long> lastSentAt = (Map<String, Long>) ReflectionTestUtils.getField(pacer, "lastSentAt");
+        assertThat(lastSentAt).containsOnlyKeys("b@example.com");
+    }
+}
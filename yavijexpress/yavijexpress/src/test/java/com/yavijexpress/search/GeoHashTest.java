@@ -0,0 +1,70 @@
+package com.yavijexpress.search;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class GeoHashTest {
+
+    @Test
+    void encodesKnownPoints() {
+        assertThat(GeoHash.encode(42.605, -5.603, 5)).isEqualTo("ezs42");
+        assertThat(GeoHash.encode(57.64911, 10.40744, 11)).isEqualTo("u4pruydqqvj");
+        assertThat(GeoHash.encode(12.9716, 77.5946, 6)).startsWith(GeoHash.encode(12.9716, 77.5946, 4));
+    }
+
+    @Test
+    void cellSizeHalvesWithEveryBit() {
+        double[] five = GeoHash.cellSize(5);
+        double[] six = GeoHash.cellSize(6);
+
+        assertThat(five[0]).isCloseTo(180.0 / 4096, within(1e-12));
+        assertThat(five[1]).isCloseTo(360.0 / 8192, within(1e-12));
+        assertThat(five[0] * five[1] / (six[0] * six[1])).isCloseTo(32.0, within(1e-9));
+    }
+
+    @Test
+    void neighboursSurroundTheCell() {
+        String own = GeoHash.encode(12.9716, 77.5946, 6);
+
+        assertThat(GeoHash.cellWithNeighbours(12.9716, 77.5946, 6)).hasSize(9).contains(own);
+    }
+
+    @Test
+    void neighboursWrapAcrossTheAntimeridian() {
+        assertThat(GeoHash.cellWithNeighbours(0.5, 179.999, 5))
+                .hasSize(9)
+                .anyMatch(cell -> cell.equals(GeoHash.encode(0.5, -179.99, 5)));
+    }
+
+    @Test
+    void boundingBoxEnclosesTheRadius() {
+        double lat = 12.9716;
+        double lng = 77.5946;
+
+        double[] box = GeoHash.boundingBox(lat, lng, 10);
+
+        assertThat(GeoHash.distanceKm(lat, lng, box[1], lng)).isCloseTo(10, within(0.01));
+        assertThat(GeoHash.distanceKm(lat, lng, box[0], lng)).isCloseTo(10, within(0.01));
+        // The longitude span is the small-angle one, short of the exact circle by well under a metre
+        assertThat(GeoHash.distanceKm(lat, lng, lat, box[3])).isCloseTo(10, within(0.001));
+        assertThat(GeoHash.distanceKm(lat, lng, lat, box[2])).isCloseTo(10, within(0.001));
+    }
+
+    @Test
+    void boundingBoxIsClampedAtThePolesAndTheAntimeridian() {
+        double[] box = GeoHash.boundingBox(89.99, 179.9, 50);
+
+        assertThat(box[1]).isEqualTo(90);
+        assertThat(box[3]).isEqualTo(180);
+    }
+
+    @Test
+    void distanceMatchesKnownValues() {
+        assertThat(GeoHash.distanceKm(0, 0, 1, 0)).isCloseTo(111.19, within(0.01));
+        assertThat(GeoHash.distanceKm(12.9716, 77.5946, 12.9716, 77.5946)).isZero();
+        // Bengaluru to Chennai, about 290 km as the crow flies
+        assertThat(GeoHash.distanceKm(12.9716, 77.5946, 13.0827, 80.2707)).isCloseTo(290, within(5.0));
+    }
+}
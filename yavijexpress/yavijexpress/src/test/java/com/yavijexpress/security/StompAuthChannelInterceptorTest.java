@@ -0,0 +1,137 @@
+package com.yavijexpress.security;
+
+import com.yavijexpress.repository.TripRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.messaging.MessageDeliveryException;
+import org.springframework.messaging.simp.stomp.StompCommand;
+import org.springframework.messaging.simp.stomp.StompHeaderAccessor;
+import org.springframework.messaging.support.MessageBuilder;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThatCode;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class StompAuthChannelInterceptorTest {
+
+    private final TripRepository tripRepository = mock(TripRepository.class);
+    private final StompAuthChannelInterceptor interceptor =
+            new StompAuthChannelInterceptor(null, null, null, null, tripRepository);
+    private final StompPrincipal passenger = principal(7L, "PASSENGER");
+    private final StompPrincipal admin = principal(1L, "ADMIN");
+
+    @Test
+    void ownQueuesAndTheBroadcastTopicAreOpenToEveryone() {
+        allowed(passenger, "/user/queue/notifications");
+        allowed(passenger, "/user/queue/notifications/unread");
+        allowed(passenger, "/topic/broadcasts");
+    }
+
+    @Test
+    void wildcardsAreRefusedBeforeAnyOtherCheck() {
+        for (String destination : List.of("/topic/**", "/topic/*/emergencies", "/topic/admin/*", "/topic/trips/*/location",
+                "/topic/trips/{id}/location", "/topic/trips/1?/location", "/topic/trips.#", "/topic/>")) {
+            denied(passenger, destination);
+            denied(admin, destination);
+        }
+        verify(tripRepository, never()).isParticipant(any(), any());
+    }
+
+    @Test
+    void tripLocationNeedsAParticipantOrAnAdmin() {
+        when(tripRepository.isParticipant(42L, 7L)).thenReturn(true);
+
+        allowed(passenger, "/topic/trips/42/location");
+        denied(passenger, "/topic/trips/43/location");
+        allowed(admin, "/topic/trips/43/location");
+    }
+
+    @Test
+    void otherTripDestinationsAreDeniedByDefault() {
+        when(tripRepository.isParticipant(any(), any())).thenReturn(true);
+
+        denied(passenger, "/topic/trips/42");
+        denied(passenger, "/topic/trips/42/location/raw");
+        denied(passenger, "/topic/trips/42/location\n");
+        denied(passenger, "/topic/trips/abc/location");
+        denied(passenger, "/topic/trips");
+    }
+
+    @Test
+    void adminTopicsNeedTheAdminRole() {
+        denied(passenger, "/topic/admin/emergencies");
+        allowed(admin, "/topic/admin/emergencies");
+        denied(admin, "/topic/admin/");
+        denied(admin, "/topic/admin/emergencies/extra");
+    }
+
+    @Test
+    void roleBroadcastsNeedThatRole() {
+        allowed(passenger, "/topic/broadcasts/PASSENGER");
+        denied(passenger, "/topic/broadcasts/DRIVER");
+        allowed(admin, "/topic/broadcasts/DRIVER");
+    }
+
+    @Test
+    void unknownDestinationsAreDenied() {
+        denied(passenger, "/topic/simp-user-registry");
+        denied(passenger, "/queue/notifications-user123");
+        denied(admin, "/topic/anything");
+        denied(passenger, null);
+    }
+
+    @Test
+    void sendIsOnlyAllowedToApplicationDestinations() {
+        assertThatCode(() -> send(passenger, "/app/ping")).doesNotThrowAnyException();
+        for (String destination : List.of("/topic/broadcasts", "/topic/trips/42/location", "/topic/admin/emergencies",
+                "/user/queue/notifications", "/user/7/queue/notifications", "/queue/notifications-user7", "/application/ping")) {
+            assertThatThrownBy(() -> send(passenger, destination)).isInstanceOf(MessageDeliveryException.class);
+            assertThatThrownBy(() -> send(admin, destination)).isInstanceOf(MessageDeliveryException.class);
+        }
+        assertThatThrownBy(() -> send(passenger, null)).isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    void sendOnAnUnauthenticatedSessionIsRefused() {
+        assertThatThrownBy(() -> send(null, "/app/ping")).isInstanceOf(MessageDeliveryException.class);
+    }
+
+    @Test
+    void unsubscribeIsAcceptedAndUnusedCommandsAreRefused() {
+        assertThatCode(() -> frame(StompCommand.UNSUBSCRIBE, passenger, null)).doesNotThrowAnyException();
+        assertThatCode(() -> frame(StompCommand.DISCONNECT, null, null)).doesNotThrowAnyException();
+        for (StompCommand command : List.of(StompCommand.ACK, StompCommand.NACK, StompCommand.BEGIN, StompCommand.COMMIT, StompCommand.ABORT)) {
+            assertThatThrownBy(() -> frame(command, admin, null)).isInstanceOf(MessageDeliveryException.class);
+        }
+    }
+
+    private void send(StompPrincipal principal, String destination) {
+        frame(StompCommand.SEND, principal, destination);
+    }
+
+    private void frame(StompCommand command, StompPrincipal principal, String destination) {
+        StompHeaderAccessor accessor = StompHeaderAccessor.create(command);
+        accessor.setDestination(destination);
+        accessor.setUser(principal);
+        accessor.setLeaveMutable(true);
+        interceptor.preSend(MessageBuilder.createMessage(new byte[0], accessor.getMessageHeaders()), null);
+    }
+
+    private void allowed(StompPrincipal principal, String destination) {
+        assertThatCode(() -> interceptor.authorizeSubscription(principal, destination)).doesNotThrowAnyException();
+    }
+
+    private void denied(StompPrincipal principal, String destination) {
+        assertThatThrownBy(() -> interceptor.authorizeSubscription(principal, destination))
+                .isInstanceOf(MessageDeliveryException.class);
+    }
+
+    private static StompPrincipal principal(Long userId, String role) {
+        return new StompPrincipal(userId, role.toLowerCase() + "@example.com", List.of(new SimpleGrantedAuthority("ROLE_" + role)));
+    }
+}
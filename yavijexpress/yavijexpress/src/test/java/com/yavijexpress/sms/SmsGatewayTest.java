@@ -0,0 +1,169 @@
+package com.yavijexpress.sms;
+
+import com.yavijexpress.utils.CircuitBreaker;
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.entry;
+
+class SmsGatewayTest {
+
+    private final StubSmsProvider stub = new StubSmsProvider();
+
+    @Test
+    void retryableFailuresAreRetriedUntilTheySucceed() {
+        SmsGateway gateway = gateway(stub, 3, 5);
+        stub.failNext(2);
+
+        assertThat(gateway.send("hello", List.of("9000000001"))).isTrue();
+        assertThat(stub.sent()).hasSize(1);
+    }
+
+    @Test
+    void givesUpAfterMaxAttempts() {
+        SmsGateway gateway = gateway(stub, 3, 5);
+        stub.failNext(3);
+
+        assertThat(gateway.send("hello", List.of("9000000001"))).isFalse();
+        assertThat(stub.sent()).isEmpty();
+        // The fourth request would have gone through, so exactly three were made
+        assertThat(gateway.send("again", List.of("9000000001"))).isTrue();
+    }
+
+    @Test
+    void consecutiveFailuresOpenTheCircuit() {
+        SmsGateway gateway = gateway(stub, 1, 2);
+        stub.failNext(2);
+
+        gateway.send("one", List.of("9000000001"));
+        gateway.send("two", List.of("9000000001"));
+
+        assertThat(gateway.getCircuitState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(gateway.send("three", List.of("9000000001"))).isFalse();
+        assertThat(stub.sent()).isEmpty();
+    }
+
+    @Test
+    void recipientsArePackedIntoAsFewRequestsAsTheProviderAllows() {
+        SmsGateway gateway = gateway(stub, 1, 5);
+        List<String> recipients = IntStream.range(0, 150).mapToObj(i -> String.valueOf(9_000_000_000L + i)).toList();
+
+        assertThat(gateway.send("hello", recipients)).isTrue();
+
+        assertThat(stub.sent()).hasSize(2);
+        assertThat(stub.sent().get(0).getRecipients()).hasSize(100);
+        assertThat(stub.sent().get(1).getRecipients()).hasSize(50);
+    }
+
+    @Test
+    void outcomesAreReportedPerRecipientAsPassedIn() {
+        SmsGateway gateway = gateway(stub, 1, 5);
+        List<String> recipients = Arrays.asList(" 9000000001", "9000000001", "", null);
+
+        Map<String, SmsGateway.Outcome> outcomes = gateway.send("hello", recipients, 5_000);
+
+        assertThat(outcomes).containsExactly(
+                entry(" 9000000001", SmsGateway.Outcome.SENT),
+                entry("9000000001", SmsGateway.Outcome.SENT),
+                entry("", SmsGateway.Outcome.FAILED),
+                entry(null, SmsGateway.Outcome.FAILED));
+        assertThat(stub.sent()).singleElement()
+                .satisfies(sms -> assertThat(sms.getRecipients()).containsExactly("9000000001"));
+        assertThat(gateway.send("hello", List.of())).isFalse();
+    }
+
+    @Test
+    void aFailedBatchDoesNotFailTheOthers() {
+        SmsGateway gateway = gateway(stub, 1, 5);
+        List<String> recipients = IntStream.range(0, 101).mapToObj(i -> String.valueOf(9_000_000_000L + i)).toList();
+        stub.failNext(1);
+
+        Map<String, SmsGateway.Outcome> outcomes = gateway.send("hello", recipients, 5_000);
+
+        assertThat(outcomes.get("9000000000")).isEqualTo(SmsGateway.Outcome.FAILED);
+        assertThat(outcomes.get("9000000100")).isEqualTo(SmsGateway.Outcome.SENT);
+    }
+
+    @Test
+    void aRequestThatMayHaveGoneOutIsNeverRepeated() {
+        ScriptedProvider provider = new ScriptedProvider(0,
+                new SmsOutcomeUnknownException("SMS provider timed out", null));
+        SmsGateway gateway = gateway(provider, 3, 5);
+
+        Map<String, SmsGateway.Outcome> outcomes = gateway.send("hello", List.of("9000000001"), 5_000);
+
+        assertThat(outcomes).containsEntry("9000000001", SmsGateway.Outcome.UNKNOWN);
+        assertThat(provider.requests).isEqualTo(1);
+    }
+
+    @Test
+    void noRetryStartsThatCouldOutrunTheBudget() {
+        // Requests may take up to 300ms; the first one takes 250ms of the 500ms budget, so a retry could overrun it
+        ScriptedProvider provider = new ScriptedProvider(300,
+                new SmsDeliveryException("SMS provider returned 503", true));
+        provider.failAfterMs = 250;
+        SmsGateway gateway = gateway(provider, 3, 5);
+
+        Map<String, SmsGateway.Outcome> outcomes = gateway.send("hello", List.of("9000000001"), 500);
+
+        assertThat(outcomes).containsEntry("9000000001", SmsGateway.Outcome.FAILED);
+        assertThat(provider.requests).isEqualTo(1);
+    }
+
+    @Test
+    void retriesThatFitTheBudgetStillHappen() {
+        ScriptedProvider provider = new ScriptedProvider(100,
+                new SmsDeliveryException("SMS provider returned 503", true));
+        SmsGateway gateway = gateway(provider, 3, 5);
+
+        Map<String, SmsGateway.Outcome> outcomes = gateway.send("hello", List.of("9000000001"), 5_000);
+
+        assertThat(outcomes).containsEntry("9000000001", SmsGateway.Outcome.SENT);
+        assertThat(provider.requests).isEqualTo(2);
+    }
+
+    private static SmsGateway gateway(SmsProvider provider, int maxAttempts, int failureThreshold) {
+        return new SmsGateway(provider, maxAttempts, 1, 2, failureThreshold, 60_000);
+    }
+
+    // Fails with the given exceptions in turn, then succeeds
+    private static final class ScriptedProvider implements SmsProvider {
+        private final long requestTimeoutMs;
+        private final List<SmsDeliveryException> failures;
+        private int requests;
+        private long failAfterMs;
+
+        ScriptedProvider(long requestTimeoutMs, SmsDeliveryException... failures) {
+            this.requestTimeoutMs = requestTimeoutMs;
+            this.failures = new ArrayList<>(List.of(failures));
+        }
+
+        @Override
+        public void send(String message, List<String> recipients) throws SmsDeliveryException {
+            requests++;
+            if (!failures.isEmpty()) {
+                try {
+                    Thread.sleep(failAfterMs);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                throw failures.remove(0);
+            }
+        }
+
+        @Override
+        public int maxRecipients() {
+            return 100;
+        }
+
+        @Override
+        public long requestTimeoutMs() {
+            return requestTimeoutMs;
+        }
+    }
+}
@@ -0,0 +1,60 @@
+package com.yavijexpress.sms;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class StubSmsProviderTest {
+
+    private final StubSmsProvider provider = new StubSmsProvider();
+
+    @Test
+    void keepsWhatWouldHaveBeenSent() throws SmsDeliveryException {
+        List<String> recipients = new ArrayList<>(List.of("9000000001", "9000000002"));
+
+        provider.send("hello", recipients);
+        recipients.clear();
+
+        assertThat(provider.sent()).singleElement().satisfies(sms -> {
+            assertThat(sms.getMessage()).isEqualTo("hello");
+            assertThat(sms.getRecipients()).containsExactly("9000000001", "9000000002");
+        });
+    }
+
+    @Test
+    void failNextFailsThatManyRequestsRetryably() throws SmsDeliveryException {
+        provider.failNext(2);
+
+        for (int i = 0; i < 2; i++) {
+            assertThatThrownBy(() -> provider.send("hello", List.of("9000000001")))
+                    .isInstanceOfSatisfying(SmsDeliveryException.class, e -> assertThat(e.isRetryable()).isTrue());
+        }
+        provider.send("hello", List.of("9000000001"));
+
+        assertThat(provider.sent()).hasSize(1);
+    }
+
+    @Test
+    void keepsOnlyTheMostRecentRequests() throws SmsDeliveryException {
+        for (int i = 0; i < 510; i++) {
+            provider.send("sms " + i, List.of("9000000001"));
+        }
+
+        assertThat(provider.sent()).hasSize(500);
+        assertThat(provider.sent().get(0).getMessage()).isEqualTo("sms 10");
+    }
+
+    @Test
+    void clearForgetsRequestsAndPendingFailures() throws SmsDeliveryException {
+        provider.send("hello", List.of("9000000001"));
+        provider.failNext(1);
+
+        provider.clear();
+        provider.send("again", List.of("9000000001"));
+
+        assertThat(provider.sent()).extracting(StubSmsProvider.SentSms::getMessage).containsExactly("again");
+    }
+}
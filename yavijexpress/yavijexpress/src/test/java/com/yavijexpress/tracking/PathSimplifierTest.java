@@ -0,0 +1,80 @@
+package com.yavijexpress.tracking;
+
+import org.junit.jupiter.api.Test;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class PathSimplifierTest {
+
+    // About 1.1 m of latitude
+    private static final double ONE_METRE = 1e-5;
+
+    @Test
+    void straightRunCollapsesToItsEnds() {
+        List<LocationPoint> path = new ArrayList<>();
+        for (int i = 0; i <= 100; i++) {
+            path.add(point(i, 12.9 + i * 0.001, 77.5));
+        }
+
+        assertThat(PathSimplifier.simplify(path, 5)).containsExactly(path.get(0), path.get(100));
+    }
+
+    @Test
+    void aDetourBeyondTheToleranceIsKept() {
+        List<LocationPoint> path = List.of(
+                point(0, 12.90, 77.50),
+                point(1, 12.91, 77.50 + 50 * ONE_METRE),
+                point(2, 12.92, 77.50));
+
+        assertThat(PathSimplifier.simplify(path, 20)).containsExactlyElementsOf(path);
+        assertThat(PathSimplifier.simplify(path, 100)).containsExactly(path.get(0), path.get(2));
+    }
+
+    @Test
+    void everyDroppedPointIsWithinToleranceOfTheResult() {
+        List<LocationPoint> path = new ArrayList<>();
+        for (int i = 0; i <= 200; i++) {
+            // A zigzag of up to ~28 m either side of a northbound line
+            path.add(point(i, 12.9 + i * 0.0005, 77.5 + ((i % 10) - 5) * 5 * ONE_METRE));
+        }
+
+        List<LocationPoint> simplified = PathSimplifier.simplify(path, 15);
+
+        assertThat(simplified.size()).isLessThan(path.size()).isGreaterThan(2);
+        assertThat(simplified.get(0)).isSameAs(path.get(0));
+        assertThat(simplified.get(simplified.size() - 1)).isSameAs(path.get(200));
+        int segment = 0;
+        for (LocationPoint point : path) {
+            while (point.getRecordedAt() > simplified.get(segment + 1).getRecordedAt()) {
+                segment++;
+            }
+            assertThat(offsetM(point, simplified.get(segment), simplified.get(segment + 1))).isLessThanOrEqualTo(15.0);
+        }
+    }
+
+    @Test
+    void shortPathsAndNonPositiveTolerancesAreReturnedUnchanged() {
+        List<LocationPoint> two = List.of(point(0, 1, 1), point(1, 2, 2));
+        List<LocationPoint> three = List.of(point(0, 1, 1), point(1, 1.5, 1.5), point(2, 2, 2));
+
+        assertThat(PathSimplifier.simplify(two, 10)).isSameAs(two);
+        assertThat(PathSimplifier.simplify(three, 0)).isSameAs(three);
+    }
+
+    private static double offsetM(LocationPoint p, LocationPoint a, LocationPoint b) {
+        double metresPerDegree = Math.toRadians(1) * 6_371_000;
+        double cosLat = Math.cos(Math.toRadians(a.getLatitude()));
+        double px = (p.getLongitude() - a.getLongitude()) * cosLat * metresPerDegree;
+        double py = (p.getLatitude() - a.getLatitude()) * metresPerDegree;
+        double bx = (b.getLongitude() - a.getLongitude()) * cosLat * metresPerDegree;
+        double by = (b.getLatitude() - a.getLatitude()) * metresPerDegree;
+        double t = Math.max(0, Math.min(1, (px * bx + py * by) / (bx * bx + by * by)));
+        return Math.hypot(px - t * bx, py - t * by);
+    }
+
+    private static LocationPoint point(long at, double lat, double lng) {
+        return new LocationPoint(1L, null, lat, lng, null, null, null, at);
+    }
+}
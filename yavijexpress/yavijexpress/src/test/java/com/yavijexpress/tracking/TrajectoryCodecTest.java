@@ -0,0 +1,105 @@
+package com.yavijexpress.tracking;
+
+import org.junit.jupiter.api.Test;
+import java.io.ByteArrayOutputStream;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+class TrajectoryCodecTest {
+
+    private static final long T0 = 1_700_000_000_000L;
+
+    @Test
+    void blockRoundTripsAtFivePlacePrecision() {
+        List<LocationPoint> written = List.of(
+                point(12.971599, 77.594563, 42.4f, T0),
+                point(12.971702, 77.594811, null, T0 + 4_000),
+                point(-33.868820, 151.209296, 0f, T0 + 9_500),
+                point(0, -0.000004, 120.6f, T0 + 9_500));
+
+        List<LocationPoint> read = TrajectoryCodec.decode(7L, block(written));
+
+        assertThat(read).hasSize(written.size());
+        for (int i = 0; i < written.size(); i++) {
+            LocationPoint expected = written.get(i);
+            LocationPoint actual = read.get(i);
+            assertThat(actual.getTripId()).isEqualTo(7L);
+            assertThat(actual.getLatitude()).isCloseTo(expected.getLatitude(), within(0.5e-5));
+            assertThat(actual.getLongitude()).isCloseTo(expected.getLongitude(), within(0.5e-5));
+            assertThat(actual.getRecordedAt()).isEqualTo(expected.getRecordedAt());
+        }
+        assertThat(read.get(0).getSpeed()).isEqualTo(42f);
+        assertThat(read.get(1).getSpeed()).isNull();
+        assertThat(read.get(2).getSpeed()).isEqualTo(0f);
+        assertThat(read.get(3).getSpeed()).isEqualTo(121f);
+    }
+
+    @Test
+    void appendedBlocksDecodeInOrder() {
+        byte[] first = block(List.of(point(10, 20, null, T0), point(10.001, 20.001, null, T0 + 1_000)));
+        byte[] second = block(List.of(point(11, 21, null, T0 + 60_000)));
+
+        List<LocationPoint> read = TrajectoryCodec.decode(1L, concat(first, second));
+
+        assertThat(read).extracting(LocationPoint::getRecordedAt).containsExactly(T0, T0 + 1_000, T0 + 60_000);
+        assertThat(read.get(2).getLatitude()).isEqualTo(11.0);
+    }
+
+    @Test
+    void aPointOlderThanItsPredecessorKeepsThePreviousTime() {
+        List<LocationPoint> read = TrajectoryCodec.decode(1L,
+                block(List.of(point(10, 20, null, T0 + 5_000), point(10, 20, null, T0))));
+
+        assertThat(read).extracting(LocationPoint::getRecordedAt).containsExactly(T0 + 5_000, T0 + 5_000);
+    }
+
+    @Test
+    void movingVehicleCostsAFewBytesPerPoint() {
+        TrajectoryCodec.BlockWriter writer = new TrajectoryCodec.BlockWriter();
+        for (int i = 0; i < 1_000; i++) {
+            writer.append(point(12.97 + i * 0.0001, 77.59 + i * 0.0001, 40f, T0 + i * 3_000L));
+        }
+
+        assertThat(writer.count()).isEqualTo(1_000);
+        assertThat(writer.firstAt()).isEqualTo(T0);
+        assertThat(writer.lastAt()).isEqualTo(T0 + 999 * 3_000L);
+        assertThat(writer.size()).isLessThan(8 * 1_000);
+    }
+
+    @Test
+    void truncatedTailIsDropped() {
+        byte[] whole = concat(block(List.of(point(10, 20, 5f, T0))), block(List.of(point(11, 21, 5f, T0 + 1_000))));
+
+        List<LocationPoint> read = TrajectoryCodec.decode(1L, Arrays.copyOf(whole, whole.length - 2));
+
+        assertThat(read).hasSize(1);
+        assertThat(read.get(0).getLatitude()).isEqualTo(10.0);
+    }
+
+    @Test
+    void nothingStoredDecodesToNoPoints() {
+        assertThat(TrajectoryCodec.decode(1L, null)).isEmpty();
+        assertThat(TrajectoryCodec.decode(1L, new byte[0])).isEmpty();
+    }
+
+    private static byte[] block(List<LocationPoint> points) {
+        TrajectoryCodec.BlockWriter writer = new TrajectoryCodec.BlockWriter();
+        points.forEach(writer::append);
+        return writer.toBlock();
+    }
+
+    private static byte[] concat(byte[]... blocks) {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        for (byte[] block : blocks) {
+            out.writeBytes(block);
+        }
+        return out.toByteArray();
+    }
+
+    private static LocationPoint point(double lat, double lng, Float speed, long at) {
+        return new LocationPoint(1L, null, lat, lng, null, speed, null, at);
+    }
+}
@@ -0,0 +1,94 @@
+package com.yavijexpress.utils;
+
+import org.junit.jupiter.api.Test;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class CircuitBreakerTest {
+
+    private static final long OPEN_MS = 50;
+
+    private final CircuitBreaker breaker = new CircuitBreaker("test", 3, OPEN_MS, TimeUnit.MILLISECONDS);
+
+    @Test
+    void opensAfterTheThresholdOfConsecutiveFailures() {
+        fail(2);
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        fail(1);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+    }
+
+    @Test
+    void aSuccessResetsTheFailureCount() {
+        fail(2);
+        assertThat(breaker.tryAcquire()).isTrue();
+        breaker.onSuccess();
+
+        fail(2);
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+    }
+
+    @Test
+    void openCircuitRejectsAndCountsCalls() {
+        fail(3);
+
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.tryAcquire()).isFalse();
+        assertThat(breaker.getRejected()).isEqualTo(2);
+    }
+
+    @Test
+    void afterTheOpenPeriodOnlyOneTrialIsLetThrough() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_MS + 20);
+
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.HALF_OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+    }
+
+    @Test
+    void aSuccessfulTrialClosesTheCircuit() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_MS + 20);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onSuccess();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(breaker.tryAcquire()).isTrue();
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void aFailedTrialReopensForAnotherPeriod() throws InterruptedException {
+        fail(3);
+        Thread.sleep(OPEN_MS + 20);
+        assertThat(breaker.tryAcquire()).isTrue();
+
+        breaker.onFailure();
+
+        assertThat(breaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(breaker.tryAcquire()).isFalse();
+        Thread.sleep(OPEN_MS + 20);
+        assertThat(breaker.tryAcquire()).isTrue();
+    }
+
+    @Test
+    void thresholdMustBePositive() {
+        assertThatThrownBy(() -> new CircuitBreaker("bad", 0, 1, TimeUnit.SECONDS))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private void fail(int times) {
+        for (int i = 0; i < times; i++) {
+            assertThat(breaker.tryAcquire()).isTrue();
+            breaker.onFailure();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.yavijexpress.utils;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class HashedWheelTimerTest {
+
+    private final HashedWheelTimer<String> timer = new HashedWheelTimer<>("test-wheel", 10, TimeUnit.MILLISECONDS, 8);
+
+    @AfterEach
+    void tearDown() {
+        timer.stop();
+    }
+
+    @Test
+    void taskRunsOnceAfterItsDelay() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        timer.schedule("a", 50, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(40);
+        assertThat(timer.pending()).isZero();
+    }
+
+    @Test
+    void delaysLongerThanOneRevolutionWaitTheExtraRounds() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+        long start = System.nanoTime();
+
+        // The wheel turns once every 80ms
+        timer.schedule("a", 200, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)).isGreaterThanOrEqualTo(190);
+    }
+
+    @Test
+    void cancelledTaskNeverRuns() throws InterruptedException {
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch later = new CountDownLatch(1);
+
+        timer.schedule("a", 30, TimeUnit.MILLISECONDS, () -> ran.add("a"));
+        timer.schedule("b", 100, TimeUnit.MILLISECONDS, later::countDown);
+        assertThat(timer.cancel("a")).isTrue();
+        assertThat(timer.cancel("a")).isFalse();
+
+        assertThat(later.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).isEmpty();
+    }
+
+    @Test
+    void reschedulingAKeyReplacesItsTimeout() throws InterruptedException {
+        List<String> ran = new CopyOnWriteArrayList<>();
+        CountDownLatch fired = new CountDownLatch(1);
+
+        timer.schedule("a", 30, TimeUnit.MILLISECONDS, () -> ran.add("first"));
+        timer.schedule("a", 120, TimeUnit.MILLISECONDS, () -> {
+            ran.add("second");
+            fired.countDown();
+        });
+
+        assertThat(timer.pending()).isEqualTo(1);
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+        assertThat(ran).containsExactly("second");
+    }
+
+    @Test
+    void aFailingTaskDoesNotStopTheWheel() throws InterruptedException {
+        CountDownLatch fired = new CountDownLatch(1);
+
+        timer.schedule("a", 10, TimeUnit.MILLISECONDS, () -> {
+            throw new IllegalStateException("boom");
+        });
+        timer.schedule("b", 60, TimeUnit.MILLISECONDS, fired::countDown);
+
+        assertThat(fired.await(2, TimeUnit.SECONDS)).isTrue();
+    }
+
+    @Test
+    void wheelSizeMustBeAPowerOfTwo() {
+        assertThatThrownBy(() -> new HashedWheelTimer<String>("bad", 10, TimeUnit.MILLISECONDS, 6))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+}